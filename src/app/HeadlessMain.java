@@ -0,0 +1,307 @@
+package app; // punto de entrada sin interfaz gráfica
+
+import io.EdgeListImporter; // opciones de listas de aristas
+import io.GraphFileParser; // parser para leer archivos de grafo
+import io.GraphFileWriter; // escritor requerido por el servicio
+import services.GraphQueryServer; // consultas HTTP de solo lectura
+import services.GraphService; // servicio que gestiona el grafo
+
+import java.io.BufferedWriter; // escritura con búfer del informe
+import java.io.IOException; // excepción de entrada/salida
+import java.net.InetAddress; // interfaz de bucle local
+import java.net.InetSocketAddress; // dirección de escucha
+import java.nio.charset.StandardCharsets; // codificación UTF-8
+import java.nio.file.Files; // utilidades de archivos
+import java.nio.file.Path; // ruta de archivo
+
+/**
+ * Punto de entrada por lotes para servidores sin pantalla: carga uno o más
+ * archivos, calcula las SCC y exporta los resultados, imprimiendo el tiempo de
+ * cada fase. Solo usa clases de {@code app}, {@code services}, {@code io} y
+ * {@code domain}; no carga Swing, {@code ui} ni GraphStream.
+ *
+ * <pre>
+ * java -cp Kosaraju-Nexus.jar app.HeadlessMain [opciones] archivo...
+ *   --edges tsv|csv|snap  las entradas son listas de aristas
+ *   --graphml             exporta &lt;archivo&gt;.graphml con SCC
+ *   --dot                 exporta &lt;archivo&gt;.dot con SCC
+ *   --report              escribe &lt;archivo&gt;.componentes.txt
+ *   --out DIR             carpeta de salida (por defecto, la de cada entrada)
+ *   --top N               componentes listadas en el resumen (10)
+ *   --serve PUERTO        tras procesar la única entrada, atiende consultas
+ *                         HTTP en 127.0.0.1:PUERTO (ver {@link GraphQueryServer})
+ * </pre>
+ *
+ * Código de salida: 0 si todo fue bien, 1 si falló algún archivo y 2 si los
+ * argumentos no son válidos.
+ */
+public final class HeadlessMain { // análisis SCC por línea de comandos
+
+    private static final int EXIT_OK = 0; // todos los archivos procesados
+    private static final int EXIT_FAILED = 1; // algún archivo falló
+    private static final int EXIT_USAGE = 2; // argumentos inválidos
+    private static final int DEFAULT_TOP = 10; // componentes mostradas por defecto
+    private static final String REPORT_SUFFIX = ".componentes.txt"; // sufijo del informe
+
+    private HeadlessMain() { // constructor privado para evitar instancias
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Opciones de la línea de comandos.
+     */
+    private record Arguments(Path[] inputs,
+            EdgeListImporter.Options edgeList,
+            boolean graphMl,
+            boolean dot,
+            boolean report,
+            Path outputDirectory,
+            int top,
+            int servePort) {
+
+    }
+
+    public static void main(final String[] args) { // punto de entrada por lotes
+        final Arguments arguments;
+        try {
+            arguments = parseArguments(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            printUsage();
+            System.exit(EXIT_USAGE);
+            return;
+        }
+        int exitCode = EXIT_OK;
+        GraphService last = null; // servicio de la última entrada procesada
+        for (int i = 0; i < arguments.inputs().length; i++) {
+            try {
+                last = process(arguments.inputs()[i], arguments);
+            } catch (IOException | RuntimeException ex) {
+                System.err.println(arguments.inputs()[i] + ": " + ex.getMessage());
+                exitCode = EXIT_FAILED;
+            }
+        }
+        if (arguments.servePort() >= 0 && last != null) {
+            serve(last, arguments.servePort()); // no retorna: el servidor mantiene viva la JVM
+            return;
+        }
+        System.exit(exitCode);
+    }
+
+    private static void serve(final GraphService graphService, final int port) { // atiende consultas hasta que se detenga el proceso
+        try {
+            final GraphQueryServer server = new GraphQueryServer(graphService,
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            server.start();
+            System.out.println("Atendiendo consultas en http://127.0.0.1:" + server.getPort() + "/");
+        } catch (IOException ex) {
+            System.err.println("No se pudo iniciar el servidor: " + ex.getMessage());
+            System.exit(EXIT_FAILED);
+        }
+    }
+
+    private static GraphService process(final Path input, final Arguments arguments) throws IOException { // carga -> SCC -> exportación
+        final GraphService graphService = new GraphService(new GraphFileParser(), new GraphFileWriter()); // un servicio por archivo
+        final long totalStart = System.nanoTime();
+
+        long start = System.nanoTime();
+        final GraphService.GraphLoadResult loadResult = arguments.edgeList() == null
+                ? graphService.loadFromFile(input)
+                : graphService.importEdgeList(input, arguments.edgeList());
+        System.out.println(input + ": " + graphService.getUserCount() + " usuarios, "
+                + graphService.getRelationCount() + " relaciones");
+        printPhase("carga", start, loadResult.warnings().length + " advertencias");
+
+        start = System.nanoTime();
+        String[][] components = graphService.getLastComponents(); // restauradas de la caché .scc si coincidía
+        final boolean cached = components.length > 0;
+        if (!cached) {
+            components = graphService.computeStronglyConnectedComponents().components();
+        }
+        printPhase("scc", start, components.length + " componentes" + (cached ? " (caché)" : ""));
+
+        final Path outputDirectory = arguments.outputDirectory() != null
+                ? arguments.outputDirectory()
+                : input.toAbsolutePath().getParent();
+        final String baseName = input.getFileName().toString();
+        if (arguments.graphMl()) {
+            start = System.nanoTime();
+            final Path target = outputDirectory.resolve(baseName + ".graphml");
+            graphService.exportGraphMl(target, true);
+            printPhase("graphml", start, target.toString());
+        }
+        if (arguments.dot()) {
+            start = System.nanoTime();
+            final Path target = outputDirectory.resolve(baseName + ".dot");
+            graphService.exportDot(target, true);
+            printPhase("dot", start, target.toString());
+        }
+        if (arguments.report()) {
+            start = System.nanoTime();
+            final Path target = outputDirectory.resolve(baseName + REPORT_SUFFIX);
+            writeReport(target, components);
+            printPhase("informe", start, target.toString());
+        }
+        printSummary(components, arguments.top());
+        printPhase("total", totalStart, "");
+        return graphService;
+    }
+
+    private static void writeReport(final Path target, final String[][] components) throws IOException { // una línea por componente
+        try (BufferedWriter out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            for (int c = 0; c < components.length; c++) {
+                out.write(Integer.toString(c));
+                out.write('\t');
+                out.write(Integer.toString(components[c].length));
+                out.write('\t');
+                for (int k = 0; k < components[c].length; k++) {
+                    if (k > 0) {
+                        out.write(", ");
+                    }
+                    out.write(components[c][k]);
+                }
+                out.newLine();
+            }
+        }
+    }
+
+    private static void printSummary(final String[][] components, final int top) { // componentes más grandes
+        final int shown = Math.min(top, components.length);
+        final int[] largest = new int[shown]; // índices ordenados por tamaño descendente
+        int filled = 0;
+        for (int c = 0; c < components.length; c++) { // selección parcial por inserción: O(C * top)
+            final int size = components[c].length;
+            if (filled == shown && (shown == 0 || size <= components[largest[shown - 1]].length)) {
+                continue;
+            }
+            int j = filled < shown ? filled++ : shown - 1;
+            while (j > 0 && components[largest[j - 1]].length < size) {
+                largest[j] = largest[j - 1];
+                j--;
+            }
+            largest[j] = c;
+        }
+        int singletons = 0;
+        for (int c = 0; c < components.length; c++) {
+            if (components[c].length == 1) {
+                singletons++;
+            }
+        }
+        System.out.println("  componentes de un solo usuario: " + singletons);
+        for (int i = 0; i < filled; i++) {
+            final String[] members = components[largest[i]];
+            System.out.println("  #" + largest[i] + " (" + members.length + "): " + preview(members));
+        }
+    }
+
+    private static String preview(final String[] members) { // primeros handles de una componente
+        final int limit = Math.min(5, members.length);
+        final StringBuilder out = new StringBuilder();
+        for (int i = 0; i < limit; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(members[i]);
+        }
+        if (members.length > limit) {
+            out.append(", …");
+        }
+        return out.toString();
+    }
+
+    private static void printPhase(final String phase, final long startNanos, final String detail) { // tiempo de una fase
+        final long millis = (System.nanoTime() - startNanos) / 1_000_000L;
+        System.out.println(String.format("  %-8s %8d ms  %s", phase, millis, detail));
+    }
+
+    private static Arguments parseArguments(final String[] args) { // interpreta la línea de comandos
+        Path[] inputs = new Path[args.length];
+        int inputCount = 0;
+        EdgeListImporter.Options edgeList = null;
+        boolean graphMl = false;
+        boolean dot = false;
+        boolean report = false;
+        Path outputDirectory = null;
+        int top = DEFAULT_TOP;
+        int servePort = -1;
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            switch (arg) {
+                case "--edges" ->
+                    edgeList = edgeListOptions(valueAfter(args, i++));
+                case "--graphml" ->
+                    graphMl = true;
+                case "--dot" ->
+                    dot = true;
+                case "--report" ->
+                    report = true;
+                case "--out" -> {
+                    outputDirectory = Path.of(valueAfter(args, i++));
+                    if (!Files.isDirectory(outputDirectory)) {
+                        throw new IllegalArgumentException("No existe la carpeta de salida: " + outputDirectory);
+                    }
+                }
+                case "--top" -> {
+                    try {
+                        top = Integer.parseInt(valueAfter(args, i++));
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("--top requiere un número");
+                    }
+                    if (top < 0) {
+                        throw new IllegalArgumentException("--top no puede ser negativo");
+                    }
+                }
+                case "--serve" -> {
+                    try {
+                        servePort = Integer.parseInt(valueAfter(args, i++));
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("--serve requiere un puerto");
+                    }
+                    if (servePort < 0 || servePort > 65535) {
+                        throw new IllegalArgumentException("Puerto fuera de rango: " + servePort);
+                    }
+                }
+                default -> {
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Opción desconocida: " + arg);
+                    }
+                    inputs[inputCount++] = Path.of(arg);
+                }
+            }
+        }
+        if (inputCount == 0) {
+            throw new IllegalArgumentException("Falta al menos un archivo de entrada");
+        }
+        if (servePort >= 0 && inputCount > 1) {
+            throw new IllegalArgumentException("--serve admite una sola entrada");
+        }
+        final Path[] exact = new Path[inputCount];
+        System.arraycopy(inputs, 0, exact, 0, inputCount);
+        return new Arguments(exact, edgeList, graphMl, dot, report, outputDirectory, top, servePort);
+    }
+
+    private static String valueAfter(final String[] args, final int index) { // valor de una opción
+        if (index + 1 >= args.length) {
+            throw new IllegalArgumentException(args[index] + " requiere un valor");
+        }
+        return args[index + 1];
+    }
+
+    private static EdgeListImporter.Options edgeListOptions(final String format) { // formato de lista de aristas
+        return switch (format) {
+            case "tsv" ->
+                EdgeListImporter.Options.tsv();
+            case "csv" ->
+                EdgeListImporter.Options.csv();
+            case "snap" ->
+                EdgeListImporter.Options.snap();
+            default ->
+                throw new IllegalArgumentException("Formato de aristas desconocido: " + format);
+        };
+    }
+
+    private static void printUsage() { // ayuda breve
+        System.err.println("Uso: app.HeadlessMain [--edges tsv|csv|snap] [--graphml] [--dot] [--report]"
+                + " [--out DIR] [--top N] [--serve PUERTO] archivo...");
+    }
+}
@@ -1,6 +1,8 @@
 
 package app; // paquete principal que contiene la clase Main
 
+import services.AutosaveService; // autoguardado en segundo plano
+import services.GraphFileWatcher; // recarga en caliente del archivo
 import services.GraphService; // servicio que gestiona el grafo y operaciones asociadas
 import util.Alerts; // utilidades para mostrar cuadros de diálogo/alertas
 import util.UnsavedChangesTracker; // rastreador de cambios no guardados en la UI
@@ -14,37 +16,86 @@ import javax.swing.UnsupportedLookAndFeelException; // excepción si el L&F no e
 import java.io.IOException; // excepción de entrada/salida
 
 /**
- * Punto de entrada de la aplicación Kosaraju-Nexus. Inicializa servicios, carga
- * el grafo inicial y despliega la interfaz gráfica.
+ * Punto de entrada de la aplicación Kosaraju-Nexus. Inicializa servicios y
+ * despliega la interfaz gráfica mientras el hilo principal carga el grafo
+ * inicial; al terminar la carga se dibuja el grafo y arrancan el autoguardado
+ * y la recarga en caliente.
  */
 public final class Main { // clase de arranque de la aplicación, no instanciable
 
     private static final String INITIAL_RESOURCE = "initial_data.txt"; // recurso por defecto con datos iniciales
+    private static final int RETAINED_CHECKPOINTS = 2; // versiones anteriores que se conservan al guardar
+
+    private static MainFrame frame; // ventana principal (solo se usa en el EDT)
 
     private Main() { // constructor privado para evitar instancias
         throw new UnsupportedOperationException("Utility class"); // lanza si alguien intenta instanciar
     }
 
     public static void main(final String[] args) { // punto de entrada de la aplicación
-        SwingUtilities.invokeLater(Main::startApplication); // programa el inicio en el hilo de eventos de Swing
-    }
-
-    private static void startApplication() { // configura y muestra la UI
-        configureLookAndFeel(); // intenta aplicar el L&F nativo del sistema
         final GraphFileParser parser = new GraphFileParser(); // crea el parser de archivos
-        final GraphFileWriter writer = new GraphFileWriter(); // crea el escritor de archivos
+        final GraphFileWriter writer = new GraphFileWriter(RETAINED_CHECKPOINTS); // crea el escritor de archivos (atómico, con copias rotadas)
         final GraphService graphService = new GraphService(parser, writer); // inicializa el servicio del grafo
         final UnsavedChangesTracker changesTracker = new UnsavedChangesTracker(); // rastreador de cambios
+        SwingUtilities.invokeLater(() -> startApplication(graphService, changesTracker)); // la ventana se construye en el EDT...
+        loadInitialGraph(graphService, changesTracker); // ...mientras este hilo carga el grafo
+    }
+
+    private static void startApplication(final GraphService graphService, final UnsavedChangesTracker changesTracker) { // configura y muestra la UI
+        configureLookAndFeel(); // intenta aplicar el L&F nativo del sistema
+        frame = new MainFrame(graphService, changesTracker); // crea la ventana principal y la inyecta con servicios
+        frame.setGraphLoading(true); // sin ediciones hasta que termine la carga
+        frame.showUi(); // muestra la interfaz al usuario (el primer cuadro espera a que termine la carga)
+        frame.showStatusMessage("Cargando grafo inicial…");
+    }
+
+    private static void loadInitialGraph(final GraphService graphService, final UnsavedChangesTracker changesTracker) { // hilo principal: carga y avisa al EDT
+        GraphService.GraphLoadResult loadResult = null;
+        String failure = null;
         try {
-            final GraphService.GraphLoadResult loadResult = graphService.loadInitialGraphFromResource(INITIAL_RESOURCE); // carga el grafo inicial desde recurso
-            changesTracker.markClean(); // marca que no hay cambios pendientes
-            final MainFrame frame = new MainFrame(graphService, changesTracker); // crea la ventana principal y la inyecta con servicios
-            frame.showUi(); // muestra la interfaz al usuario
-            if (loadResult.warnings().length > 0) { // si hubo advertencias al cargar
-                SwingUtilities.invokeLater(() -> Alerts.warn(frame, "Advertencias", String.join("\n", loadResult.warnings()))); // muestra advertencias en un diálogo
-            }
-        } catch (IOException ex) { // captura errores de E/S al cargar recurso
-            Alerts.error(null, "Error crítico", "No se pudo cargar el grafo inicial: " + ex.getMessage()); // muestra error crítico
+            loadResult = graphService.loadInitialGraphFromResource(INITIAL_RESOURCE); // carga el grafo inicial desde recurso
+        } catch (IOException ex) { // se sigue con el grafo vacío
+            failure = ex.getMessage();
+        }
+        final GraphService.GraphLoadResult result = loadResult;
+        final String error = failure;
+        SwingUtilities.invokeLater(() -> finishStartup(graphService, changesTracker, result, error)); // encolado después de startApplication: la ventana ya existe
+    }
+
+    private static void finishStartup(final GraphService graphService,
+            final UnsavedChangesTracker changesTracker,
+            final GraphService.GraphLoadResult loadResult,
+            final String failure) { // EDT: habilita la edición y arranca los servicios, haya cargado o no
+        changesTracker.markClean(); // marca que no hay cambios pendientes
+        frame.setGraphLoading(false);
+        frame.showStatusMessage("");
+        frame.refreshGraph(); // dibuja el grafo cargado
+        final AutosaveService autosave = new AutosaveService(graphService, changesTracker, frame::showStatusMessage);
+        autosave.start(); // autoguardado en segundo plano
+        frame.attachAutosave(autosave); // se cierra al salir
+        startFileWatcher(graphService, frame); // recarga en caliente del archivo abierto
+        if (loadResult == null) {
+            Alerts.error(frame, "Error crítico", "No se pudo cargar el grafo inicial: " + failure); // muestra error crítico
+        } else if (loadResult.warnings().length > 0) { // si hubo advertencias al cargar
+            Alerts.warn(frame, "Advertencias", String.join("\n", loadResult.warnings())); // muestra advertencias en un diálogo
+        }
+    }
+
+    private static void startFileWatcher(final GraphService graphService, final MainFrame frame) { // vigila cambios externos
+        try {
+            new GraphFileWatcher(graphService, new GraphFileWatcher.ReloadListener() {
+                @Override
+                public void onExternalReload(final GraphService.ExternalReload reload) {
+                    frame.showExternalReload(reload);
+                }
+
+                @Override
+                public void onReloadFailed(final String message) {
+                    frame.showStatusMessage(message);
+                }
+            }).start();
+        } catch (IOException ex) { // sistema de archivos sin notificaciones: se sigue sin recarga en caliente
+            frame.showStatusMessage("Recarga automática no disponible: " + ex.getMessage());
         }
     }
 
@@ -0,0 +1,245 @@
+package domain; // vista condensada por componentes
+
+/**
+ * Vista de nivel de detalle de un grafo grande construida a partir de sus
+ * componentes fuertemente conectadas: cada componente se dibuja como un único
+ * grupo con su número de miembros y las relaciones entre componentes se
+ * agregan en una sola arista por par de grupos. Solo se conservan las
+ * {@code maxGroups} componentes más grandes; las demás se reúnen en un grupo
+ * {@link #REST}. Opcionalmente una componente se muestra expandida: sus
+ * miembros aparecen como usuarios, con sus relaciones internas y sus
+ * relaciones con los grupos.
+ *
+ * @param groupComponent componente de cada grupo ({@link #REST} para el grupo
+ * que reúne las restantes)
+ * @param groupSizes usuarios de cada grupo
+ * @param groupComponentCounts componentes reunidas en cada grupo
+ * @param offsets inicio de los destinos de cada grupo en {@code targets}
+ * (longitud grupos + 1)
+ * @param targets grupos destino, sin repetir por origen
+ * @param expandedComponent componente expandida o {@code -1}
+ * @param members handles de la componente expandida
+ * @param memberFollows relaciones entre miembros de la componente expandida
+ * @param memberOutGroups grupos seguidos por cada miembro
+ * @param memberInGroups grupos que siguen a cada miembro
+ */
+public record CondensedView(int[] groupComponent,
+        int[] groupSizes,
+        int[] groupComponentCounts,
+        int[] offsets,
+        int[] targets,
+        int expandedComponent,
+        String[] members,
+        String[][] memberFollows,
+        int[][] memberOutGroups,
+        int[][] memberInGroups) {
+
+    public static final int REST = -1; // grupo de las componentes no mostradas
+
+    /**
+     * Construye la vista en O(V + E).
+     *
+     * @param graph grafo indexado
+     * @param assignment componentes calculadas sobre {@code graph}
+     * @param condensation condensación de {@code assignment}
+     * @param maxGroups grupos máximos (incluido el grupo {@link #REST})
+     * @param expandedComponent componente a expandir o {@code -1}
+     * @return vista condensada
+     */
+    public static CondensedView build(final IndexedGraph graph,
+            final KosarajuSCC.Assignment assignment,
+            final KosarajuSCC.Condensation condensation,
+            final int maxGroups,
+            final int expandedComponent) {
+        if (graph == null || assignment == null || condensation == null) {
+            throw new IllegalArgumentException("graph/assignment/condensation");
+        }
+        if (maxGroups < 1) {
+            throw new IllegalArgumentException("maxGroups");
+        }
+        final int n = graph.userCount();
+        final int count = assignment.componentCount();
+        final int[] componentOf = assignment.componentOf();
+        if (componentOf.length != n) {
+            throw new IllegalArgumentException("La asignación no corresponde al grafo");
+        }
+        final int expanded = expandedComponent >= 0 && expandedComponent < count ? expandedComponent : -1;
+        final int[] sizes = new int[count];
+        for (int v = 0; v < n; v++) {
+            sizes[componentOf[v]]++;
+        }
+
+        final int[] bySize = sortBySize(sizes, n);
+        final int visible = count - (expanded >= 0 ? 1 : 0); // componentes representadas por grupos
+        final int named = visible <= maxGroups ? visible : maxGroups - 1; // grupos de una sola componente
+        final int groups = visible <= maxGroups ? visible : maxGroups; // más el grupo REST si hace falta
+        final int[] groupOf = new int[count]; // componente -> grupo (-1 = expandida)
+        final int[] groupComponent = new int[groups];
+        final int[] groupSizes = new int[groups];
+        final int[] groupComponentCounts = new int[groups];
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            final int c = bySize[i];
+            if (c == expanded) {
+                groupOf[c] = -1;
+                continue;
+            }
+            final int g = next < named ? next++ : groups - 1;
+            groupOf[c] = g;
+            groupComponent[g] = g < named ? c : REST;
+            groupSizes[g] += sizes[c];
+            groupComponentCounts[g]++;
+        }
+
+        final IntPairs groupEdges = new IntPairs();
+        final int[] componentOffsets = condensation.offsets();
+        final int[] componentTargets = condensation.targets();
+        for (int c = 0; c < count; c++) {
+            final int g = groupOf[c];
+            if (g < 0) {
+                continue;
+            }
+            for (int p = componentOffsets[c]; p < componentOffsets[c + 1]; p++) {
+                final int h = groupOf[componentTargets[p]];
+                if (h >= 0 && h != g) {
+                    groupEdges.add(g, h);
+                }
+            }
+        }
+        final int[][] groupCsr = groupEdges.toCsr(groups, groups);
+
+        if (expanded < 0) {
+            return new CondensedView(groupComponent, groupSizes, groupComponentCounts, groupCsr[0], groupCsr[1],
+                    -1, new String[0], new String[0][], new int[0][], new int[0][]);
+        }
+        final int[] memberPosition = new int[n]; // usuario -> posición en members (+1; 0 = no es miembro)
+        final String[] members = new String[sizes[expanded]];
+        int m = 0;
+        for (int v = 0; v < n; v++) {
+            if (componentOf[v] == expanded) {
+                members[m] = graph.userAt(v);
+                memberPosition[v] = ++m;
+            }
+        }
+        final String[][] memberFollows = new String[members.length][];
+        final IntPairs outPairs = new IntPairs();
+        final IntPairs inPairs = new IntPairs();
+        for (int u = 0; u < n; u++) {
+            final int deg = graph.outDegree(u);
+            if (memberPosition[u] == 0) { // relaciones hacia la componente expandida
+                for (int p = 0; p < deg; p++) {
+                    final int v = graph.neighborAt(u, p);
+                    if (memberPosition[v] != 0) {
+                        inPairs.add(memberPosition[v] - 1, groupOf[componentOf[u]]);
+                    }
+                }
+                continue;
+            }
+            int internal = 0;
+            for (int p = 0; p < deg; p++) {
+                if (memberPosition[graph.neighborAt(u, p)] != 0) {
+                    internal++;
+                }
+            }
+            final String[] follows = new String[internal];
+            internal = 0;
+            for (int p = 0; p < deg; p++) {
+                final int v = graph.neighborAt(u, p);
+                if (memberPosition[v] != 0) {
+                    follows[internal++] = graph.userAt(v);
+                } else {
+                    outPairs.add(memberPosition[u] - 1, groupOf[componentOf[v]]);
+                }
+            }
+            memberFollows[memberPosition[u] - 1] = follows;
+        }
+        return new CondensedView(groupComponent, groupSizes, groupComponentCounts, groupCsr[0], groupCsr[1],
+                expanded, members, memberFollows,
+                outPairs.toRows(members.length, groups),
+                inPairs.toRows(members.length, groups));
+    }
+
+    /**
+     * @return número de grupos
+     */
+    public int groupCount() {
+        return groupSizes.length;
+    }
+
+    private static int[] sortBySize(final int[] sizes, final int maxSize) { // componentes de mayor a menor, por conteo en O(C + V)
+        final int[] start = new int[maxSize + 2];
+        for (int c = 0; c < sizes.length; c++) {
+            start[maxSize - sizes[c] + 1]++;
+        }
+        for (int k = 0; k <= maxSize; k++) {
+            start[k + 1] += start[k];
+        }
+        final int[] order = new int[sizes.length];
+        for (int c = 0; c < sizes.length; c++) {
+            order[start[maxSize - sizes[c]]++] = c;
+        }
+        return order;
+    }
+
+    private static final class IntPairs { // pares (fila, valor) en arreglos crecientes
+
+        private int[] rows = new int[16];
+        private int[] values = new int[16];
+        private int size;
+
+        void add(final int row, final int value) {
+            if (size == rows.length) {
+                final int[] nextRows = new int[size * 2];
+                final int[] nextValues = new int[size * 2];
+                System.arraycopy(rows, 0, nextRows, 0, size);
+                System.arraycopy(values, 0, nextValues, 0, size);
+                rows = nextRows;
+                values = nextValues;
+            }
+            rows[size] = row;
+            values[size] = value;
+            size++;
+        }
+
+        int[][] toCsr(final int rowCount, final int valueRange) { // {offsets, targets} sin valores repetidos por fila
+            final int[] offsets = new int[rowCount + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[rows[i] + 1]++;
+            }
+            for (int r = 0; r < rowCount; r++) {
+                offsets[r + 1] += offsets[r];
+            }
+            final int[] sorted = new int[size];
+            final int[] fill = new int[rowCount];
+            for (int i = 0; i < size; i++) {
+                sorted[offsets[rows[i]] + fill[rows[i]]++] = values[i];
+            }
+            final int[] mark = new int[valueRange]; // última fila (+1) que incluyó cada valor
+            final int[] compactOffsets = new int[rowCount + 1];
+            int written = 0;
+            for (int r = 0; r < rowCount; r++) {
+                for (int p = offsets[r]; p < offsets[r + 1]; p++) {
+                    final int value = sorted[p];
+                    if (mark[value] != r + 1) {
+                        mark[value] = r + 1;
+                        sorted[written++] = value; // compacta en sitio: written <= p
+                    }
+                }
+                compactOffsets[r + 1] = written;
+            }
+            final int[] targets = new int[written];
+            System.arraycopy(sorted, 0, targets, 0, written);
+            return new int[][]{compactOffsets, targets};
+        }
+
+        int[][] toRows(final int rowCount, final int valueRange) { // una fila por miembro
+            final int[][] csr = toCsr(rowCount, valueRange);
+            final int[][] out = new int[rowCount][];
+            for (int r = 0; r < rowCount; r++) {
+                out[r] = new int[csr[0][r + 1] - csr[0][r]];
+                System.arraycopy(csr[1], csr[0][r], out[r], 0, out[r].length);
+            }
+            return out;
+        }
+    }
+}
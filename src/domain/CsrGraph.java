@@ -0,0 +1,114 @@
+package domain; // representación compacta (CSR) de un grafo en memoria
+
+/**
+ * Grafo inmutable en formato CSR (compressed sparse row): los vecinos del
+ * usuario {@code i} ocupan {@code targets[offsets[i] .. offsets[i + 1])}. Se
+ * construye como instantánea de un {@link DirectedGraph} y permite a los
+ * algoritmos trabajar con índices enteros en lugar de comparar handles.
+ */
+public final class CsrGraph implements IndexedGraph {
+
+    private final String[] users; // handles en orden de inserción
+    private final int[] offsets; // inicio de los vecinos de cada usuario (longitud n + 1)
+    private final int[] targets; // índices destino concatenados
+    private final HandleIndex index; // handle -> índice
+
+    private CsrGraph(final String[] users, final int[] offsets, final int[] targets, final HandleIndex index) {
+        this.users = users;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.index = index;
+    }
+
+    /**
+     * Construye la representación CSR del grafo dado en O(V + E).
+     *
+     * @param graph grafo origen
+     * @return instantánea CSR del grafo
+     */
+    public static CsrGraph of(final DirectedGraph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("graph cannot be null");
+        }
+        final DirectedGraph.AdjacencyView view = graph.getAdjacencyView();
+        final String[] users = view.users();
+        final String[][] neighbors = view.neighbors();
+        final HandleIndex index = new HandleIndex(users.length);
+        for (int i = 0; i < users.length; i++) {
+            index.putIfAbsent(users[i], i);
+        }
+        final int[] offsets = new int[users.length + 1];
+        for (int i = 0; i < users.length; i++) {
+            offsets[i + 1] = offsets[i] + neighbors[i].length;
+        }
+        final int[] targets = new int[offsets[users.length]];
+        for (int i = 0; i < users.length; i++) {
+            final String[] neigh = neighbors[i];
+            int pos = offsets[i];
+            for (int j = 0; j < neigh.length; j++) {
+                final int target = index.get(neigh[j]);
+                if (target < 0) {
+                    throw new IllegalStateException("Vecino sin usuario registrado: " + neigh[j]);
+                }
+                targets[pos++] = target;
+            }
+        }
+        return new CsrGraph(users, offsets, targets, index);
+    }
+
+    /**
+     * Construye el grafo traspuesto (relaciones invertidas) en O(V + E). Los
+     * usuarios conservan sus índices.
+     *
+     * @return grafo traspuesto
+     */
+    public CsrGraph transposed() {
+        final int n = users.length;
+        final int[] reverseOffsets = new int[n + 1];
+        for (int e = 0; e < targets.length; e++) {
+            reverseOffsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        final int[] sources = new int[targets.length];
+        final int[] fill = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                final int v = targets[e];
+                sources[reverseOffsets[v] + fill[v]++] = u;
+            }
+        }
+        return new CsrGraph(users, reverseOffsets, sources, index);
+    }
+
+    @Override
+    public int userCount() {
+        return users.length;
+    }
+
+    @Override
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    @Override
+    public String userAt(final int index) {
+        return users[index];
+    }
+
+    @Override
+    public int indexOf(final String handle) {
+        return index.get(handle);
+    }
+
+    @Override
+    public int outDegree(final int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    @Override
+    public int neighborAt(final int index, final int position) {
+        return targets[offsets[index] + position];
+    }
+}
@@ -11,6 +11,7 @@ public class DirectedGraph {
     // Representación interna: arreglo de nodos (orden de inserción)
     private Node[] nodes;
     private int size; // número de nodos presentes
+    private HandleIndex index; // handle -> posición; se construye bajo demanda (null = por reconstruir)
 
     /**
      * Crea un grafo dirigido vacío.
@@ -37,6 +38,26 @@ public class DirectedGraph {
         this.size = other.size;
     }
 
+    /**
+     * Construye un grafo directamente a partir de arreglos de adyacencia ya
+     * validados (handles normalizados, sin duplicados ni vecinos
+     * desconocidos). Lo usan los constructores masivos del paquete para evitar
+     * las búsquedas lineales de {@link #addRelation(String, String)}.
+     *
+     * @param users handles en orden de inserción
+     * @param neighbors vecinos de cada usuario (arreglo paralelo)
+     * @return grafo que adopta los arreglos recibidos
+     */
+    static DirectedGraph fromTrustedAdjacency(final String[] users, final String[][] neighbors) {
+        final DirectedGraph graph = new DirectedGraph();
+        graph.nodes = new Node[Math.max(8, users.length)];
+        for (int i = 0; i < users.length; i++) {
+            graph.nodes[i] = new Node(users[i], neighbors[i]);
+        }
+        graph.size = users.length;
+        return graph;
+    }
+
     /**
      * Añade un usuario identificado por su handle si no existe.
      *
@@ -50,6 +71,9 @@ public class DirectedGraph {
             return false;
         }
         ensureCapacity();
+        if (index != null) {
+            index.putIfAbsent(normalized, size); // mantiene el índice al día sin reconstruirlo
+        }
         nodes[size++] = new Node(normalized, new String[0]);
         return true;
     }
@@ -72,6 +96,7 @@ public class DirectedGraph {
         }
         nodes[size - 1] = null;
         size--;
+        index = null; // las posiciones se desplazaron: se reconstruye en la próxima búsqueda
         // eliminar referencias entrantes
         for (int i = 0; i < size; i++) {
             nodes[i].removeNeighbor(normalized);
@@ -181,6 +206,58 @@ public class DirectedGraph {
         return new AdjacencyView(users, neighbors);
     }
 
+    /**
+     * Recorre los usuarios en orden de inserción sin copiar arreglos. El
+     * visitante no debe modificar el grafo durante el recorrido.
+     *
+     * @param visitor visitante invocado por cada usuario
+     * @param <E> excepción que puede lanzar el visitante
+     * @throws E si el visitante falla
+     */
+    public <E extends Exception> void forEachUser(final UserVisitor<E> visitor) throws E {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+        for (int i = 0; i < size; i++) {
+            visitor.visit(i, nodes[i].handle);
+        }
+    }
+
+    /**
+     * Recorre las relaciones agrupadas por origen (orden de inserción de los
+     * usuarios y de sus vecinos) leyendo directamente la adyacencia interna,
+     * sin las copias de {@link #getAdjacencyView()}. El visitante no debe
+     * modificar el grafo durante el recorrido.
+     *
+     * @param visitor visitante invocado por cada relación
+     * @param <E> excepción que puede lanzar el visitante
+     * @throws E si el visitante falla
+     */
+    public <E extends Exception> void forEachRelation(final RelationVisitor<E> visitor) throws E {
+        if (visitor == null) {
+            throw new IllegalArgumentException("visitor cannot be null");
+        }
+        for (int i = 0; i < size; i++) {
+            final Node node = nodes[i];
+            final String[] neighbors = node.neighbors;
+            for (int j = 0; j < neighbors.length; j++) {
+                visitor.visit(node.handle, neighbors[j]);
+            }
+        }
+    }
+
+    int userCount() { // número de usuarios (acceso interno del paquete)
+        return size;
+    }
+
+    String handleAt(final int index) { // handle del usuario en la posición dada
+        return nodes[index].handle;
+    }
+
+    String[] neighborsAt(final int index) { // arreglo interno de vecinos: solo lectura, sin copia
+        return nodes[index].neighbors;
+    }
+
     /**
      * Indica si un usuario con el handle dado existe en el grafo.
      *
@@ -215,13 +292,15 @@ public class DirectedGraph {
         }
     }
 
-    private int indexOf(final String handle) {
-        for (int i = 0; i < size; i++) {
-            if (nodes[i].handle.equals(handle)) {
-                return i;
+    private int indexOf(final String handle) { // O(1) amortizado mediante el índice hash
+        if (index == null) {
+            final HandleIndex rebuilt = new HandleIndex(Math.max(8, size));
+            for (int i = 0; i < size; i++) {
+                rebuilt.putIfAbsent(nodes[i].handle, i);
             }
+            index = rebuilt;
         }
-        return -1;
+        return index.get(handle);
     }
 
     private String normalizeHandle(final String handle) {
@@ -295,6 +374,28 @@ public class DirectedGraph {
         }
     }
 
+    /**
+     * Visitante de usuarios para {@link #forEachUser(UserVisitor)}.
+     *
+     * @param <E> excepción que puede lanzar
+     */
+    @FunctionalInterface
+    public interface UserVisitor<E extends Exception> {
+
+        void visit(int index, String handle) throws E;
+    }
+
+    /**
+     * Visitante de relaciones para {@link #forEachRelation(RelationVisitor)}.
+     *
+     * @param <E> excepción que puede lanzar
+     */
+    @FunctionalInterface
+    public interface RelationVisitor<E extends Exception> {
+
+        void visit(String from, String to) throws E;
+    }
+
     /**
      * Vista simple e inmutable de la adyacencia.
      */
@@ -0,0 +1,213 @@
+package domain; // vecindario de un usuario
+
+/**
+ * Subgrafo inducido por los usuarios a {@code hops} saltos o menos de un
+ * usuario central, siguiendo relaciones en ambos sentidos (a quién sigue y
+ * quién lo sigue). Se extrae con un BFS acotado sobre la adyacencia entera,
+ * así que el costo depende del tamaño del vecindario y no del grafo
+ * completo.
+ *
+ * @param center handle del usuario central
+ * @param hops radio solicitado
+ * @param users usuarios del vecindario en orden de BFS (el central primero)
+ * @param distances saltos desde el central de cada usuario
+ * @param follows relaciones de cada usuario dentro del vecindario
+ * @param componentIds componente de cada usuario o {@code null} si no hay
+ * SCC calculadas
+ * @param truncated {@code true} si se alcanzó el máximo de usuarios antes
+ * de completar el radio
+ */
+public record EgoNetwork(String center,
+        int hops,
+        String[] users,
+        int[] distances,
+        String[][] follows,
+        int[] componentIds,
+        boolean truncated) {
+
+    /**
+     * Extrae el vecindario del usuario indicado.
+     *
+     * @param forward grafo
+     * @param reverse traspuesto de {@code forward} (mismos índices)
+     * @param center índice del usuario central
+     * @param hops saltos máximos (0 = solo el central)
+     * @param maxUsers usuarios máximos del vecindario
+     * @param componentOf componente de cada usuario o {@code null}
+     * @return vecindario
+     */
+    public static EgoNetwork extract(final IndexedGraph forward,
+            final IndexedGraph reverse,
+            final int center,
+            final int hops,
+            final int maxUsers,
+            final int[] componentOf) {
+        if (forward == null || reverse == null) {
+            throw new IllegalArgumentException("forward/reverse");
+        }
+        if (center < 0 || center >= forward.userCount()) {
+            throw new IllegalArgumentException("center");
+        }
+        if (hops < 0) {
+            throw new IllegalArgumentException("hops");
+        }
+        if (maxUsers < 1) {
+            throw new IllegalArgumentException("maxUsers");
+        }
+        int[] order = new int[Math.min(maxUsers, 1024)];
+        int[] distance = new int[order.length];
+        final PositionMap position = new PositionMap(order.length); // usuario -> posición en el BFS (+1; 0 = no visitado), crece con el vecindario
+        order[0] = center;
+        position.put(center, 1);
+        int count = 1;
+        boolean truncated = false;
+        for (int head = 0; head < count && !truncated; head++) { // cola implícita en 'order'
+            final int u = order[head];
+            if (distance[head] == hops) {
+                break; // el resto de la cola está a la misma distancia
+            }
+            for (int pass = 0; pass < 2 && !truncated; pass++) {
+                final IndexedGraph graph = pass == 0 ? forward : reverse;
+                final int degree = graph.outDegree(u);
+                for (int p = 0; p < degree; p++) {
+                    final int v = graph.neighborAt(u, p);
+                    if (position.get(v) != 0) {
+                        continue;
+                    }
+                    if (count == maxUsers) {
+                        truncated = true;
+                        break;
+                    }
+                    if (count == order.length) {
+                        final int capacity = Math.min(maxUsers, order.length * 2);
+                        order = grow(order, capacity);
+                        distance = grow(distance, capacity);
+                    }
+                    order[count] = v;
+                    distance[count] = distance[head] + 1;
+                    position.put(v, ++count);
+                }
+            }
+        }
+
+        final String[] users = new String[count];
+        final String[][] follows = new String[count][];
+        final int[] components = componentOf == null ? null : new int[count];
+        for (int i = 0; i < count; i++) {
+            final int u = order[i];
+            users[i] = forward.userAt(u);
+            if (components != null) {
+                components[i] = componentOf[u];
+            }
+            final int degree = forward.outDegree(u);
+            int inside = 0;
+            for (int p = 0; p < degree; p++) {
+                if (position.get(forward.neighborAt(u, p)) != 0) {
+                    inside++;
+                }
+            }
+            final String[] targets = new String[inside];
+            inside = 0;
+            for (int p = 0; p < degree; p++) {
+                final int v = forward.neighborAt(u, p);
+                if (position.get(v) != 0) {
+                    targets[inside++] = forward.userAt(v);
+                }
+            }
+            follows[i] = targets;
+        }
+        final int[] distances = new int[count];
+        System.arraycopy(distance, 0, distances, 0, count);
+        return new EgoNetwork(forward.userAt(center), hops, users, distances, follows, components, truncated);
+    }
+
+    /**
+     * Construye un {@link DirectedGraph} con el vecindario.
+     *
+     * @return grafo del vecindario
+     */
+    public DirectedGraph toGraph() {
+        final DirectedGraph graph = new DirectedGraph();
+        for (String user : users) {
+            graph.addUser(user);
+        }
+        for (int i = 0; i < users.length; i++) {
+            for (String target : follows[i]) {
+                graph.addRelation(users[i], target);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Mapa int→int con direccionamiento abierto para las posiciones del BFS:
+     * ocupa memoria proporcional al vecindario en vez de un arreglo del
+     * tamaño del grafo.
+     */
+    private static final class PositionMap {
+
+        private int[] keys; // usuario o -1 si la celda está libre
+        private int[] values;
+        private int size;
+
+        PositionMap(final int expected) {
+            allocate(Integer.highestOneBit(Math.max(2, expected) * 2 - 1) * 2);
+        }
+
+        int get(final int key) { // 0 si no está
+            final int mask = keys.length - 1;
+            for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                if (keys[slot] < 0) {
+                    return 0;
+                }
+            }
+        }
+
+        void put(final int key, final int value) { // solo claves nuevas
+            if (2 * (size + 1) > keys.length) { // factor de carga <= 1/2
+                final int[] oldKeys = keys;
+                final int[] oldValues = values;
+                allocate(keys.length * 2);
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] >= 0) {
+                        insert(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+            insert(key, value);
+            size++;
+        }
+
+        private void insert(final int key, final int value) {
+            final int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void allocate(final int capacity) {
+            keys = new int[capacity];
+            values = new int[capacity];
+            for (int i = 0; i < capacity; i++) {
+                keys[i] = -1;
+            }
+        }
+
+        private static int hash(final int key) { // dispersa índices consecutivos
+            final int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    private static int[] grow(final int[] values, final int capacity) {
+        final int[] next = new int[capacity];
+        System.arraycopy(values, 0, next, 0, values.length);
+        return next;
+    }
+}
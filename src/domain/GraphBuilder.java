@@ -0,0 +1,158 @@
+package domain; // construcción masiva de grafos
+
+/**
+ * Acumula usuarios y relaciones identificados por índices enteros y construye
+ * un {@link DirectedGraph} en O(V + E). Pensado para importaciones masivas
+ * donde llamar a {@link DirectedGraph#addRelation(String, String)} por cada
+ * arista (búsqueda lineal y copia del arreglo de vecinos) sería cuadrático.
+ * Las relaciones duplicadas se descartan conservando el orden de primera
+ * aparición y las auto-referenciales se ignoran.
+ */
+public final class GraphBuilder {
+
+    private final HandleIndex index; // handle -> id
+    private String[] handles; // handles por id (orden de alta)
+    private int userCount;
+    private int[] sources; // origen de cada relación
+    private int[] targets; // destino de cada relación
+    private int relationCount;
+    private int selfLoops; // relaciones auto-referenciales ignoradas
+
+    /**
+     * Crea un constructor vacío.
+     */
+    public GraphBuilder() {
+        this(1024, 4096);
+    }
+
+    /**
+     * Crea un constructor con capacidades iniciales estimadas.
+     *
+     * @param expectedUsers usuarios esperados
+     * @param expectedRelations relaciones esperadas
+     */
+    public GraphBuilder(final int expectedUsers, final int expectedRelations) {
+        this.index = new HandleIndex(Math.max(8, expectedUsers));
+        this.handles = new String[Math.max(8, expectedUsers)];
+        this.sources = new int[Math.max(8, expectedRelations)];
+        this.targets = new int[Math.max(8, expectedRelations)];
+    }
+
+    /**
+     * Registra un usuario si no existe.
+     *
+     * @param handle handle normalizado del usuario
+     * @return id del usuario (nuevo o existente)
+     */
+    public int addUser(final String handle) {
+        if (handle == null || handle.isEmpty()) {
+            throw new IllegalArgumentException("El handle no puede estar vacío");
+        }
+        final int existing = index.putIfAbsent(handle, userCount);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (userCount >= handles.length) {
+            final String[] next = new String[handles.length * 2];
+            System.arraycopy(handles, 0, next, 0, userCount);
+            handles = next;
+        }
+        handles[userCount] = handle;
+        return userCount++;
+    }
+
+    /**
+     * Registra una relación entre dos ids devueltos por
+     * {@link #addUser(String)}.
+     *
+     * @param from id del origen
+     * @param to id del destino
+     * @return {@code false} si la relación es auto-referencial y se ignoró
+     */
+    public boolean addRelation(final int from, final int to) {
+        if (from < 0 || from >= userCount || to < 0 || to >= userCount) {
+            throw new IllegalArgumentException("Id de usuario fuera de rango");
+        }
+        if (from == to) {
+            selfLoops++;
+            return false;
+        }
+        if (relationCount >= sources.length) {
+            final int capacity = sources.length * 2;
+            final int[] nextSources = new int[capacity];
+            final int[] nextTargets = new int[capacity];
+            System.arraycopy(sources, 0, nextSources, 0, relationCount);
+            System.arraycopy(targets, 0, nextTargets, 0, relationCount);
+            sources = nextSources;
+            targets = nextTargets;
+        }
+        sources[relationCount] = from;
+        targets[relationCount] = to;
+        relationCount++;
+        return true;
+    }
+
+    /**
+     * @return número de usuarios registrados
+     */
+    public int userCount() {
+        return userCount;
+    }
+
+    /**
+     * @return relaciones registradas (antes de eliminar duplicados)
+     */
+    public int relationCount() {
+        return relationCount;
+    }
+
+    /**
+     * @return relaciones auto-referenciales ignoradas
+     */
+    public int selfLoops() {
+        return selfLoops;
+    }
+
+    /**
+     * Construye el grafo: agrupa relaciones por origen con un conteo (orden
+     * estable) y descarta duplicados con un arreglo de marcas por destino.
+     *
+     * @return grafo construido
+     */
+    public DirectedGraph build() {
+        final int n = userCount;
+        final int[] offsets = new int[n + 1];
+        for (int e = 0; e < relationCount; e++) {
+            offsets[sources[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        final int[] grouped = new int[relationCount];
+        final int[] fill = new int[n];
+        for (int e = 0; e < relationCount; e++) {
+            final int from = sources[e];
+            grouped[offsets[from] + fill[from]++] = targets[e];
+        }
+        final int[] mark = new int[n]; // último origen (+1) que usó cada destino
+        final String[] users = new String[n];
+        final String[][] neighbors = new String[n][];
+        for (int v = 0; v < n; v++) {
+            users[v] = handles[v];
+            int unique = 0;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                final int to = grouped[e];
+                if (mark[to] != v + 1) {
+                    mark[to] = v + 1;
+                    grouped[offsets[v] + unique++] = to; // compacta en sitio
+                }
+            }
+            final String[] neigh = new String[unique];
+            for (int k = 0; k < unique; k++) {
+                neigh[k] = handles[grouped[offsets[v] + k]];
+            }
+            neighbors[v] = neigh;
+        }
+        return DirectedGraph.fromTrustedAdjacency(users, neighbors);
+    }
+}
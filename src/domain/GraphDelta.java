@@ -0,0 +1,157 @@
+package domain; // diferencia entre dos grafos
+
+/**
+ * Diferencia mínima entre dos grafos expresada como una secuencia de
+ * {@link GraphMutation} lista para aplicarse en orden: primero las bajas de
+ * relaciones, luego las bajas de usuarios (que arrastran sus relaciones), las
+ * altas de usuarios y por último las altas de relaciones.
+ *
+ * @param mutations operaciones en orden de aplicación
+ * @param removedUsers usuarios eliminados
+ * @param addedUsers usuarios añadidos
+ * @param removedRelations relaciones eliminadas explícitamente (no incluye
+ * las que desaparecen con un usuario eliminado)
+ * @param addedRelations relaciones añadidas
+ */
+public record GraphDelta(GraphMutation[] mutations, int removedUsers, int addedUsers, int removedRelations, int addedRelations) {
+
+    public GraphDelta {
+        if (mutations == null) {
+            throw new IllegalArgumentException("mutations");
+        }
+    }
+
+    /**
+     * Calcula la diferencia que transforma {@code current} en {@code target}
+     * en O(V + E): los handles de ambos grafos se numeran en un único espacio
+     * de ids y las relaciones de cada usuario se comparan con arreglos de
+     * marcas, sin ordenar ni construir conjuntos.
+     *
+     * @param current grafo actual
+     * @param target grafo deseado
+     * @return diferencia (vacía si ambos grafos tienen el mismo contenido)
+     */
+    public static GraphDelta between(final DirectedGraph current, final DirectedGraph target) {
+        if (current == null || target == null) {
+            throw new IllegalArgumentException("Los grafos no pueden ser null");
+        }
+        final int currentCount = current.userCount();
+        final int targetCount = target.userCount();
+        final HandleIndex index = new HandleIndex(currentCount + targetCount);
+        for (int i = 0; i < currentCount; i++) {
+            index.putIfAbsent(current.handleAt(i), i);
+        }
+        int merged = currentCount;
+        final int[] targetToMerged = new int[targetCount]; // posición en target -> id común
+        final int[] mergedToTarget = new int[currentCount + targetCount]; // id común -> posición en target (+1)
+        for (int i = 0; i < targetCount; i++) {
+            final int existing = index.putIfAbsent(target.handleAt(i), merged);
+            final int id = existing >= 0 ? existing : merged++;
+            targetToMerged[i] = id;
+            mergedToTarget[id] = i + 1;
+        }
+
+        final MutationBuffer removedRelations = new MutationBuffer();
+        final MutationBuffer removedUsers = new MutationBuffer();
+        final MutationBuffer addedUsers = new MutationBuffer();
+        final MutationBuffer addedRelations = new MutationBuffer();
+        final int[] inCurrent = new int[merged]; // marca (u + 1) de destinos actuales de u
+        final int[] inTarget = new int[merged]; // marca (u + 1) de destinos deseados de u
+
+        for (int u = 0; u < currentCount; u++) {
+            if (mergedToTarget[u] == 0) {
+                removedUsers.add(GraphMutation.removeUser(current.handleAt(u))); // arrastra sus relaciones
+            }
+        }
+        for (int i = 0; i < targetCount; i++) {
+            final int u = targetToMerged[i];
+            final String from = target.handleAt(i);
+            if (u >= currentCount) {
+                addedUsers.add(GraphMutation.addUser(from));
+            } else {
+                final String[] old = current.neighborsAt(u);
+                for (int k = 0; k < old.length; k++) {
+                    inCurrent[index.get(old[k])] = u + 1;
+                }
+            }
+            final String[] wanted = target.neighborsAt(i);
+            for (int k = 0; k < wanted.length; k++) {
+                final int to = index.get(wanted[k]);
+                inTarget[to] = u + 1;
+                if (inCurrent[to] != u + 1) {
+                    addedRelations.add(GraphMutation.addRelation(from, wanted[k]));
+                }
+            }
+            if (u < currentCount) {
+                final String[] old = current.neighborsAt(u);
+                for (int k = 0; k < old.length; k++) {
+                    final int to = index.get(old[k]);
+                    if (inTarget[to] != u + 1 && mergedToTarget[to] != 0) { // si el destino desaparece, basta con su baja
+                        removedRelations.add(GraphMutation.removeRelation(from, old[k]));
+                    }
+                }
+            }
+        }
+
+        final GraphMutation[] mutations = new GraphMutation[removedRelations.size + removedUsers.size + addedUsers.size + addedRelations.size];
+        int offset = removedRelations.copyTo(mutations, 0);
+        offset = removedUsers.copyTo(mutations, offset);
+        offset = addedUsers.copyTo(mutations, offset);
+        addedRelations.copyTo(mutations, offset);
+        return new GraphDelta(mutations, removedUsers.size, addedUsers.size, removedRelations.size, addedRelations.size);
+    }
+
+    /**
+     * @return {@code true} si no hay cambios
+     */
+    public boolean isEmpty() {
+        return mutations.length == 0;
+    }
+
+    /**
+     * @return número de operaciones
+     */
+    public int size() {
+        return mutations.length;
+    }
+
+    /**
+     * Aplica la diferencia sobre el grafo dado.
+     *
+     * @param graph grafo a modificar (normalmente el {@code current} usado al
+     * calcularla)
+     * @return operaciones que modificaron el grafo
+     */
+    public int applyTo(final DirectedGraph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("graph");
+        }
+        int applied = 0;
+        for (int i = 0; i < mutations.length; i++) {
+            if (mutations[i].applyTo(graph)) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private static final class MutationBuffer { // arreglo creciente de operaciones
+
+        private GraphMutation[] items = new GraphMutation[8];
+        private int size;
+
+        void add(final GraphMutation mutation) {
+            if (size == items.length) {
+                final GraphMutation[] next = new GraphMutation[items.length * 2];
+                System.arraycopy(items, 0, next, 0, size);
+                items = next;
+            }
+            items[size++] = mutation;
+        }
+
+        int copyTo(final GraphMutation[] target, final int offset) {
+            System.arraycopy(items, 0, target, offset, size);
+            return offset + size;
+        }
+    }
+}
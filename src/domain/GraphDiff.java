@@ -0,0 +1,207 @@
+package domain; // comparación de grafos
+
+/**
+ * Informe de diferencias entre dos grafos: usuarios y relaciones que
+ * aparecieron o desaparecieron, y usuarios cuya componente fuertemente
+ * conectada cambió. Las relaciones se reportan como arreglos paralelos de
+ * origen y destino.
+ *
+ * <p>
+ * Se considera que un usuario presente en ambos grafos cambió de componente
+ * cuando, entre los usuarios comunes, su componente se partió o se fusionó
+ * con otra (los ids de componente no son comparables entre cálculos, por eso
+ * se compara la pertenencia y no el número).</p>
+ *
+ * @param addedUsers usuarios que solo existen en el grafo nuevo
+ * @param removedUsers usuarios que solo existen en el grafo anterior
+ * @param addedFrom orígenes de las relaciones añadidas
+ * @param addedTo destinos de las relaciones añadidas
+ * @param removedFrom orígenes de las relaciones eliminadas
+ * @param removedTo destinos de las relaciones eliminadas
+ * @param sccChangedUsers usuarios comunes cuya componente cambió
+ * @param componentsBefore componentes del grafo anterior
+ * @param componentsAfter componentes del grafo nuevo
+ */
+public record GraphDiff(String[] addedUsers,
+        String[] removedUsers,
+        String[] addedFrom,
+        String[] addedTo,
+        String[] removedFrom,
+        String[] removedTo,
+        String[] sccChangedUsers,
+        int componentsBefore,
+        int componentsAfter) {
+
+    /**
+     * Compara dos grafos indexados en O(V + E) con memoria adicional O(V) más
+     * el propio informe: los usuarios se emparejan por handle con el índice
+     * de cada grafo y las relaciones de cada usuario se comparan con arreglos
+     * de marcas en el espacio de ids del grafo nuevo.
+     *
+     * @param before grafo anterior
+     * @param after grafo nuevo
+     * @return informe de diferencias
+     */
+    public static GraphDiff compare(final IndexedGraph before, final IndexedGraph after) {
+        if (before == null || after == null) {
+            throw new IllegalArgumentException("Los grafos no pueden ser null");
+        }
+        final int nb = before.userCount();
+        final int na = after.userCount();
+        final int[] afterOf = new int[nb]; // id anterior -> id nuevo (-1 si se eliminó)
+        final int[] beforeOf = new int[na]; // id nuevo -> id anterior (-1 si es nuevo)
+        for (int a = 0; a < na; a++) {
+            beforeOf[a] = -1;
+        }
+        final StringList removedUsers = new StringList();
+        for (int b = 0; b < nb; b++) {
+            final int a = after.indexOf(before.userAt(b));
+            afterOf[b] = a;
+            if (a < 0) {
+                removedUsers.add(before.userAt(b));
+            } else {
+                beforeOf[a] = b;
+            }
+        }
+        final StringList addedUsers = new StringList();
+        final StringList addedFrom = new StringList();
+        final StringList addedTo = new StringList();
+        final StringList removedFrom = new StringList();
+        final StringList removedTo = new StringList();
+        final int[] wasTarget = new int[na]; // marca (a + 1): destino anterior de a
+        final int[] isTarget = new int[na]; // marca (a + 1): destino nuevo de a
+        for (int a = 0; a < na; a++) {
+            final int b = beforeOf[a];
+            if (b < 0) {
+                addedUsers.add(after.userAt(a));
+            } else {
+                for (int p = 0, deg = before.outDegree(b); p < deg; p++) {
+                    final int t = afterOf[before.neighborAt(b, p)];
+                    if (t >= 0) {
+                        wasTarget[t] = a + 1;
+                    }
+                }
+            }
+            for (int p = 0, deg = after.outDegree(a); p < deg; p++) {
+                final int t = after.neighborAt(a, p);
+                isTarget[t] = a + 1;
+                if (wasTarget[t] != a + 1) {
+                    addedFrom.add(after.userAt(a));
+                    addedTo.add(after.userAt(t));
+                }
+            }
+            if (b >= 0) {
+                for (int p = 0, deg = before.outDegree(b); p < deg; p++) {
+                    final int old = before.neighborAt(b, p);
+                    final int t = afterOf[old];
+                    if (t < 0 || isTarget[t] != a + 1) {
+                        removedFrom.add(before.userAt(b));
+                        removedTo.add(before.userAt(old));
+                    }
+                }
+            }
+        }
+        for (int b = 0; b < nb; b++) {
+            if (afterOf[b] < 0) { // relaciones salientes de usuarios eliminados
+                for (int p = 0, deg = before.outDegree(b); p < deg; p++) {
+                    removedFrom.add(before.userAt(b));
+                    removedTo.add(before.userAt(before.neighborAt(b, p)));
+                }
+            }
+        }
+
+        final KosarajuSCC kosaraju = new KosarajuSCC();
+        final KosarajuSCC.Assignment sccBefore = kosaraju.assign(before);
+        final KosarajuSCC.Assignment sccAfter = kosaraju.assign(after);
+        final StringList sccChanged = sccChangedUsers(after, beforeOf, sccBefore, sccAfter);
+
+        return new GraphDiff(addedUsers.toArray(),
+                removedUsers.toArray(),
+                addedFrom.toArray(),
+                addedTo.toArray(),
+                removedFrom.toArray(),
+                removedTo.toArray(),
+                sccChanged.toArray(),
+                sccBefore.componentCount(),
+                sccAfter.componentCount());
+    }
+
+    private static StringList sccChangedUsers(final IndexedGraph after,
+            final int[] beforeOf,
+            final KosarajuSCC.Assignment sccBefore,
+            final KosarajuSCC.Assignment sccAfter) { // usuarios comunes en componentes partidas o fusionadas
+        final int[] splitInto = new int[sccBefore.componentCount()]; // componente anterior -> única nueva (+1), -1 si se partió
+        final int[] mergedFrom = new int[sccAfter.componentCount()]; // componente nueva -> única anterior (+1), -1 si fusiona varias
+        final int[] compBefore = sccBefore.componentOf();
+        final int[] compAfter = sccAfter.componentOf();
+        for (int a = 0; a < beforeOf.length; a++) {
+            final int b = beforeOf[a];
+            if (b < 0) {
+                continue;
+            }
+            final int cb = compBefore[b];
+            final int ca = compAfter[a];
+            if (splitInto[cb] == 0) {
+                splitInto[cb] = ca + 1;
+            } else if (splitInto[cb] != ca + 1) {
+                splitInto[cb] = -1;
+            }
+            if (mergedFrom[ca] == 0) {
+                mergedFrom[ca] = cb + 1;
+            } else if (mergedFrom[ca] != cb + 1) {
+                mergedFrom[ca] = -1;
+            }
+        }
+        final StringList changed = new StringList();
+        for (int a = 0; a < beforeOf.length; a++) {
+            final int b = beforeOf[a];
+            if (b >= 0 && (splitInto[compBefore[b]] < 0 || mergedFrom[compAfter[a]] < 0)) {
+                changed.add(after.userAt(a));
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return número de relaciones añadidas
+     */
+    public int addedRelationCount() {
+        return addedFrom.length;
+    }
+
+    /**
+     * @return número de relaciones eliminadas (incluye las de usuarios
+     * eliminados)
+     */
+    public int removedRelationCount() {
+        return removedFrom.length;
+    }
+
+    /**
+     * @return {@code true} si ambos grafos tienen el mismo contenido
+     */
+    public boolean isEmpty() {
+        return addedUsers.length == 0 && removedUsers.length == 0 && addedFrom.length == 0 && removedFrom.length == 0;
+    }
+
+    private static final class StringList { // arreglo creciente de handles
+
+        private String[] items = new String[8];
+        private int size;
+
+        void add(final String value) {
+            if (size == items.length) {
+                final String[] next = new String[items.length * 2];
+                System.arraycopy(items, 0, next, 0, size);
+                items = next;
+            }
+            items[size++] = value;
+        }
+
+        String[] toArray() {
+            final String[] out = new String[size];
+            System.arraycopy(items, 0, out, 0, size);
+            return out;
+        }
+    }
+}
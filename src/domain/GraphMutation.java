@@ -0,0 +1,84 @@
+package domain; // operación de modificación sobre el grafo
+
+/**
+ * Operación elemental de modificación sobre un {@link DirectedGraph}: alta o
+ * baja de un usuario o de una relación. Permite registrar cambios (por ejemplo
+ * en un diario de escritura anticipada) y reproducirlos más tarde.
+ *
+ * @param kind tipo de operación
+ * @param from handle del usuario (o del origen en relaciones)
+ * @param to handle del destino; {@code null} en operaciones de usuario
+ */
+public record GraphMutation(Kind kind, String from, String to) {
+
+    /**
+     * Tipos de operación soportados.
+     */
+    public enum Kind {
+        ADD_USER,
+        REMOVE_USER,
+        ADD_RELATION,
+        REMOVE_RELATION
+    }
+
+    public GraphMutation {
+        if (kind == null) {
+            throw new IllegalArgumentException("kind");
+        }
+        if (from == null) {
+            throw new IllegalArgumentException("from");
+        }
+        if (isRelation(kind) && to == null) {
+            throw new IllegalArgumentException("to");
+        }
+    }
+
+    public static GraphMutation addUser(final String handle) {
+        return new GraphMutation(Kind.ADD_USER, handle, null);
+    }
+
+    public static GraphMutation removeUser(final String handle) {
+        return new GraphMutation(Kind.REMOVE_USER, handle, null);
+    }
+
+    public static GraphMutation addRelation(final String from, final String to) {
+        return new GraphMutation(Kind.ADD_RELATION, from, to);
+    }
+
+    public static GraphMutation removeRelation(final String from, final String to) {
+        return new GraphMutation(Kind.REMOVE_RELATION, from, to);
+    }
+
+    /**
+     * @return {@code true} si la operación afecta a una relación
+     */
+    public boolean isRelation() {
+        return isRelation(kind);
+    }
+
+    /**
+     * Aplica la operación sobre el grafo dado.
+     *
+     * @param graph grafo a modificar
+     * @return {@code true} si el grafo cambió
+     */
+    public boolean applyTo(final DirectedGraph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("graph cannot be null");
+        }
+        return switch (kind) {
+            case ADD_USER ->
+                graph.addUser(from);
+            case REMOVE_USER ->
+                graph.removeUser(from);
+            case ADD_RELATION ->
+                graph.containsUser(from) && graph.containsUser(to) && graph.addRelation(from, to);
+            case REMOVE_RELATION ->
+                graph.removeRelation(from, to);
+        };
+    }
+
+    private static boolean isRelation(final Kind kind) {
+        return kind == Kind.ADD_RELATION || kind == Kind.REMOVE_RELATION;
+    }
+}
@@ -83,6 +83,34 @@ public final class GraphUtils {
         if (!trimmed.startsWith("@")) {
             throw new IllegalArgumentException("El handle debe iniciar con '@'");
         }
+        if (hasSeparator(trimmed)) { // el formato de texto no podría volver a leerlo
+            throw new IllegalArgumentException("El handle no puede contener espacios ni comas");
+        }
+    }
+
+    /**
+     * Mismas reglas que {@link #validateHandle(String)} sin lanzar
+     * excepciones, para validar muchos handles seguidos.
+     *
+     * @param handle handle a comprobar
+     * @return {@code true} si es válido
+     */
+    public static boolean isValidHandle(final String handle) {
+        if (handle == null) {
+            return false;
+        }
+        final String trimmed = handle.trim();
+        return !trimmed.isEmpty() && trimmed.startsWith("@") && !hasSeparator(trimmed);
+    }
+
+    private static boolean hasSeparator(final String handle) { // comas o espacios internos rompen la línea 'origen, destino'
+        for (int i = 0; i < handle.length(); i++) {
+            final char c = handle.charAt(i);
+            if (c == ',' || Character.isWhitespace(c)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public static DirectedGraph.AdjacencyView snapshotAdjacency(final DirectedGraph graph) {
@@ -0,0 +1,112 @@
+package domain; // índice hash de handles a posiciones
+
+/**
+ * Tabla hash de direccionamiento abierto que asocia handles con índices
+ * enteros. Sustituye a las búsquedas lineales cuando se necesita resolver
+ * muchos handles, sin depender de java.util.
+ */
+public final class HandleIndex {
+
+    private String[] keys; // handles almacenados (null = ranura libre)
+    private int[] values; // índice asociado a cada handle
+    private int size; // número de entradas
+
+    /**
+     * Crea un índice con capacidad inicial para la cantidad esperada de
+     * handles.
+     *
+     * @param expected número de handles esperados
+     */
+    public HandleIndex(final int expected) {
+        final int capacity = tableSizeFor(Math.max(4, expected));
+        this.keys = new String[capacity];
+        this.values = new int[capacity];
+    }
+
+    /**
+     * Asocia el handle con el índice dado si aún no existe.
+     *
+     * @param handle handle a registrar
+     * @param value índice a asociar
+     * @return índice previamente asociado o {@code -1} si el handle es nuevo
+     */
+    public int putIfAbsent(final String handle, final int value) {
+        if (handle == null) {
+            throw new IllegalArgumentException("handle");
+        }
+        if ((size + 1) * 4 > keys.length * 3) { // factor de carga máximo 0.75
+            grow();
+        }
+        final int mask = keys.length - 1;
+        int slot = mix(handle.hashCode()) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(handle)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = handle;
+        values[slot] = value;
+        size++;
+        return -1;
+    }
+
+    /**
+     * Obtiene el índice asociado al handle.
+     *
+     * @param handle handle a buscar
+     * @return índice asociado o {@code -1} si no existe
+     */
+    public int get(final String handle) {
+        if (handle == null) {
+            return -1;
+        }
+        final int mask = keys.length - 1;
+        int slot = mix(handle.hashCode()) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(handle)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return número de handles registrados
+     */
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        final String[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int slot = mix(oldKeys[i].hashCode()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int mix(final int h) { // dispersa bits altos para tablas potencia de dos
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(final int expected) {
+        int capacity = 1;
+        while (capacity * 3 < expected * 4) {
+            capacity <<= 1;
+        }
+        return Math.max(capacity, 8);
+    }
+}
@@ -0,0 +1,198 @@
+package domain; // búsqueda de usuarios y relaciones por prefijo
+
+/**
+ * Índice de prefijos sobre los handles de un {@link IndexedGraph}: los
+ * usuarios se ordenan una vez (sin distinguir mayúsculas) y los que empiezan
+ * por un prefijo forman un rango contiguo que se encuentra con dos búsquedas
+ * binarias. Las relaciones se numeran en el mismo orden (primero las del
+ * primer usuario, luego las del segundo...), de modo que las relaciones cuyo
+ * origen empieza por un prefijo también forman un rango. Nada se copia al
+ * consultar: la posición {@code i} de un rango se resuelve bajo demanda.
+ *
+ * <p>
+ * Es inmutable y comparte el grafo con quien lo creó, que no debe
+ * modificarse.</p>
+ */
+public final class HandlePrefixIndex {
+
+    private final IndexedGraph graph; // grafo indexado (inmutable)
+    private final int[] order; // posición en el orden alfabético -> índice de usuario
+    private final int[] relationStart; // relaciones de los usuarios anteriores a cada posición (longitud n + 1)
+
+    private HandlePrefixIndex(final IndexedGraph graph, final int[] order) {
+        this.graph = graph;
+        this.order = order;
+        this.relationStart = new int[order.length + 1];
+        for (int r = 0; r < order.length; r++) {
+            relationStart[r + 1] = relationStart[r] + graph.outDegree(order[r]);
+        }
+    }
+
+    /**
+     * Construye el índice en O(V log V). Si {@code previous} se construyó
+     * sobre los mismos usuarios en el mismo orden (solo cambiaron
+     * relaciones), reutiliza su orden y el costo baja a O(V).
+     *
+     * @param graph grafo indexado
+     * @param previous índice anterior o {@code null}
+     * @return índice de prefijos
+     */
+    public static HandlePrefixIndex of(final IndexedGraph graph, final HandlePrefixIndex previous) {
+        if (graph == null) {
+            throw new IllegalArgumentException("graph");
+        }
+        if (previous != null && sameUsers(previous.graph, graph)) {
+            return new HandlePrefixIndex(graph, previous.order);
+        }
+        final int n = graph.userCount();
+        final int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[v] = v;
+        }
+        mergeSort(graph, order, new int[n], 0, n);
+        return new HandlePrefixIndex(graph, order);
+    }
+
+    /**
+     * @return grafo sobre el que se construyó el índice
+     */
+    public IndexedGraph graph() {
+        return graph;
+    }
+
+    /**
+     * @return número de usuarios
+     */
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Primera posición cuyo handle empieza por el prefijo (o donde estaría).
+     *
+     * @param prefix prefijo, sin distinguir mayúsculas
+     * @return posición en el orden alfabético
+     */
+    public int firstRank(final String prefix) {
+        return search(prefix, false);
+    }
+
+    /**
+     * Posición siguiente a la última cuyo handle empieza por el prefijo.
+     *
+     * @param prefix prefijo, sin distinguir mayúsculas
+     * @return posición en el orden alfabético
+     */
+    public int endRank(final String prefix) {
+        return search(prefix, true);
+    }
+
+    /**
+     * @param rank posición en el orden alfabético
+     * @return handle en esa posición
+     */
+    public String handleAt(final int rank) {
+        return graph.userAt(order[rank]);
+    }
+
+    /**
+     * @param rank posición en el orden alfabético (hasta {@link #size()})
+     * @return relaciones cuyo origen está antes de esa posición
+     */
+    public int relationsBefore(final int rank) {
+        return relationStart[rank];
+    }
+
+    /**
+     * Posición del origen de una relación en O(log V).
+     *
+     * @param relation número de relación en {@code [0, relationsBefore(size()))}
+     * @return posición alfabética del usuario origen
+     */
+    public int originRankOf(final int relation) {
+        int low = 0;
+        int high = order.length - 1;
+        while (low < high) { // última posición con relationStart <= relation
+            final int mid = (low + high + 1) >>> 1;
+            if (relationStart[mid] <= relation) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param relation número de relación
+     * @return handle destino de la relación
+     */
+    public String relationTargetAt(final int relation) {
+        final int rank = originRankOf(relation);
+        return graph.userAt(graph.neighborAt(order[rank], relation - relationStart[rank]));
+    }
+
+    private int search(final String prefix, final boolean after) { // búsqueda binaria del límite del rango
+        final String key = prefix == null ? "" : prefix;
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = compareFolded(graph.userAt(order[mid]), key, key.length());
+            if (cmp < 0 || (after && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean sameUsers(final IndexedGraph before, final IndexedGraph after) { // mismos handles en los mismos índices
+        final int n = after.userCount();
+        if (before.userCount() != n) {
+            return false;
+        }
+        for (int v = 0; v < n; v++) {
+            if (!before.userAt(v).equals(after.userAt(v))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void mergeSort(final IndexedGraph graph, final int[] values, final int[] buffer, final int from, final int to) { // estable, O(n log n)
+        if (to - from < 2) {
+            return;
+        }
+        final int mid = (from + to) >>> 1;
+        mergeSort(graph, values, buffer, from, mid);
+        mergeSort(graph, values, buffer, mid, to);
+        if (compareFolded(graph.userAt(values[mid - 1]), graph.userAt(values[mid]), Integer.MAX_VALUE) <= 0) {
+            return; // mitades ya ordenadas
+        }
+        System.arraycopy(values, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int k = from; k < to; k++) {
+            if (right >= to || (left < mid
+                    && compareFolded(graph.userAt(buffer[left]), graph.userAt(buffer[right]), Integer.MAX_VALUE) <= 0)) {
+                values[k] = buffer[left++];
+            } else {
+                values[k] = buffer[right++];
+            }
+        }
+    }
+
+    private static int compareFolded(final String a, final String b, final int limit) { // compara los primeros 'limit' caracteres sin distinguir mayúsculas
+        final int length = Math.min(Math.min(a.length(), b.length()), limit);
+        for (int i = 0; i < length; i++) {
+            final char x = Character.toLowerCase(Character.toUpperCase(a.charAt(i)));
+            final char y = Character.toLowerCase(Character.toUpperCase(b.charAt(i)));
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return Math.min(a.length(), limit) - Math.min(b.length(), limit);
+    }
+}
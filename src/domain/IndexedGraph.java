@@ -0,0 +1,70 @@
+package domain; // vista de solo lectura de un grafo indexado por enteros
+
+/**
+ * Vista de solo lectura de un grafo dirigido cuyos usuarios se identifican por
+ * un índice entero en {@code [0, userCount())}. Permite recorrer la adyacencia
+ * sin crear copias de arreglos de handles, por lo que la implementan tanto
+ * estructuras en memoria ({@link CsrGraph}) como vistas sobre archivos
+ * mapeados.
+ */
+public interface IndexedGraph {
+
+    /**
+     * @return número de usuarios (nodos)
+     */
+    int userCount();
+
+    /**
+     * @return número total de relaciones (aristas)
+     */
+    int edgeCount();
+
+    /**
+     * Obtiene el handle del usuario con el índice dado.
+     *
+     * @param index índice del usuario
+     * @return handle del usuario
+     */
+    String userAt(int index);
+
+    /**
+     * Busca el índice de un usuario por su handle.
+     *
+     * @param handle handle a buscar
+     * @return índice del usuario o {@code -1} si no existe
+     */
+    int indexOf(String handle);
+
+    /**
+     * @param index índice del usuario
+     * @return número de relaciones salientes del usuario
+     */
+    int outDegree(int index);
+
+    /**
+     * Obtiene el índice del vecino en la posición indicada.
+     *
+     * @param index índice del usuario origen
+     * @param position posición en {@code [0, outDegree(index))}
+     * @return índice del usuario destino
+     */
+    int neighborAt(int index, int position);
+
+    /**
+     * Devuelve los handles de los vecinos del usuario dado.
+     *
+     * @param handle handle del usuario
+     * @return arreglo de handles destino; vacío si el usuario no existe
+     */
+    default String[] neighborsOf(final String handle) {
+        final int idx = handle == null ? -1 : indexOf(handle.trim());
+        if (idx < 0) {
+            return new String[0];
+        }
+        final String[] out = new String[outDegree(idx)];
+        for (int p = 0; p < out.length; p++) {
+            out[p] = userAt(neighborAt(idx, p));
+        }
+        return out;
+    }
+}
@@ -20,128 +20,234 @@ public class KosarajuSCC {
         if (graph == null) {
             throw new IllegalArgumentException("graph cannot be null");
         }
+        return compute(CsrGraph.of(graph));
+    }
 
-        final DirectedGraph.AdjacencyView view = graph.getAdjacencyView();
-        final String[] users = view.users();
-        final String[][] neighbors = view.neighbors();
+    /**
+     * Ejecuta Kosaraju sobre cualquier {@link IndexedGraph}, incluidas las
+     * vistas sobre archivos mapeados en memoria.
+     *
+     * @param graph grafo indexado
+     * @return componentes como arreglos de handles
+     */
+    public String[][] compute(final IndexedGraph graph) {
+        final String[] users = new String[graph.userCount()];
+        for (int v = 0; v < users.length; v++) {
+            users[v] = graph.userAt(v);
+        }
+        return group(users, assign(graph));
+    }
+
+    /**
+     * Agrupa los handles por componente: la componente {@code c} queda en la
+     * posición {@code c} y sus miembros en orden de índice.
+     *
+     * @param users handle de cada índice de usuario
+     * @param assignment asignación calculada sobre el mismo orden de usuarios
+     * @return componentes como arreglos de handles
+     */
+    public String[][] group(final String[] users, final Assignment assignment) {
+        if (users == null || assignment == null || users.length != assignment.componentOf().length) {
+            throw new IllegalArgumentException("La asignación no corresponde a los usuarios");
+        }
         final int n = users.length;
+        final int count = assignment.componentCount();
+        final int[] componentOf = assignment.componentOf();
+        final int[] sizes = new int[count];
+        for (int v = 0; v < n; v++) {
+            sizes[componentOf[v]]++;
+        }
+        final String[][] result = new String[count][];
+        for (int c = 0; c < count; c++) {
+            result[c] = new String[sizes[c]];
+        }
+        final int[] fill = new int[count];
+        for (int v = 0; v < n; v++) {
+            final int c = componentOf[v];
+            result[c][fill[c]++] = users[v];
+        }
+        return result;
+    }
+
+    /**
+     * Construye el grafo de condensación (DAG de componentes) en formato CSR,
+     * sin relaciones repetidas ni auto-referenciales.
+     *
+     * @param graph grafo indexado
+     * @param assignment asignación calculada sobre {@code graph}
+     * @return condensación
+     */
+    public Condensation condense(final IndexedGraph graph, final Assignment assignment) {
+        final int n = graph.userCount();
+        final int count = assignment.componentCount();
+        final int[] componentOf = assignment.componentOf();
+        final int[] memberOffsets = new int[count + 1]; // usuarios agrupados por componente
+        for (int v = 0; v < n; v++) {
+            memberOffsets[componentOf[v] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        final int[] members = new int[n];
+        final int[] fill = new int[count];
+        for (int v = 0; v < n; v++) {
+            final int c = componentOf[v];
+            members[memberOffsets[c] + fill[c]++] = v;
+        }
+        final int[] offsets = new int[count + 1];
+        linkComponents(graph, componentOf, members, memberOffsets, offsets, null); // cuenta relaciones por componente
+        for (int c = 0; c < count; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        final int[] targets = new int[offsets[count]];
+        linkComponents(graph, componentOf, members, memberOffsets, offsets, targets); // rellena destinos
+        return new Condensation(offsets, targets);
+    }
+
+    private static void linkComponents(final IndexedGraph graph,
+            final int[] componentOf,
+            final int[] members,
+            final int[] memberOffsets,
+            final int[] offsets,
+            final int[] targets) { // recorre relaciones entre componentes distintas, sin repetir destinos
+        final int count = memberOffsets.length - 1;
+        final int[] mark = new int[count]; // última componente origen (+1) que enlazó cada destino
+        int written = 0;
+        for (int c = 0; c < count; c++) {
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                final int v = members[m];
+                for (int p = 0, deg = graph.outDegree(v); p < deg; p++) {
+                    final int d = componentOf[graph.neighborAt(v, p)];
+                    if (d != c && mark[d] != c + 1) {
+                        mark[d] = c + 1;
+                        if (targets == null) {
+                            offsets[c + 1]++;
+                        } else {
+                            targets[written++] = d;
+                        }
+                    }
+                }
+            }
+        }
+    }
 
-        // estructuras de control por índice
+    /**
+     * Calcula la componente de cada usuario trabajando solo con índices. Usa
+     * O(V + E) de memoria adicional para el grafo transpuesto.
+     *
+     * @param graph grafo indexado
+     * @return asignación usuario -> componente
+     */
+    public Assignment assign(final IndexedGraph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("graph cannot be null");
+        }
+        final int n = graph.userCount();
+
+        // primer DFS (iterativo con cursor por nodo), registrando orden de finalización
         final boolean[] visited = new boolean[n];
-        final boolean[] finished = new boolean[n];
+        final int[] cursor = new int[n];
+        final int[] stack = new int[n];
         final int[] finishingOrder = new int[n];
         int foSize = 0;
-
-        // helper para obtener índice de un usuario (lineal)
-        final IndexOf indexOf = new IndexOf(users);
-
-        // primer DFS (iterativo), registrando orden de finalización
         for (int i = 0; i < n; i++) {
-            if (!visited[i]) {
-                // pila de índices
-                final int[] stack = new int[n];
-                int sp = 0;
-                stack[sp++] = i;
-                while (sp > 0) {
-                    final int current = stack[sp - 1];
-                    if (!visited[current]) {
-                        visited[current] = true;
-                        final String[] neigh = neighbors.length > current ? neighbors[current] : new String[0];
-                        boolean pushed = false;
-                        for (int j = 0; j < neigh.length; j++) {
-                            final int idx = indexOf.of(neigh[j]);
-                            if (idx >= 0 && !visited[idx]) {
-                                stack[sp++] = idx;
-                                pushed = true;
-                            }
-                        }
-                        if (pushed) {
-                            continue;
-                        }
-                    }
-                    final int finishedVertex = stack[--sp];
-                    if (!finished[finishedVertex]) {
-                        finished[finishedVertex] = true;
-                        finishingOrder[foSize++] = finishedVertex;
+            if (visited[i]) {
+                continue;
+            }
+            int sp = 0;
+            stack[sp++] = i;
+            visited[i] = true;
+            while (sp > 0) {
+                final int current = stack[sp - 1];
+                if (cursor[current] < graph.outDegree(current)) {
+                    final int next = graph.neighborAt(current, cursor[current]++);
+                    if (!visited[next]) {
+                        visited[next] = true;
+                        stack[sp++] = next;
                     }
+                } else {
+                    finishingOrder[foSize++] = current;
+                    sp--;
                 }
             }
         }
 
-        // segundo paso: recorrer grafo transpuesto
-        final DirectedGraph transpose = GraphUtils.transpose(graph);
-        final DirectedGraph.AdjacencyView tview = transpose.getAdjacencyView();
-        final String[] tusers = tview.users();
-        final String[][] tneighbors = tview.neighbors();
-        final IndexOf tIndexOf = new IndexOf(tusers);
-        final boolean[] explored = new boolean[n];
-
-        // lista dinámica de componentes
-        final String[][] componentsTemp = new String[n][];
-        int componentsCount = 0;
+        // segundo paso: transpuesto en CSR (conteo por destino)
+        final int[] inOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            final int degree = graph.outDegree(v);
+            for (int p = 0; p < degree; p++) {
+                inOffsets[graph.neighborAt(v, p) + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        final int[] inSources = new int[inOffsets[n]];
+        final int[] fill = new int[n];
+        for (int v = 0; v < n; v++) {
+            final int degree = graph.outDegree(v);
+            for (int p = 0; p < degree; p++) {
+                final int to = graph.neighborAt(v, p);
+                inSources[inOffsets[to] + fill[to]++] = v;
+            }
+        }
 
+        // recorrer el transpuesto en orden inverso de finalización
+        final int[] componentOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            componentOf[v] = -1;
+        }
+        int componentCount = 0;
         for (int k = foSize - 1; k >= 0; k--) {
-            final int userIdx = finishingOrder[k];
-            if (explored[userIdx]) {
+            final int root = finishingOrder[k];
+            if (componentOf[root] >= 0) {
                 continue;
             }
-            // recolectar componente
-            final int[] stack = new int[n];
             int sp = 0;
-            stack[sp++] = userIdx;
-            // dynamic collector
-            final String[] collected = new String[n];
-            int collectedSize = 0;
+            stack[sp++] = root;
+            componentOf[root] = componentCount;
             while (sp > 0) {
                 final int current = stack[--sp];
-                if (explored[current]) {
-                    continue;
-                }
-                explored[current] = true;
-                collected[collectedSize++] = tusers[current];
-                final String[] neigh = tneighbors.length > current ? tneighbors[current] : new String[0];
-                for (int j = 0; j < neigh.length; j++) {
-                    final int idx = tIndexOf.of(neigh[j]);
-                    if (idx >= 0 && !explored[idx]) {
-                        stack[sp++] = idx;
+                for (int e = inOffsets[current]; e < inOffsets[current + 1]; e++) {
+                    final int prev = inSources[e];
+                    if (componentOf[prev] < 0) {
+                        componentOf[prev] = componentCount;
+                        stack[sp++] = prev;
                     }
                 }
             }
-            // copy collected into tight array
-            final String[] comp = new String[collectedSize];
-            for (int c = 0; c < collectedSize; c++) {
-                comp[c] = collected[c];
-            }
-            componentsTemp[componentsCount++] = comp;
-        }
-
-        // compact components array
-        final String[][] result = new String[componentsCount][];
-        for (int i = 0; i < componentsCount; i++) {
-            result[i] = componentsTemp[i];
+            componentCount++;
         }
-        return result;
+        return new Assignment(componentOf, componentCount);
     }
 
-    // helper simple para indexOf en un arreglo de strings
-    private static final class IndexOf {
+    /**
+     * Resultado compacto de Kosaraju: componente de cada usuario (por índice)
+     * y número total de componentes.
+     *
+     * @param componentOf id de componente por índice de usuario
+     * @param componentCount número de componentes
+     */
+    public record Assignment(int[] componentOf, int componentCount) {
 
-        private final String[] arr;
+    }
 
-        IndexOf(final String[] arr) {
-            this.arr = arr == null ? new String[0] : arr;
-        }
+    /**
+     * Grafo de condensación en formato CSR: las relaciones de la componente
+     * {@code c} son {@code targets[offsets[c] .. offsets[c + 1])}.
+     *
+     * @param offsets inicio de las relaciones de cada componente (longitud
+     * componentes + 1)
+     * @param targets componentes destino
+     */
+    public record Condensation(int[] offsets, int[] targets) {
 
-        int of(final String s) {
-            if (s == null) {
-                return -1;
-            }
-            for (int i = 0; i < arr.length; i++) {
-                if (s.equals(arr[i])) {
-                    return i;
-                }
-            }
-            return -1;
+        /**
+         * @return número de relaciones entre componentes
+         */
+        public int edgeCount() {
+            return targets.length;
         }
     }
 }
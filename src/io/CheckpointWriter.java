@@ -0,0 +1,165 @@
+package io; // escritura de instantáneas segura ante caídas
+
+import domain.DirectedGraph; // grafo a serializar
+import domain.IndexedGraph; // instantánea inmutable a serializar
+
+import java.io.IOException; // excepción E/S
+import java.nio.channels.Channels; // adaptadores canal/flujo
+import java.nio.channels.FileChannel; // canal de archivo
+import java.nio.file.AtomicMoveNotSupportedException; // sistemas sin renombrado atómico
+import java.nio.file.Files; // utilidades de archivos
+import java.nio.file.Path; // ruta de archivo
+import java.nio.file.StandardCopyOption; // opciones de movimiento
+import java.nio.file.StandardOpenOption; // opciones de apertura
+import java.util.zip.GZIPOutputStream; // compresión gzip
+
+/**
+ * Escribe instantáneas del grafo sin truncar nunca el archivo del usuario: el
+ * contenido se vuelca a un temporal en el mismo directorio a través de un
+ * {@link FileChannel} y un búfer directo grande, se fuerza a disco y se
+ * renombra atómicamente sobre el destino. Opcionalmente conserva las últimas
+ * N versiones como {@code <archivo>.1 … <archivo>.N}. Si el destino termina
+ * en {@code .gz} el contenido se escribe comprimido con gzip.
+ */
+public class CheckpointWriter { // escritor atómico con rotación de copias
+
+    private static final int BUFFER_BYTES = 1 << 20; // búfer directo de 1 MiB
+    private static final int GZIP_BUFFER_BYTES = 1 << 16; // búfer de salida del compresor
+
+    private final int retainedCheckpoints; // número de versiones anteriores a conservar
+
+    /**
+     * @param retainedCheckpoints versiones anteriores a conservar (0 = ninguna)
+     */
+    public CheckpointWriter(final int retainedCheckpoints) {
+        if (retainedCheckpoints < 0) {
+            throw new IllegalArgumentException("retainedCheckpoints");
+        }
+        this.retainedCheckpoints = retainedCheckpoints;
+    }
+
+    /**
+     * Escribe el grafo en {@code target} de forma atómica.
+     *
+     * @param target archivo destino
+     * @param graph grafo a serializar
+     * @throws IOException si ocurre un error de E/S; el destino queda intacto
+     */
+    public void write(final Path target, final DirectedGraph graph) throws IOException { // escribe temporal, fuerza y renombra
+        if (graph == null) {
+            throw new IllegalArgumentException("El grafo no puede ser null");
+        }
+        write(target, sink -> GraphFileWriter.encode(sink, graph));
+    }
+
+    /**
+     * Escribe una instantánea indexada en {@code target} de forma atómica,
+     * con el mismo formato que {@link #write(Path, DirectedGraph)}. Como la
+     * instantánea es inmutable, puede serializarse sin el monitor del
+     * servicio.
+     *
+     * @param target archivo destino
+     * @param graph instantánea a serializar
+     * @throws IOException si ocurre un error de E/S; el destino queda intacto
+     */
+    public void write(final Path target, final IndexedGraph graph) throws IOException {
+        if (graph == null) {
+            throw new IllegalArgumentException("El grafo no puede ser null");
+        }
+        write(target, sink -> GraphFileWriter.encode(sink, graph));
+    }
+
+    private interface Encoder { // vuelca el contenido en el sumidero
+
+        void encode(Utf8ChannelSink sink) throws IOException;
+    }
+
+    private void write(final Path target, final Encoder encoder) throws IOException { // temporal, fsync y renombrado atómico
+        if (target == null) {
+            throw new IllegalArgumentException("El archivo no puede ser nulo");
+        }
+        final Path absolute = target.toAbsolutePath();
+        final Path directory = absolute.getParent();
+        final Path temp = Files.createTempFile(directory, "." + absolute.getFileName(), ".tmp"); // mismo volumen que el destino
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                GZIPOutputStream gzip = null; // compresor si el destino es .gz
+                if (CompressedStreams.isCompressedPath(absolute)) {
+                    gzip = new GZIPOutputStream(Channels.newOutputStream(channel), GZIP_BUFFER_BYTES);
+                    encoder.encode(new Utf8ChannelSink(Channels.newChannel(gzip), BUFFER_BYTES));
+                    gzip.finish(); // escribe el trailer sin cerrar el canal antes del fsync
+                } else {
+                    encoder.encode(new Utf8ChannelSink(channel, BUFFER_BYTES));
+                }
+                channel.force(true); // datos en disco antes de publicar el archivo
+                if (gzip != null) {
+                    gzip.close(); // libera el compresor nativo (cierra también el canal)
+                }
+            }
+            copyPermissions(absolute, temp);
+            rotate(absolute);
+            try {
+                Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING); // mejor esfuerzo
+            }
+            moved = true;
+            syncDirectory(directory);
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temp); // no dejar temporales tras un error
+            }
+        }
+    }
+
+    /**
+     * Ruta de la versión anterior número {@code generation} (1 = la más
+     * reciente).
+     *
+     * @param target archivo principal
+     * @param generation número de versión
+     * @return ruta de la copia rotada
+     */
+    public static Path checkpointPath(final Path target, final int generation) {
+        return target.resolveSibling(target.getFileName() + "." + generation);
+    }
+
+    private void rotate(final Path target) throws IOException { // desplaza .1..N y enlaza la versión actual como .1
+        if (retainedCheckpoints == 0 || !Files.exists(target)) {
+            return;
+        }
+        Files.deleteIfExists(checkpointPath(target, retainedCheckpoints));
+        for (int generation = retainedCheckpoints - 1; generation >= 1; generation--) {
+            final Path from = checkpointPath(target, generation);
+            if (Files.exists(from)) {
+                Files.move(from, checkpointPath(target, generation + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        final Path newest = checkpointPath(target, 1);
+        try {
+            Files.createLink(newest, target); // sin copiar: el destino sigue existiendo hasta el renombrado
+        } catch (UnsupportedOperationException | IOException ex) {
+            Files.copy(target, newest, StandardCopyOption.REPLACE_EXISTING); // sistemas sin enlaces duros
+        }
+    }
+
+    private static void copyPermissions(final Path target, final Path temp) { // el temporal se crea con permisos restrictivos
+        if (!Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+        } catch (UnsupportedOperationException | IOException ex) {
+            // sistema sin permisos POSIX: se conservan los permisos por defecto
+        }
+    }
+
+    private static void syncDirectory(final Path directory) { // persiste la entrada de directorio del renombrado
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ex) {
+            // algunos sistemas (p. ej. Windows) no permiten abrir directorios; el renombrado ya es visible
+        }
+    }
+}
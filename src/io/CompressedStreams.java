@@ -0,0 +1,231 @@
+package io; // lectura transparente de archivos comprimidos
+
+import java.io.BufferedInputStream; // permite inspeccionar la cabecera
+import java.io.IOException; // excepción E/S
+import java.io.InputStream; // flujo de bytes
+import java.nio.file.Files; // utilidades de archivos
+import java.nio.file.Path; // ruta de archivo
+import java.util.Locale; // minúsculas independientes del idioma
+import java.util.concurrent.ArrayBlockingQueue; // cola acotada entre hilos
+import java.util.zip.GZIPInputStream; // descompresor gzip
+import java.util.zip.Inflater; // descompresor deflate
+import java.util.zip.InflaterInputStream; // descompresor zlib
+
+/**
+ * Abre archivos de grafos detectando por su cabecera si están comprimidos con
+ * gzip o zlib (deflate). Los archivos comprimidos se descomprimen en un hilo
+ * propio que llena bloques grandes en una cola acotada, de modo que la
+ * descompresión se solapa con el parseo. Los archivos sin comprimir se leen
+ * directamente con un búfer grande.
+ */
+public final class CompressedStreams { // utilidades de flujos comprimidos
+
+    public static final String GZIP_EXTENSION = ".gz"; // extensión que activa la escritura comprimida
+    private static final int FILE_BUFFER_BYTES = 1 << 16; // búfer de lectura del archivo
+    private static final int INFLATER_BUFFER_BYTES = 1 << 16; // búfer interno del descompresor
+    private static final int CHUNK_BYTES = 1 << 18; // bloque descomprimido entregado al lector
+    private static final int CHUNKS_IN_FLIGHT = 4; // bloques en cola (memoria acotada)
+
+    private CompressedStreams() {
+    }
+
+    /**
+     * Abre el archivo y devuelve un flujo con su contenido descomprimido si la
+     * cabecera indica gzip o zlib, o el contenido tal cual en otro caso.
+     *
+     * @param path archivo a leer
+     * @return flujo que el llamador debe cerrar
+     * @throws IOException si ocurre un error de E/S
+     */
+    public static InputStream open(final Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("El archivo no puede ser nulo");
+        }
+        final BufferedInputStream in = new BufferedInputStream(Files.newInputStream(path), FILE_BUFFER_BYTES);
+        try {
+            in.mark(2);
+            final int b0 = in.read();
+            final int b1 = in.read();
+            in.reset(); // el descompresor necesita la cabecera completa
+            if (isGzip(b0, b1)) {
+                return new PipelinedInputStream(new GZIPInputStream(in, INFLATER_BUFFER_BYTES), path);
+            }
+            if (isZlib(b0, b1)) {
+                final InflaterInputStream inflater = new InflaterInputStream(in, new Inflater(), INFLATER_BUFFER_BYTES) {
+                    @Override
+                    public void close() throws IOException { // libera la memoria nativa del descompresor propio
+                        super.close();
+                        inf.end();
+                    }
+                };
+                return new PipelinedInputStream(inflater, path);
+            }
+            return in;
+        } catch (IOException | RuntimeException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Indica si una ruta de destino debe escribirse comprimida con gzip (por
+     * su extensión {@code .gz}).
+     *
+     * @param path ruta destino
+     * @return {@code true} si termina en {@code .gz}
+     */
+    public static boolean isCompressedPath(final Path path) {
+        if (path == null || path.getFileName() == null) {
+            return false;
+        }
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(GZIP_EXTENSION); // Locale.ROOT: la extensión no depende del idioma
+    }
+
+    private static boolean isGzip(final int b0, final int b1) { // números mágicos 1f 8b
+        return b0 == 0x1F && b1 == 0x8B;
+    }
+
+    private static boolean isZlib(final int b0, final int b1) { // CMF 0x78 y FLG de los niveles estándar
+        return b0 == 0x78 && (b1 == 0x01 || b1 == 0x5E || b1 == 0x9C || b1 == 0xDA);
+    }
+
+    /**
+     * Flujo alimentado por un hilo que descomprime por adelantado en bloques.
+     */
+    private static final class PipelinedInputStream extends InputStream { // consumidor de bloques
+
+        private static final Chunk END = new Chunk(new byte[0]); // marca de fin (o de error)
+
+        private final ArrayBlockingQueue<Chunk> filled = new ArrayBlockingQueue<>(CHUNKS_IN_FLIGHT + 1); // bloques listos
+        private final ArrayBlockingQueue<Chunk> free = new ArrayBlockingQueue<>(CHUNKS_IN_FLIGHT); // bloques reutilizables
+        private final InputStream source; // flujo descompresor
+        private final Thread producer; // hilo de descompresión
+        private volatile IOException failure; // error del productor
+        private Chunk current; // bloque en lectura
+        private int position; // posición dentro del bloque actual
+        private boolean finished;
+        private boolean closed;
+
+        private PipelinedInputStream(final InputStream source, final Path path) {
+            this.source = source;
+            for (int i = 0; i < CHUNKS_IN_FLIGHT; i++) {
+                free.add(new Chunk(new byte[CHUNK_BYTES]));
+            }
+            this.producer = new Thread(this::produce, "descompresion-" + path.getFileName());
+            this.producer.setDaemon(true); // no impide cerrar la aplicación
+            this.producer.start();
+        }
+
+        private void produce() { // llena bloques hasta el fin del flujo
+            try {
+                while (true) {
+                    final Chunk chunk = free.take();
+                    int length = 0;
+                    int read = 0;
+                    while (length < chunk.data.length && (read = source.read(chunk.data, length, chunk.data.length - length)) >= 0) {
+                        length += read;
+                    }
+                    if (length > 0) {
+                        chunk.length = length;
+                        filled.put(chunk);
+                    }
+                    if (read < 0) {
+                        break;
+                    }
+                }
+            } catch (IOException ex) {
+                failure = ex;
+            } catch (RuntimeException ex) { // p. ej. datos corruptos que el descompresor no reporta como E/S
+                failure = new IOException(ex.getMessage(), ex);
+            } catch (InterruptedException ex) {
+                return; // el lector cerró el flujo
+            }
+            try {
+                filled.put(END);
+            } catch (InterruptedException ex) {
+                // el lector cerró el flujo
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureChunk()) {
+                return -1;
+            }
+            return current.data[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!ensureChunk()) {
+                return -1;
+            }
+            final int n = Math.min(len, current.length - position);
+            System.arraycopy(current.data, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        private boolean ensureChunk() throws IOException { // obtiene el siguiente bloque si el actual se agotó
+            if (closed) {
+                throw new IOException("Flujo cerrado");
+            }
+            if (current != null && position < current.length) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            if (current != null) {
+                free.add(current); // devuelve el bloque al productor
+                current = null;
+            }
+            final Chunk next;
+            try {
+                next = filled.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Lectura interrumpida", ex);
+            }
+            if (next == END) {
+                finished = true;
+                final IOException ex = failure;
+                if (ex != null) {
+                    throw new IOException("Error al descomprimir: " + ex.getMessage(), ex);
+                }
+                return false;
+            }
+            current = next;
+            position = 0;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            producer.interrupt();
+            try {
+                producer.join(); // no cerrar el descompresor mientras el hilo lo usa
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            source.close();
+        }
+    }
+
+    private static final class Chunk { // bloque reutilizable de bytes descomprimidos
+
+        private final byte[] data;
+        private int length;
+
+        private Chunk(final byte[] data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io; // exportación Graphviz DOT
+
+import domain.IndexedGraph; // grafo a exportar
+
+import java.io.IOException; // excepción E/S
+
+/**
+ * Exporta el grafo en formato DOT de Graphviz. Si se proporcionan
+ * componentes, cada nodo lleva el atributo {@code scc} y un color de la
+ * paleta {@code set312} según su componente.
+ */
+public class DotExporter extends StreamingGraphExporter { // escritor DOT en streaming
+
+    private static final String NL = "\n"; // separador de líneas del documento
+    private static final int PALETTE_SIZE = 12; // colores de la paleta set312
+
+    @Override
+    void encode(final Utf8ChannelSink sink, final IndexedGraph graph, final ComponentLookup components) throws IOException {
+        sink.append("digraph G {").append(NL);
+        if (!components.isEmpty()) {
+            sink.append("  node [style=filled, colorscheme=set312];").append(NL);
+        }
+        final int n = graph.userCount();
+        for (int v = 0; v < n; v++) {
+            final String handle = graph.userAt(v);
+            writeId(sink.append("  "), handle);
+            final int component = components.componentOf(handle);
+            if (component >= 0) {
+                sink.append(" [scc=").append(Integer.toString(component))
+                        .append(", fillcolor=").append(Integer.toString(component % PALETTE_SIZE + 1)).append("]");
+            }
+            sink.append(";").append(NL);
+        }
+        for (int v = 0; v < n; v++) {
+            final String from = graph.userAt(v);
+            final int degree = graph.outDegree(v);
+            for (int p = 0; p < degree; p++) {
+                writeId(sink.append("  "), from);
+                writeId(sink.append(" -> "), graph.userAt(graph.neighborAt(v, p)));
+                sink.append(";").append(NL);
+            }
+        }
+        sink.append("}").append(NL);
+    }
+
+    private static void writeId(final Utf8ChannelSink sink, final String id) throws IOException { // identificador DOT entre comillas
+        if (id.indexOf('"') < 0 && id.indexOf('\\') < 0) {
+            sink.append("\"").append(id).append("\""); // caso habitual: sin copia
+            return;
+        }
+        final StringBuilder out = new StringBuilder(id.length() + 8).append('"');
+        for (int i = 0; i < id.length(); i++) {
+            final char c = id.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        sink.append(out.append('"').toString());
+    }
+}
@@ -0,0 +1,377 @@
+package io; // importación de listas de aristas sin cabecera
+
+import domain.DirectedGraph; // grafo resultante
+import domain.GraphBuilder; // construcción masiva
+import domain.GraphUtils; // reglas de los handles
+
+import java.io.IOException; // excepción E/S
+import java.io.InputStream; // flujo de bytes
+import java.nio.charset.StandardCharsets; // codificación UTF-8
+import java.nio.file.Path; // ruta de archivo
+
+/**
+ * Importador de listas de aristas sin cabecera ({@code origen<TAB>destino},
+ * CSV o estilo SNAP con columnas separadas por espacios). Trabaja a nivel de
+ * bytes sobre un búfer grande: separa campos sin crear líneas intermedias y
+ * resuelve cada handle en una tabla hash sobre los propios bytes, de modo que
+ * solo se crea un {@link String} la primera vez que aparece un usuario. Los
+ * usuarios se crean automáticamente y las relaciones alimentan directamente a
+ * un {@link GraphBuilder}.
+ *
+ * <p>
+ * Las columnas extra (por ejemplo pesos) se ignoran. No se admiten campos
+ * entrecomillados.</p>
+ */
+public class EdgeListImporter { // importa aristas desde texto delimitado
+
+    /**
+     * Delimitador especial: cualquier secuencia de espacios o tabuladores.
+     */
+    public static final char WHITESPACE = '\0';
+
+    private static final int BUFFER_BYTES = 1 << 20; // búfer de lectura de 1 MiB
+    private static final int MAX_WARNINGS = 20; // advertencias detalladas como máximo
+
+    /**
+     * Opciones de importación.
+     *
+     * @param delimiter separador de columnas o {@link #WHITESPACE}
+     * @param handlePrefix prefijo que se antepone a los ids que no lo tengan
+     * (por ejemplo {@code "@"}); {@code null} para no modificar
+     * @param commentMarkers caracteres que, al inicio de una línea, la marcan
+     * como comentario (por ejemplo {@code "#%"})
+     */
+    public record Options(char delimiter, String handlePrefix, String commentMarkers) {
+
+        public Options {
+            if (delimiter == '\n' || delimiter == '\r') {
+                throw new IllegalArgumentException("delimiter");
+            }
+            if (delimiter > 0x7F) {
+                throw new IllegalArgumentException("El delimitador debe ser un carácter ASCII");
+            }
+            commentMarkers = commentMarkers == null ? "" : commentMarkers;
+        }
+
+        public static Options tsv() { // origen<TAB>destino
+            return new Options('\t', "@", "#%");
+        }
+
+        public static Options csv() { // origen,destino
+            return new Options(',', "@", "#%");
+        }
+
+        public static Options snap() { // columnas separadas por espacios, comentarios con '#'
+            return new Options(WHITESPACE, "@", "#%");
+        }
+    }
+
+    /**
+     * Resultado de la importación.
+     *
+     * @param graph grafo importado
+     * @param warnings advertencias (líneas ignoradas)
+     * @param lines líneas leídas
+     * @param users usuarios creados
+     * @param relations relaciones distintas importadas
+     */
+    public record Result(DirectedGraph graph, String[] warnings, long lines, int users, int relations) {
+
+    }
+
+    /**
+     * Importa una lista de aristas desde un archivo, descomprimiéndolo al
+     * vuelo si está comprimido con gzip o zlib.
+     *
+     * @param path archivo a leer
+     * @param options opciones de formato
+     * @return resultado con el grafo construido
+     * @throws IOException si ocurre un error de lectura
+     */
+    public Result importFile(final Path path, final Options options) throws IOException { // importa desde archivo
+        if (path == null) {
+            throw new IllegalArgumentException("El archivo no puede ser nulo");
+        }
+        try (InputStream in = CompressedStreams.open(path)) {
+            return importStream(in, options);
+        }
+    }
+
+    /**
+     * Importa una lista de aristas desde un flujo (que no se cierra).
+     *
+     * @param in flujo de bytes UTF-8
+     * @param options opciones de formato
+     * @return resultado con el grafo construido
+     * @throws IOException si ocurre un error de lectura
+     */
+    public Result importStream(final InputStream in, final Options options) throws IOException { // núcleo del tokenizador
+        if (in == null) {
+            throw new IllegalArgumentException("El flujo no puede ser nulo");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options");
+        }
+        final Session session = new Session(options);
+        byte[] buf = new byte[BUFFER_BYTES];
+        int start = 0; // inicio de la línea pendiente
+        int limit = 0; // bytes válidos en el búfer
+        boolean eof = false;
+        while (true) {
+            int end = indexOfNewline(buf, start, limit);
+            if (end < 0) {
+                if (eof) {
+                    if (start < limit) {
+                        session.line(buf, start, limit); // última línea sin salto
+                    }
+                    break;
+                }
+                if (start > 0) { // compacta la línea incompleta al inicio
+                    System.arraycopy(buf, start, buf, 0, limit - start);
+                    limit -= start;
+                    start = 0;
+                } else if (limit == buf.length) { // línea más larga que el búfer
+                    final byte[] bigger = new byte[buf.length * 2];
+                    System.arraycopy(buf, 0, bigger, 0, limit);
+                    buf = bigger;
+                }
+                final int read = in.read(buf, limit, buf.length - limit);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    limit += read;
+                }
+                continue;
+            }
+            session.line(buf, start, end);
+            start = end + 1;
+        }
+        return session.finish();
+    }
+
+    private static int indexOfNewline(final byte[] buf, final int from, final int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buf[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(final byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    // Estado de una importación: separa campos y resuelve handles sobre bytes.
+    private static final class Session {
+
+        private final Options options;
+        private final byte delimiter;
+        private final byte[] prefix; // prefijo en UTF-8 (vacío si no hay)
+        private final GraphBuilder builder = new GraphBuilder(1 << 16, 1 << 18);
+        private final String[] warnings = new String[MAX_WARNINGS];
+        private int warningCount;
+        private long skipped; // líneas inválidas totales
+        private long lineNumber;
+
+        // tabla hash de bytes -> id del builder (-1 = handle inválido)
+        private long[] slots = new long[1 << 16]; // (hash << 32) | (entrada + 1); 0 = libre
+        private int[] entryData = new int[3 << 15]; // por entrada: offset en arena, longitud, id
+        private int entries;
+        private byte[] arena = new byte[1 << 20]; // copia de los bytes de cada clave
+        private int arenaSize;
+
+        Session(final Options options) {
+            this.options = options;
+            this.delimiter = (byte) options.delimiter();
+            this.prefix = options.handlePrefix() == null ? new byte[0] : options.handlePrefix().getBytes(StandardCharsets.UTF_8);
+        }
+
+        void line(final byte[] buf, final int from, final int to) { // procesa una línea [from, to)
+            lineNumber++;
+            int end = to;
+            if (end > from && buf[end - 1] == '\r') {
+                end--;
+            }
+            int p = from;
+            while (p < end && isBlank(buf[p])) {
+                p++;
+            }
+            if (p == end || options.commentMarkers().indexOf(buf[p] & 0xFF) >= 0) {
+                return; // vacía o comentario
+            }
+            final int firstStart = p;
+            p = scanField(buf, p, end);
+            final int firstEnd = trimEnd(buf, firstStart, p);
+            p = skipDelimiter(buf, p, end);
+            final int secondStart = p;
+            p = scanField(buf, p, end);
+            final int secondEnd = trimEnd(buf, secondStart, p);
+            if (firstEnd == firstStart || secondEnd == secondStart) {
+                skip("línea sin dos columnas");
+                return;
+            }
+            final int origin = intern(buf, firstStart, firstEnd - firstStart);
+            final int destination = intern(buf, secondStart, secondEnd - secondStart);
+            if (origin < 0 || destination < 0) {
+                skip("handle inválido: debe iniciar con '@' (configure un prefijo) y no contener espacios ni comas");
+                return;
+            }
+            builder.addRelation(origin, destination);
+        }
+
+        private int scanField(final byte[] buf, final int from, final int end) {
+            int p = from;
+            if (delimiter == WHITESPACE) {
+                while (p < end && !isBlank(buf[p])) {
+                    p++;
+                }
+            } else {
+                while (p < end && buf[p] != delimiter) {
+                    p++;
+                }
+            }
+            return p;
+        }
+
+        private int skipDelimiter(final byte[] buf, final int from, final int end) {
+            int p = from;
+            if (delimiter != WHITESPACE && p < end) {
+                p++; // consume el separador
+            }
+            while (p < end && isBlank(buf[p])) {
+                p++;
+            }
+            return p;
+        }
+
+        private int trimEnd(final byte[] buf, final int from, final int to) {
+            int e = to;
+            while (e > from && isBlank(buf[e - 1])) {
+                e--;
+            }
+            return e;
+        }
+
+        private int intern(final byte[] buf, final int off, final int len) { // resuelve bytes -> id sin crear Strings repetidos
+            int h = 0x811C9DC5;
+            for (int i = off; i < off + len; i++) {
+                h ^= buf[i] & 0xFF;
+                h *= 0x01000193;
+            }
+            final int mask = slots.length - 1;
+            int slot = (h ^ (h >>> 16)) & mask;
+            long packed;
+            while ((packed = slots[slot]) != 0L) {
+                if ((int) (packed >>> 32) == h) { // compara el hash sin tocar la entrada
+                    final int base = 3 * ((int) packed - 1);
+                    if (entryData[base + 1] == len && sameBytes(buf, off, len, entryData[base])) {
+                        return entryData[base + 2];
+                    }
+                }
+                slot = (slot + 1) & mask;
+            }
+            final int value = resolveHandle(buf, off, len);
+            final int e = addEntry(buf, off, len, value);
+            slots[slot] = ((long) h << 32) | (e + 1);
+            if (entries * 2 > slots.length) {
+                rehash();
+            }
+            return value;
+        }
+
+        private int resolveHandle(final byte[] buf, final int off, final int len) { // crea el handle la primera vez
+            String handle = new String(buf, off, len, StandardCharsets.UTF_8);
+            if (prefix.length > 0 && !startsWith(buf, off, len, prefix)) {
+                handle = options.handlePrefix() + handle;
+            }
+            if (handle.length() == 1 || !GraphUtils.isValidHandle(handle)) { // mismas reglas que el formato propio
+                return -1;
+            }
+            return builder.addUser(handle);
+        }
+
+        private int addEntry(final byte[] buf, final int off, final int len, final int value) {
+            if (3 * entries == entryData.length) {
+                entryData = grow(entryData, entryData.length * 2);
+            }
+            if (arenaSize + len > arena.length) {
+                final byte[] next = new byte[Math.max(arena.length * 2, arenaSize + len)];
+                System.arraycopy(arena, 0, next, 0, arenaSize);
+                arena = next;
+            }
+            System.arraycopy(buf, off, arena, arenaSize, len);
+            entryData[3 * entries] = arenaSize;
+            entryData[3 * entries + 1] = len;
+            entryData[3 * entries + 2] = value;
+            arenaSize += len;
+            return entries++;
+        }
+
+        private void rehash() {
+            final long[] old = slots;
+            slots = new long[old.length * 2];
+            final int mask = slots.length - 1;
+            for (int i = 0; i < old.length; i++) {
+                if (old[i] == 0L) {
+                    continue;
+                }
+                final int h = (int) (old[i] >>> 32);
+                int slot = (h ^ (h >>> 16)) & mask;
+                while (slots[slot] != 0L) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = old[i];
+            }
+        }
+
+        private boolean sameBytes(final byte[] buf, final int off, final int len, final int arenaOff) {
+            for (int i = 0; i < len; i++) {
+                if (buf[off + i] != arena[arenaOff + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void skip(final String reason) {
+            skipped++;
+            if (warningCount < MAX_WARNINGS) {
+                warnings[warningCount++] = "Línea " + lineNumber + ": " + reason;
+            }
+        }
+
+        Result finish() {
+            final DirectedGraph graph = builder.build();
+            final int extra = builder.selfLoops() > 0 ? 1 : 0;
+            final int overflow = skipped > warningCount ? 1 : 0;
+            final String[] out = new String[warningCount + extra + overflow];
+            System.arraycopy(warnings, 0, out, 0, warningCount);
+            if (overflow > 0) {
+                out[warningCount] = "… y " + (skipped - warningCount) + " líneas inválidas más.";
+            }
+            if (extra > 0) {
+                out[out.length - 1] = "Se ignoraron " + builder.selfLoops() + " relaciones auto-referenciales.";
+            }
+            return new Result(graph, out, lineNumber, builder.userCount(), graph.getEdgeCount());
+        }
+
+        private static boolean startsWith(final byte[] buf, final int off, final int len, final byte[] prefix) {
+            if (len < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (buf[off + i] != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int[] grow(final int[] src, final int capacity) {
+            final int[] next = new int[capacity];
+            System.arraycopy(src, 0, next, 0, src.length);
+            return next;
+        }
+    }
+}
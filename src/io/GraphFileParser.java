@@ -5,9 +5,13 @@ import domain.GraphUtils; // utilidades para grafos
 
 import java.io.BufferedReader; // lector eficiente de líneas
 import java.io.IOException; // excepción de E/S
+import java.io.InputStreamReader; // decodifica bytes a caracteres
 import java.io.Reader; // interfaz lector
-import java.nio.file.Files; // utilidades de archivos
+import java.nio.charset.StandardCharsets; // codificación UTF-8
 import java.nio.file.Path; // representación de rutas
+import java.security.DigestInputStream; // hash mientras se lee
+import java.security.MessageDigest; // SHA-256
+import java.security.NoSuchAlgorithmException; // algoritmo no disponible
 
 /**
  * Parser de archivos de grafos sin depender de java.util en la API pública.
@@ -16,13 +20,38 @@ public class GraphFileParser { // parsea archivos con formato específico (usuar
 
     private static final String SECTION_USERS = "usuarios"; // marcador de sección usuarios
     private static final String SECTION_RELATIONS = "relaciones"; // marcador de sección relaciones
+    private static final int READER_BUFFER_CHARS = 1 << 16; // búfer de caracteres del lector
+    private static final String HASH_ALGORITHM = "SHA-256"; // hash del contenido
 
+    /**
+     * Parsea un archivo de grafo; si está comprimido con gzip o zlib se
+     * descomprime al vuelo (ver {@link CompressedStreams#open(Path)}). Mientras
+     * lee calcula el SHA-256 del contenido (descomprimido), disponible en
+     * {@link Result#contentHash()}.
+     *
+     * @param path archivo a leer
+     * @return resultado con grafo y advertencias
+     * @throws IOException si ocurre un error leyendo
+     */
     public Result parse(final Path path) throws IOException { // parsea desde un Path
         if (path == null) {
             throw new IllegalArgumentException("El archivo no puede ser nulo");
         }
-        try (BufferedReader reader = Files.newBufferedReader(path)) { // abre lector con autocierre
-            return parse(reader, path); // parsea y registra origen
+        final MessageDigest digest = newDigest();
+        final Result result;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new DigestInputStream(CompressedStreams.open(path), digest), StandardCharsets.UTF_8.newDecoder()),
+                READER_BUFFER_CHARS)) { // abre lector con autocierre; UTF-8 estricto como Files.newBufferedReader
+            result = parse(reader, path); // parsea y registra origen
+        }
+        return new Result(result.graph(), result.warnings(), result.autoCreated(), digest.digest());
+    }
+
+    private static MessageDigest newDigest() { // SHA-256 está garantizado en toda JVM
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(HASH_ALGORITHM + " no disponible", ex);
         }
     }
 
@@ -243,8 +272,20 @@ public class GraphFileParser { // parsea archivos con formato específico (usuar
         }
     }
 
-    public record Result(DirectedGraph graph, String[] warnings, String[] autoCreated) { // resultado del parseo
+    /**
+     * Resultado del parseo.
+     *
+     * @param graph grafo construido
+     * @param warnings advertencias encontradas
+     * @param autoCreated usuarios creados a partir de relaciones
+     * @param contentHash SHA-256 del contenido leído; {@code null} si se
+     * parseó desde un {@link Reader}
+     */
+    public record Result(DirectedGraph graph, String[] warnings, String[] autoCreated, byte[] contentHash) { // resultado del parseo
 
+        public Result(final DirectedGraph graph, final String[] warnings, final String[] autoCreated) {
+            this(graph, warnings, autoCreated, null);
+        }
     }
 
     // Implementación mínima de conjunto de Strings que mantiene orden de inserción y evita duplicados.
@@ -2,11 +2,12 @@
 package io; // paquete de IO para grafos
 
 import domain.DirectedGraph; // modelo de grafo dirigido
+import domain.IndexedGraph; // instantánea inmutable
 
 import java.io.BufferedWriter; // escritor eficiente de texto
 import java.io.IOException; // excepción E/S
 import java.io.Writer; // interfaz Writer
-import java.nio.file.Files; // utilidades de archivos
+import java.nio.channels.WritableByteChannel; // canal destino
 import java.nio.file.Path; // ruta de archivo
 
 /**
@@ -16,7 +17,36 @@ import java.nio.file.Path; // ruta de archivo
 public class GraphFileWriter { // escribe el grafo en el formato de texto esperado
 
     private static final String LINE_SEPARATOR = System.lineSeparator(); // separador de líneas del sistema
+    private static final int BUFFER_BYTES = 1 << 16; // búfer de codificación para canales externos
 
+    private final CheckpointWriter checkpointWriter; // escritura atómica a archivos
+
+    /**
+     * Crea un escritor que reemplaza el archivo de forma atómica sin conservar
+     * versiones anteriores.
+     */
+    public GraphFileWriter() { // sin copias rotadas
+        this(0);
+    }
+
+    /**
+     * Crea un escritor que conserva las últimas versiones del archivo.
+     *
+     * @param retainedCheckpoints versiones anteriores a conservar
+     */
+    public GraphFileWriter(final int retainedCheckpoints) { // con rotación de copias
+        this.checkpointWriter = new CheckpointWriter(retainedCheckpoints);
+    }
+
+    /**
+     * Escribe el grafo en la ruta dada mediante un temporal que se renombra
+     * atómicamente, de modo que una caída nunca deja el archivo truncado. Las
+     * rutas terminadas en {@code .gz} se escriben comprimidas con gzip.
+     *
+     * @param path archivo destino
+     * @param graph grafo a serializar
+     * @throws IOException si ocurre un error de E/S
+     */
     public void write(final Path path, final DirectedGraph graph) throws IOException { // escribe a un Path
         if (path == null) {
             throw new IllegalArgumentException("El archivo no puede ser nulo"); // valida parámetros
@@ -25,9 +55,7 @@ public class GraphFileWriter { // escribe el grafo en el formato de texto espera
         if (graph == null) {
             throw new IllegalArgumentException("El grafo no puede ser null");
         }
-        try (BufferedWriter writer = Files.newBufferedWriter(path)) { // abre escritor con autocierre
-            write(writer, graph); // delega a la versión que usa Writer
-        }
+        checkpointWriter.write(path, graph); // temporal + fsync + renombrado atómico
     }
 
     /**
@@ -47,20 +75,69 @@ public class GraphFileWriter { // escribe el grafo en el formato de texto espera
         }
         final BufferedWriter bufferedWriter = writer instanceof BufferedWriter bw ? bw : new BufferedWriter(writer); // asegura BufferedWriter
         bufferedWriter.append("usuarios").append(LINE_SEPARATOR); // escribe marcador usuarios
-        for (String user : graph.getUsers()) { // escribe cada usuario en su línea
-            bufferedWriter.append(user).append(LINE_SEPARATOR);
-        }
+        graph.forEachUser((index, user) -> bufferedWriter.append(user).append(LINE_SEPARATOR)); // cada usuario en su línea, sin copias
         bufferedWriter.append("relaciones").append(LINE_SEPARATOR); // escribe marcador relaciones
-        final DirectedGraph.AdjacencyView view = graph.getAdjacencyView(); // snapshot de adyacencia
-        final String[] users = view.users();
-        final String[][] neighbors = view.neighbors();
-        for (int i = 0; i < users.length; i++) {
-            final String from = users[i];
-            final String[] dests = neighbors[i];
-            for (int j = 0; j < dests.length; j++) {
-                bufferedWriter.append(from).append(", ").append(dests[j]).append(LINE_SEPARATOR); // escribe 'origen, destino'
+        graph.forEachRelation((from, to) -> bufferedWriter.append(from).append(", ").append(to).append(LINE_SEPARATOR)); // escribe 'origen, destino'
+        bufferedWriter.flush(); // asegura que todo se escriba
+    }
+
+    /**
+     * Serializa el grafo en UTF-8 directamente sobre un canal (que no se
+     * cierra), sin pasar por {@code Writer} ni copiar la adyacencia.
+     *
+     * @param channel canal destino
+     * @param graph grafo a serializar
+     * @throws IOException si ocurre un error de E/S
+     */
+    public void write(final WritableByteChannel channel, final DirectedGraph graph) throws IOException { // escribe a un canal
+        if (channel == null) {
+            throw new IllegalArgumentException("El canal no puede ser nulo");
+        }
+        if (graph == null) {
+            throw new IllegalArgumentException("El grafo no puede ser null");
+        }
+        encode(new Utf8ChannelSink(channel, BUFFER_BYTES), graph);
+    }
+
+    /**
+     * Codifica el grafo en el formato de texto recorriendo su almacenamiento
+     * interno con los visitantes de {@link DirectedGraph}; la única memoria
+     * adicional es el búfer del sumidero.
+     *
+     * @param sink destino UTF-8
+     * @param graph grafo a serializar
+     * @throws IOException si ocurre un error de E/S
+     */
+    static void encode(final Utf8ChannelSink sink, final DirectedGraph graph) throws IOException { // formato compartido con CheckpointWriter
+        sink.append("usuarios").append(LINE_SEPARATOR);
+        graph.forEachUser((index, user) -> sink.append(user).append(LINE_SEPARATOR));
+        sink.append("relaciones").append(LINE_SEPARATOR);
+        graph.forEachRelation((from, to) -> sink.append(from).append(", ").append(to).append(LINE_SEPARATOR));
+        sink.flush();
+    }
+
+    /**
+     * Codifica una instantánea indexada en el mismo formato de texto (mismo
+     * orden de usuarios y relaciones que el grafo del que proviene).
+     *
+     * @param sink destino UTF-8
+     * @param graph instantánea a serializar
+     * @throws IOException si ocurre un error de E/S
+     */
+    static void encode(final Utf8ChannelSink sink, final IndexedGraph graph) throws IOException { // usado por CheckpointWriter
+        final int n = graph.userCount();
+        sink.append("usuarios").append(LINE_SEPARATOR);
+        for (int v = 0; v < n; v++) {
+            sink.append(graph.userAt(v)).append(LINE_SEPARATOR);
+        }
+        sink.append("relaciones").append(LINE_SEPARATOR);
+        for (int v = 0; v < n; v++) {
+            final String from = graph.userAt(v);
+            final int degree = graph.outDegree(v);
+            for (int p = 0; p < degree; p++) {
+                sink.append(from).append(", ").append(graph.userAt(graph.neighborAt(v, p))).append(LINE_SEPARATOR);
             }
         }
-        bufferedWriter.flush(); // asegura que todo se escriba
+        sink.flush();
     }
 }
@@ -0,0 +1,229 @@
+package io; // diario de escritura anticipada para cambios sobre el grafo
+
+import domain.DirectedGraph; // grafo sobre el que se reproducen cambios
+import domain.GraphMutation; // operación registrada
+
+import java.io.BufferedInputStream; // lectura con búfer
+import java.io.DataInputStream; // lectura de primitivos
+import java.io.EOFException; // fin de archivo inesperado
+import java.io.IOException; // excepción E/S
+import java.nio.BufferUnderflowException; // registro más corto de lo declarado
+import java.nio.ByteBuffer; // búfer de registros
+import java.nio.channels.Channels; // puente canal -> stream
+import java.nio.channels.FileChannel; // canal de archivo
+import java.nio.charset.StandardCharsets; // codificación UTF-8
+import java.nio.file.Files; // utilidades de archivos
+import java.nio.file.Path; // ruta de archivo
+import java.nio.file.StandardOpenOption; // opciones de apertura
+import java.util.zip.CRC32; // suma de verificación por registro
+
+/**
+ * Diario binario de solo anexado que se guarda junto al archivo del grafo
+ * ({@code <archivo>.journal}). Cada alta/baja de usuario o relación se registra
+ * como un registro compacto con CRC, de modo que guardar cuesta O(cambios). Al
+ * cargar, el diario se reproduce sobre la última instantánea completa.
+ *
+ * <p>
+ * La cabecera guarda el tamaño y la fecha de modificación de la instantánea a
+ * la que pertenece; si la instantánea se reescribe (compactación o edición
+ * externa) el diario deja de coincidir y se descarta. Un registro final
+ * truncado por una caída se ignora y se recorta.</p>
+ */
+public class GraphJournal { // registra y reproduce mutaciones del grafo
+
+    private static final String SUFFIX = ".journal"; // extensión del diario
+    private static final int MAGIC = 0x4B4E584A; // "KNXJ"
+    private static final int VERSION = 1; // versión del formato
+    private static final int HEADER_BYTES = 24; // magic + versión + tamaño + fecha
+    private static final int MAX_RECORD_BYTES = 1 << 20; // límite defensivo por registro
+
+    /**
+     * Ruta del diario asociado a un archivo de grafo.
+     *
+     * @param graphFile archivo de la instantánea
+     * @return ruta del diario
+     */
+    public static Path journalPathFor(final Path graphFile) {
+        if (graphFile == null) {
+            throw new IllegalArgumentException("El archivo no puede ser nulo");
+        }
+        return graphFile.resolveSibling(graphFile.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Anexa las mutaciones al diario del archivo dado y fuerza los datos a
+     * disco. Crea el diario si no existe.
+     *
+     * @param graphFile archivo de la instantánea
+     * @param mutations mutaciones a registrar
+     * @param count número de mutaciones válidas en el arreglo
+     * @return tamaño del diario en bytes tras anexar
+     * @throws IOException si ocurre un error de E/S
+     */
+    public long append(final Path graphFile, final GraphMutation[] mutations, final int count) throws IOException { // anexa registros
+        if (mutations == null || count < 0 || count > mutations.length) {
+            throw new IllegalArgumentException("mutations");
+        }
+        final Path journal = journalPathFor(graphFile);
+        final boolean exists = Files.exists(journal);
+        try (FileChannel channel = FileChannel.open(journal,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(256, count * 48));
+            if (!exists || channel.size() == 0) { // nuevo diario: cabecera con huella de la instantánea
+                buffer.putInt(MAGIC).putInt(VERSION)
+                        .putLong(Files.size(graphFile))
+                        .putLong(Files.getLastModifiedTime(graphFile).toMillis());
+            }
+            final CRC32 crc = new CRC32();
+            for (int i = 0; i < count; i++) {
+                final byte[] record = encode(mutations[i]);
+                if (buffer.remaining() < record.length + 8) {
+                    final ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + record.length + 8));
+                    buffer.flip();
+                    bigger.put(buffer);
+                    buffer = bigger;
+                }
+                crc.reset();
+                crc.update(record);
+                buffer.putInt(record.length).put(record).putInt((int) crc.getValue()); // longitud + datos + CRC
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false); // durabilidad antes de marcar como guardado
+            return channel.size();
+        }
+    }
+
+    /**
+     * Reproduce el diario del archivo dado sobre el grafo.
+     *
+     * @param graphFile archivo de la instantánea ya cargada
+     * @param graph grafo recién cargado desde la instantánea
+     * @return resultado con el número de registros aplicados y advertencias
+     * @throws IOException si ocurre un error de E/S
+     */
+    public ReplayResult replay(final Path graphFile, final DirectedGraph graph) throws IOException { // aplica registros pendientes
+        if (graph == null) {
+            throw new IllegalArgumentException("El grafo no puede ser null");
+        }
+        final Path journal = journalPathFor(graphFile);
+        if (!Files.exists(journal)) {
+            return new ReplayResult(0, 0L, null);
+        }
+        long validLength = 0L;
+        int applied = 0;
+        boolean matches = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(FileChannel.open(journal, StandardOpenOption.READ)), 1 << 16))) {
+            try {
+                matches = in.readInt() == MAGIC
+                        && in.readInt() == VERSION
+                        && in.readLong() == Files.size(graphFile)
+                        && in.readLong() == Files.getLastModifiedTime(graphFile).toMillis();
+            } catch (EOFException eof) { // cabecera incompleta: el diario nunca llegó a usarse
+                matches = false;
+            }
+            if (matches) {
+                validLength = HEADER_BYTES;
+                final CRC32 crc = new CRC32();
+                while (true) {
+                    final int length;
+                    try {
+                        length = in.readInt();
+                        if (length <= 0 || length > MAX_RECORD_BYTES) {
+                            break;
+                        }
+                        final byte[] record = new byte[length];
+                        in.readFully(record);
+                        final int expected = in.readInt();
+                        crc.reset();
+                        crc.update(record);
+                        if ((int) crc.getValue() != expected) {
+                            break;
+                        }
+                        decode(record).applyTo(graph);
+                    } catch (IOException | BufferUnderflowException | IllegalArgumentException ex) {
+                        break; // fin del diario o registro incompleto/dañado
+                    }
+                    applied++;
+                    validLength += 8L + length;
+                }
+            }
+        }
+        if (!matches) { // la instantánea cambió o el formato es otro: el diario ya no le corresponde
+            final boolean hadRecords = Files.size(journal) > HEADER_BYTES;
+            Files.delete(journal);
+            return new ReplayResult(0, 0L, hadRecords
+                    ? "Se descartó un diario de cambios que no corresponde al archivo: " + journal
+                    : null);
+        }
+        String warning = null;
+        if (validLength < Files.size(journal)) { // registro final truncado o dañado
+            try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength); // recorta para que los próximos anexos queden legibles
+            }
+            warning = "Se ignoró el final dañado del diario de cambios: " + journal;
+        }
+        return new ReplayResult(applied, validLength, warning);
+    }
+
+    /**
+     * Elimina el diario asociado al archivo, si existe.
+     *
+     * @param graphFile archivo de la instantánea
+     * @throws IOException si no se puede borrar
+     */
+    public void delete(final Path graphFile) throws IOException { // descarta el diario tras una instantánea completa
+        Files.deleteIfExists(journalPathFor(graphFile));
+    }
+
+    private static byte[] encode(final GraphMutation mutation) { // tipo + handles con longitud
+        final byte[] from = mutation.from().getBytes(StandardCharsets.UTF_8);
+        final byte[] to = mutation.isRelation() ? mutation.to().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        final ByteBuffer out = ByteBuffer.allocate(1 + 4 + from.length + (mutation.isRelation() ? 4 + to.length : 0));
+        out.put((byte) mutation.kind().ordinal());
+        out.putInt(from.length).put(from);
+        if (mutation.isRelation()) {
+            out.putInt(to.length).put(to);
+        }
+        return out.array();
+    }
+
+    private static GraphMutation decode(final byte[] record) throws IOException {
+        final ByteBuffer in = ByteBuffer.wrap(record);
+        final int ordinal = in.get();
+        final GraphMutation.Kind[] kinds = GraphMutation.Kind.values();
+        if (ordinal < 0 || ordinal >= kinds.length) {
+            throw new IOException("tipo de registro desconocido");
+        }
+        final GraphMutation.Kind kind = kinds[ordinal];
+        final String from = readString(in);
+        final String to = kind == GraphMutation.Kind.ADD_RELATION || kind == GraphMutation.Kind.REMOVE_RELATION ? readString(in) : null;
+        return new GraphMutation(kind, from, to);
+    }
+
+    private static String readString(final ByteBuffer in) throws IOException {
+        final int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("handle truncado");
+        }
+        final byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Resultado de reproducir un diario.
+     *
+     * @param applied registros aplicados
+     * @param journalBytes tamaño válido del diario en bytes
+     * @param warning advertencia a mostrar, o {@code null}
+     */
+    public record ReplayResult(int applied, long journalBytes, String warning) {
+
+    }
+}
@@ -0,0 +1,73 @@
+package io; // exportación GraphML
+
+import domain.IndexedGraph; // grafo a exportar
+
+import java.io.IOException; // excepción E/S
+
+/**
+ * Exporta el grafo en formato GraphML (XML) para herramientas como Gephi,
+ * yEd o NetworkX. Si se proporcionan componentes, cada nodo lleva el atributo
+ * entero {@code scc}.
+ */
+public class GraphMlExporter extends StreamingGraphExporter { // escritor GraphML en streaming
+
+    private static final String NL = "\n"; // XML no depende del separador del sistema
+
+    @Override
+    void encode(final Utf8ChannelSink sink, final IndexedGraph graph, final ComponentLookup components) throws IOException {
+        sink.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(NL);
+        sink.append("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">").append(NL);
+        if (!components.isEmpty()) {
+            sink.append("  <key id=\"scc\" for=\"node\" attr.name=\"scc\" attr.type=\"int\"/>").append(NL);
+        }
+        sink.append("  <graph id=\"G\" edgedefault=\"directed\">").append(NL);
+        final int n = graph.userCount();
+        for (int v = 0; v < n; v++) {
+            final String handle = graph.userAt(v);
+            sink.append("    <node id=\"").append(escape(handle)).append("\"");
+            final int component = components.componentOf(handle);
+            if (component < 0) {
+                sink.append("/>").append(NL);
+            } else {
+                sink.append("><data key=\"scc\">").append(Integer.toString(component)).append("</data></node>").append(NL);
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            final String from = escape(graph.userAt(v));
+            final int degree = graph.outDegree(v);
+            for (int p = 0; p < degree; p++) {
+                sink.append("    <edge source=\"").append(from)
+                        .append("\" target=\"").append(escape(graph.userAt(graph.neighborAt(v, p)))).append("\"/>").append(NL);
+            }
+        }
+        sink.append("  </graph>").append(NL);
+        sink.append("</graphml>").append(NL);
+    }
+
+    private static String escape(final String text) { // escapa caracteres especiales de XML en atributos
+        int i = 0;
+        while (i < text.length() && !isSpecial(text.charAt(i))) {
+            i++;
+        }
+        if (i == text.length()) {
+            return text; // caso habitual: sin copia
+        }
+        final StringBuilder out = new StringBuilder(text.length() + 16).append(text, 0, i);
+        for (; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&apos;");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean isSpecial(final char c) {
+        return c == '&' || c == '<' || c == '>' || c == '"' || c == '\'';
+    }
+}
@@ -0,0 +1,238 @@
+package io; // almacenamiento binario de grafos mapeado en memoria
+
+import domain.IndexedGraph; // vista indexada de solo lectura
+
+import java.io.IOException; // excepción E/S
+import java.nio.ByteBuffer; // búfer de bytes
+import java.nio.ByteOrder; // orden de bytes
+import java.nio.MappedByteBuffer; // región de archivo mapeada
+import java.nio.channels.FileChannel; // canal de archivo
+import java.nio.charset.StandardCharsets; // codificación UTF-8
+import java.nio.file.Path; // ruta de archivo
+import java.nio.file.StandardOpenOption; // opciones de apertura
+
+/**
+ * Formato binario CSR pensado para abrirse con {@link FileChannel#map} sin
+ * deserializar: los arreglos de offsets, destinos, offsets del diccionario y
+ * la tabla hash de handles se leen directamente desde el archivo mapeado, de
+ * modo que abrir un grafo grande cuesta milisegundos y varios procesos
+ * comparten la caché de páginas del sistema operativo.
+ *
+ * <p>
+ * Estructura (little-endian, secciones alineadas a 8 bytes):
+ * cabecera de 32 bytes, {@code offsets[n + 1]}, {@code targets[E]},
+ * {@code dictOffsets[n + 1]}, {@code slots[capacidad]} y los handles en UTF-8
+ * concatenados.</p>
+ */
+public class MappedGraphStore { // escribe y abre grafos en formato mapeado
+
+    static final int MAGIC = 0x4B4E5847; // "KNXG"
+    static final int VERSION = 1; // versión del formato
+    static final int HEADER_BYTES = 32; // tamaño de la cabecera
+    private static final int BUFFER_BYTES = 1 << 20; // búfer de escritura de 1 MiB
+
+    /**
+     * Escribe el grafo en formato mapeable.
+     *
+     * @param path archivo destino
+     * @param graph grafo a serializar
+     * @throws IOException si ocurre un error de E/S
+     */
+    public void write(final Path path, final IndexedGraph graph) throws IOException { // serializa el grafo
+        if (path == null) {
+            throw new IllegalArgumentException("El archivo no puede ser nulo");
+        }
+        if (graph == null) {
+            throw new IllegalArgumentException("El grafo no puede ser null");
+        }
+        final int n = graph.userCount();
+        final byte[][] encoded = new byte[n][]; // handles codificados una sola vez
+        long dictLength = 0;
+        for (int i = 0; i < n; i++) {
+            encoded[i] = graph.userAt(i).getBytes(StandardCharsets.UTF_8);
+            dictLength += encoded[i].length;
+        }
+        if (dictLength > Integer.MAX_VALUE) {
+            throw new IOException("El diccionario de handles excede el tamaño soportado por el formato mapeado.");
+        }
+        final int capacity = slotCapacityFor(n);
+        final int[] slots = new int[capacity]; // índice + 1; 0 = ranura libre
+        for (int i = 0; i < n; i++) {
+            int slot = hash(encoded[i], 0, encoded[i].length) & (capacity - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slots[slot] = i + 1;
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) { // abre canal de escritura
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(graph.edgeCount())
+                    .putInt(capacity).putInt(0).putLong(dictLength); // cabecera
+            int running = 0; // offsets CSR
+            putInt(channel, buffer, running);
+            for (int i = 0; i < n; i++) {
+                running += graph.outDegree(i);
+                putInt(channel, buffer, running);
+            }
+            pad(channel, buffer);
+            for (int i = 0; i < n; i++) { // destinos concatenados
+                final int degree = graph.outDegree(i);
+                for (int p = 0; p < degree; p++) {
+                    putInt(channel, buffer, graph.neighborAt(i, p));
+                }
+            }
+            pad(channel, buffer);
+            int dictOffset = 0; // offsets del diccionario
+            putInt(channel, buffer, dictOffset);
+            for (int i = 0; i < n; i++) {
+                dictOffset += encoded[i].length;
+                putInt(channel, buffer, dictOffset);
+            }
+            pad(channel, buffer);
+            for (int i = 0; i < capacity; i++) { // tabla hash de handles
+                putInt(channel, buffer, slots[i]);
+            }
+            pad(channel, buffer);
+            for (int i = 0; i < n; i++) { // bytes de los handles
+                final byte[] bytes = encoded[i];
+                int pos = 0;
+                while (pos < bytes.length) {
+                    if (!buffer.hasRemaining()) {
+                        drain(channel, buffer);
+                    }
+                    final int chunk = Math.min(buffer.remaining(), bytes.length - pos);
+                    buffer.put(bytes, pos, chunk);
+                    pos += chunk;
+                }
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Indica si el archivo comienza con la firma del formato mapeado.
+     *
+     * @param path archivo a inspeccionar
+     * @return {@code true} si parece un archivo en formato mapeado
+     * @throws IOException si no se puede leer
+     */
+    public boolean isMappedStore(final Path path) throws IOException { // inspecciona solo los primeros bytes
+        if (path == null) {
+            throw new IllegalArgumentException("El archivo no puede ser nulo");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // lee hasta completar la firma o llegar al final
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Abre un archivo en formato mapeado. Los datos permanecen en el archivo y
+     * se leen bajo demanda; el canal se cierra tras mapear las secciones.
+     *
+     * @param path archivo a abrir
+     * @return vista de solo lectura del grafo
+     * @throws IOException si el archivo no es válido o no se puede leer
+     */
+    public MappedGraphView open(final Path path) throws IOException { // mapea el archivo sin copiarlo al heap
+        if (path == null) {
+            throw new IllegalArgumentException("El archivo no puede ser nulo");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Archivo de grafo mapeado truncado: " + path);
+            }
+            final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Formato de grafo mapeado no reconocido: " + path);
+            }
+            final int n = header.getInt(8);
+            final int edges = header.getInt(12);
+            final int capacity = header.getInt(16);
+            final long dictLength = header.getLong(24);
+            if (n < 0 || edges < 0 || capacity <= 0 || (capacity & (capacity - 1)) != 0 || dictLength < 0) {
+                throw new IOException("Cabecera de grafo mapeado inválida: " + path);
+            }
+            final long offsetsPos = HEADER_BYTES;
+            final long targetsPos = align(offsetsPos + 4L * (n + 1));
+            final long dictOffsetsPos = align(targetsPos + 4L * edges);
+            final long slotsPos = align(dictOffsetsPos + 4L * (n + 1));
+            final long dictPos = align(slotsPos + 4L * capacity);
+            if (dictPos + dictLength != fileSize) {
+                throw new IOException("El tamaño del archivo no coincide con su cabecera: " + path);
+            }
+            return new MappedGraphView(n,
+                    edges,
+                    map(channel, offsetsPos, 4L * (n + 1)),
+                    map(channel, targetsPos, 4L * edges),
+                    map(channel, dictOffsetsPos, 4L * (n + 1)),
+                    map(channel, slotsPos, 4L * capacity),
+                    map(channel, dictPos, dictLength));
+        }
+    }
+
+    static int hash(final byte[] bytes, final int offset, final int length) { // FNV-1a de 32 bits sobre UTF-8
+        int h = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            h ^= bytes[i] & 0xFF;
+            h *= 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static MappedByteBuffer map(final FileChannel channel, final long position, final long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Sección demasiado grande para mapearse: " + length + " bytes");
+        }
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static int slotCapacityFor(final int n) { // potencia de dos con factor de carga <= 0.5
+        int capacity = 8;
+        while (capacity < n * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static long align(final long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static void putInt(final FileChannel channel, final ByteBuffer buffer, final int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            drain(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    private static void pad(final FileChannel channel, final ByteBuffer buffer) throws IOException { // completa hasta múltiplo de 8
+        final long written = channel.position() + buffer.position();
+        final int padding = (int) (align(written) - written);
+        for (int i = 0; i < padding; i++) {
+            if (!buffer.hasRemaining()) {
+                drain(channel, buffer);
+            }
+            buffer.put((byte) 0);
+        }
+    }
+
+    private static void drain(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,100 @@
+package io; // vista sobre un grafo mapeado en memoria
+
+import domain.IndexedGraph; // contrato de grafo indexado
+
+import java.nio.ByteBuffer; // diccionario de handles
+import java.nio.IntBuffer; // secciones de enteros
+import java.nio.MappedByteBuffer; // región mapeada
+import java.nio.charset.StandardCharsets; // codificación UTF-8
+
+/**
+ * Grafo de solo lectura respaldado por un archivo escrito con
+ * {@link MappedGraphStore}. Todas las consultas leen en sitio desde las
+ * regiones mapeadas; solo se asignan objetos al materializar handles. Es
+ * seguro para lecturas concurrentes porque únicamente usa accesos absolutos.
+ */
+public final class MappedGraphView implements IndexedGraph { // vista sin deserialización
+
+    private final int userCount; // número de usuarios
+    private final int edgeCount; // número de relaciones
+    private final IntBuffer offsets; // offsets CSR (n + 1)
+    private final IntBuffer targets; // destinos concatenados
+    private final IntBuffer dictOffsets; // offsets de cada handle en el diccionario
+    private final IntBuffer slots; // tabla hash índice + 1
+    private final ByteBuffer dictionary; // handles en UTF-8
+
+    MappedGraphView(final int userCount,
+            final int edgeCount,
+            final MappedByteBuffer offsets,
+            final MappedByteBuffer targets,
+            final MappedByteBuffer dictOffsets,
+            final MappedByteBuffer slots,
+            final MappedByteBuffer dictionary) {
+        this.userCount = userCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets.asIntBuffer();
+        this.targets = targets.asIntBuffer();
+        this.dictOffsets = dictOffsets.asIntBuffer();
+        this.slots = slots.asIntBuffer();
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public int userCount() {
+        return userCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public String userAt(final int index) {
+        final int start = dictOffsets.get(index);
+        final byte[] bytes = new byte[dictOffsets.get(index + 1) - start];
+        dictionary.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int indexOf(final String handle) {
+        if (handle == null) {
+            return -1;
+        }
+        final byte[] key = handle.getBytes(StandardCharsets.UTF_8);
+        final int mask = slots.capacity() - 1;
+        int slot = MappedGraphStore.hash(key, 0, key.length) & mask;
+        int value;
+        while ((value = slots.get(slot)) != 0) {
+            if (matches(value - 1, key)) {
+                return value - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public int outDegree(final int index) {
+        return offsets.get(index + 1) - offsets.get(index);
+    }
+
+    @Override
+    public int neighborAt(final int index, final int position) {
+        return targets.get(offsets.get(index) + position);
+    }
+
+    private boolean matches(final int index, final byte[] key) { // compara bytes en sitio
+        final int start = dictOffsets.get(index);
+        if (dictOffsets.get(index + 1) - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (dictionary.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
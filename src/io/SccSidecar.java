@@ -0,0 +1,237 @@
+package io; // caché en disco de resultados SCC
+
+import domain.KosarajuSCC; // asignación y condensación
+
+import java.io.IOException; // excepción E/S
+import java.nio.ByteBuffer; // serialización binaria
+import java.nio.ByteOrder; // orden de bytes
+import java.nio.channels.FileChannel; // canal de archivo
+import java.nio.charset.StandardCharsets; // codificación de los handles
+import java.nio.file.AtomicMoveNotSupportedException; // sistemas sin renombrado atómico
+import java.nio.file.Files; // utilidades de archivos
+import java.nio.file.Path; // ruta de archivo
+import java.nio.file.StandardCopyOption; // opciones de movimiento
+import java.nio.file.StandardOpenOption; // opciones de apertura
+import java.security.MessageDigest; // comparación de hashes
+import java.security.NoSuchAlgorithmException; // SHA-256 no disponible
+import java.util.zip.CRC32; // suma de verificación
+
+/**
+ * Caché de resultados SCC que se guarda junto al archivo del grafo
+ * ({@code <archivo>.scc}). Contiene el SHA-256 del contenido del que se
+ * calculó, el SHA-256 de la lista ordenada de handles a la que se refiere
+ * {@code componentOf}, la componente de cada usuario y la condensación en
+ * CSR; no repite los handles. Si alguno de los dos hashes no coincide con el
+ * archivo y el grafo cargados, la caché se ignora: así un grafo con los
+ * mismos usuarios en otro orden nunca recibe componentes ajenas.
+ *
+ * <p>
+ * Formato (little-endian): magic, versión, hash del contenido (32 bytes),
+ * hash de los handles (32 bytes), usuarios, componentes, relaciones de la
+ * condensación, {@code componentOf}, {@code offsets}, {@code targets} y
+ * CRC32 de todo lo anterior.</p>
+ */
+public class SccSidecar { // persiste y restaura la asignación de componentes
+
+    private static final String SUFFIX = ".scc"; // extensión de la caché
+    private static final int MAGIC = 0x4B4E5853; // "KNXS"
+    private static final int VERSION = 2; // versión del formato (2: hash del orden de handles)
+    private static final int HASH_BYTES = 32; // SHA-256
+    private static final int COUNTS_OFFSET = 8 + 2 * HASH_BYTES; // magic + versión + hashes
+    private static final int HEADER_BYTES = COUNTS_OFFSET + 12; // cabecera + contadores
+
+    /**
+     * Resultado restaurado de la caché.
+     *
+     * @param assignment componente de cada usuario
+     * @param condensation grafo de componentes
+     */
+    public record Entry(KosarajuSCC.Assignment assignment, KosarajuSCC.Condensation condensation) {
+
+    }
+
+    /**
+     * Ruta de la caché asociada a un archivo de grafo.
+     *
+     * @param graphFile archivo del grafo
+     * @return ruta de la caché
+     */
+    public static Path sidecarPathFor(final Path graphFile) {
+        if (graphFile == null) {
+            throw new IllegalArgumentException("El archivo no puede ser nulo");
+        }
+        return graphFile.resolveSibling(graphFile.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Escribe la caché (temporal + renombrado atómico).
+     *
+     * @param graphFile archivo del grafo
+     * @param contentHash SHA-256 del contenido del archivo
+     * @param users handles en el orden al que se refiere {@code assignment}
+     * @param assignment componente de cada usuario
+     * @param condensation condensación de la asignación
+     * @throws IOException si ocurre un error de E/S
+     */
+    public void write(final Path graphFile,
+            final byte[] contentHash,
+            final String[] users,
+            final KosarajuSCC.Assignment assignment,
+            final KosarajuSCC.Condensation condensation) throws IOException {
+        if (contentHash == null || contentHash.length != HASH_BYTES) {
+            throw new IllegalArgumentException("contentHash");
+        }
+        if (users == null || assignment == null || condensation == null) {
+            throw new IllegalArgumentException("users/assignment/condensation");
+        }
+        final int[] componentOf = assignment.componentOf();
+        if (users.length != componentOf.length) {
+            throw new IllegalArgumentException("users");
+        }
+        final int[] offsets = condensation.offsets();
+        final int[] targets = condensation.targets();
+        final long bytes = HEADER_BYTES + 4L * (componentOf.length + offsets.length + targets.length) + 4L;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Resultado SCC demasiado grande para la caché");
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).put(contentHash).put(usersHash(users))
+                .putInt(componentOf.length).putInt(assignment.componentCount()).putInt(targets.length);
+        buffer.asIntBuffer().put(componentOf).put(offsets).put(targets);
+        buffer.position(buffer.capacity() - 4);
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.capacity() - 4);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        final Path target = sidecarPathFor(graphFile).toAbsolutePath();
+        final Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Lee la caché si existe y corresponde al contenido y al orden de
+     * usuarios dados.
+     *
+     * @param graphFile archivo del grafo
+     * @param contentHash SHA-256 del contenido cargado
+     * @param users handles del grafo cargado, en su orden
+     * @return resultado restaurado o {@code null} si no hay caché válida
+     * @throws IOException si ocurre un error de E/S al leer
+     */
+    public Entry read(final Path graphFile, final byte[] contentHash, final String[] users) throws IOException {
+        if (contentHash == null || contentHash.length != HASH_BYTES || users == null) {
+            return null;
+        }
+        final Path path = sidecarPathFor(graphFile);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        final long size = Files.size(path);
+        if (size < HEADER_BYTES + 4L || size > Integer.MAX_VALUE) {
+            return null;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // lee el archivo completo
+            }
+        }
+        if (buffer.hasRemaining() || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return null;
+        }
+        final byte[] storedHash = new byte[HASH_BYTES];
+        buffer.get(8, storedHash);
+        if (!MessageDigest.isEqual(storedHash, contentHash)) {
+            return null; // caché de otro contenido
+        }
+        buffer.get(8 + HASH_BYTES, storedHash);
+        if (!MessageDigest.isEqual(storedHash, usersHash(users))) {
+            return null; // mismos datos con los usuarios en otro orden
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, (int) size - 4);
+        if (buffer.getInt((int) size - 4) != (int) crc.getValue()) {
+            return null; // caché corrupta: se recalcula
+        }
+        final int n = buffer.getInt(COUNTS_OFFSET);
+        final int count = buffer.getInt(COUNTS_OFFSET + 4);
+        final int edges = buffer.getInt(COUNTS_OFFSET + 8);
+        if (n != users.length || count < 0 || count > n || edges < 0
+                || HEADER_BYTES + 4L * ((long) n + count + 1 + edges) + 4L != size) {
+            return null;
+        }
+        final int[] componentOf = new int[n];
+        final int[] offsets = new int[count + 1];
+        final int[] targets = new int[edges];
+        buffer.position(HEADER_BYTES);
+        buffer.asIntBuffer().get(componentOf).get(offsets).get(targets);
+        if (!valid(componentOf, count, offsets, targets)) {
+            return null;
+        }
+        return new Entry(new KosarajuSCC.Assignment(componentOf, count), new KosarajuSCC.Condensation(offsets, targets));
+    }
+
+    /**
+     * Elimina la caché asociada si existe.
+     *
+     * @param graphFile archivo del grafo
+     * @throws IOException si no se puede borrar
+     */
+    public void delete(final Path graphFile) throws IOException {
+        Files.deleteIfExists(sidecarPathFor(graphFile));
+    }
+
+    private static byte[] usersHash(final String[] users) { // SHA-256 de los handles en orden, separados por '\n'
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+        for (String user : users) {
+            digest.update(user.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return digest.digest();
+    }
+
+    private static boolean valid(final int[] componentOf, final int count, final int[] offsets, final int[] targets) { // rangos coherentes
+        for (int v = 0; v < componentOf.length; v++) {
+            if (componentOf[v] < 0 || componentOf[v] >= count) {
+                return false;
+            }
+        }
+        if (offsets[0] != 0 || offsets[count] != targets.length) {
+            return false;
+        }
+        for (int c = 0; c < count; c++) {
+            if (offsets[c] > offsets[c + 1]) {
+                return false;
+            }
+        }
+        for (int e = 0; e < targets.length; e++) {
+            if (targets[e] < 0 || targets[e] >= count) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package io; // exportación a formatos externos
+
+import domain.IndexedGraph; // grafo a exportar (instantánea inmutable)
+import domain.HandleIndex; // búsqueda handle -> posición
+
+import java.io.IOException; // excepción E/S
+import java.nio.channels.Channels; // adaptadores canal/flujo
+import java.nio.channels.FileChannel; // canal de archivo
+import java.nio.channels.WritableByteChannel; // canal destino
+import java.nio.file.Path; // ruta de archivo
+import java.nio.file.StandardOpenOption; // opciones de apertura
+import java.util.zip.GZIPOutputStream; // compresión gzip
+
+/**
+ * Base de los exportadores que escriben el grafo en formatos de herramientas
+ * externas. Recorren un {@link IndexedGraph} inmutable (la instantánea CSR
+ * del servicio), así que pueden escribir sin bloquear la edición, y
+ * codifican directamente en un búfer UTF-8 de tamaño fijo, por lo que la
+ * memoria adicional no depende del número de relaciones.
+ * Opcionalmente anotan cada nodo con el id de su componente fuertemente
+ * conectada.
+ */
+public abstract class StreamingGraphExporter { // plantilla común de exportación
+
+    private static final int BUFFER_BYTES = 1 << 20; // búfer directo de 1 MiB
+    private static final int GZIP_BUFFER_BYTES = 1 << 16; // búfer de salida del compresor
+
+    /**
+     * Exporta el grafo a un archivo (comprimido con gzip si termina en
+     * {@code .gz}).
+     *
+     * @param path archivo destino
+     * @param graph grafo a exportar
+     * @param sccHandles handles con componente conocida (puede ser null)
+     * @param sccIds id de componente de cada handle (arreglo paralelo, puede
+     * ser null)
+     * @throws IOException si ocurre un error de E/S
+     */
+    public void export(final Path path, final IndexedGraph graph, final String[] sccHandles, final int[] sccIds) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("El archivo no puede ser nulo");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (CompressedStreams.isCompressedPath(path)) {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), GZIP_BUFFER_BYTES)) {
+                    export(Channels.newChannel(gzip), graph, sccHandles, sccIds);
+                }
+            } else {
+                export(channel, graph, sccHandles, sccIds);
+            }
+        }
+    }
+
+    /**
+     * Exporta el grafo al canal dado (que no se cierra).
+     *
+     * @param channel canal destino
+     * @param graph grafo a exportar
+     * @param sccHandles handles con componente conocida (puede ser null)
+     * @param sccIds id de componente de cada handle (arreglo paralelo, puede
+     * ser null)
+     * @throws IOException si ocurre un error de E/S
+     */
+    public void export(final WritableByteChannel channel, final IndexedGraph graph, final String[] sccHandles, final int[] sccIds) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("channel");
+        }
+        if (graph == null) {
+            throw new IllegalArgumentException("El grafo no puede ser null");
+        }
+        final Utf8ChannelSink sink = new Utf8ChannelSink(channel, BUFFER_BYTES);
+        encode(sink, graph, new ComponentLookup(sccHandles, sccIds));
+        sink.flush();
+    }
+
+    /**
+     * Escribe el documento completo en el sumidero.
+     *
+     * @param sink destino UTF-8
+     * @param graph grafo a exportar
+     * @param components ids de componente por handle
+     * @throws IOException si ocurre un error de E/S
+     */
+    abstract void encode(Utf8ChannelSink sink, IndexedGraph graph, ComponentLookup components) throws IOException;
+
+    /**
+     * Búsqueda O(1) del id de componente de un handle a partir de los
+     * arreglos paralelos de {@code SccMapping}.
+     */
+    static final class ComponentLookup { // handle -> id de componente
+
+        private final HandleIndex index; // handle -> posición en ids
+        private final int[] ids; // id de componente por posición
+
+        ComponentLookup(final String[] handles, final int[] ids) {
+            if (handles == null || ids == null || handles.length == 0) {
+                this.index = null;
+                this.ids = null;
+                return;
+            }
+            if (handles.length != ids.length) {
+                throw new IllegalArgumentException("sccHandles/sccIds deben tener la misma longitud");
+            }
+            this.index = new HandleIndex(handles.length);
+            for (int i = 0; i < handles.length; i++) {
+                index.putIfAbsent(handles[i], i);
+            }
+            this.ids = ids;
+        }
+
+        boolean isEmpty() { // sin anotaciones SCC
+            return index == null;
+        }
+
+        int componentOf(final String handle) { // -1 si el handle no tiene componente
+            if (index == null) {
+                return -1;
+            }
+            final int position = index.get(handle);
+            return position < 0 ? -1 : ids[position];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io; // salida de texto UTF-8 sobre canales
+
+import java.io.IOException; // excepción E/S
+import java.nio.ByteBuffer; // búfer directo reutilizable
+import java.nio.channels.WritableByteChannel; // canal destino
+
+/**
+ * Codifica cadenas en UTF-8 directamente dentro de un {@link ByteBuffer}
+ * directo reutilizable y lo vuelca al canal cuando se llena. Evita las capas
+ * {@code Writer}/{@code BufferedWriter} y las conversiones intermedias de
+ * {@code char[]} a bytes.
+ */
+final class Utf8ChannelSink { // escritor de texto UTF-8 con búfer propio
+
+    private static final int MAX_BYTES_PER_CHAR = 4; // peor caso (par sustituto)
+
+    private final WritableByteChannel channel; // canal destino
+    private final ByteBuffer buffer; // búfer directo reutilizable
+
+    Utf8ChannelSink(final WritableByteChannel channel, final int capacity) {
+        if (channel == null) {
+            throw new IllegalArgumentException("channel");
+        }
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(capacity, 64));
+    }
+
+    Utf8ChannelSink append(final String text) throws IOException { // codifica y acumula el texto
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (buffer.remaining() < MAX_BYTES_PER_CHAR) {
+                drain();
+            }
+            final char c = text.charAt(i);
+            if (c < 0x80) { // ASCII: caso habitual de los handles
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, text.charAt(++i));
+                buffer.put((byte) (0xF0 | (cp >> 18)));
+                buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) { // sustituto huérfano: mismo reemplazo que el codificador estándar
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return this;
+    }
+
+    void flush() throws IOException { // vuelca lo pendiente al canal
+        drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,193 @@
+package services; // autoguardado en segundo plano
+
+import io.CheckpointWriter; // escritura atómica de instantáneas
+import util.UnsavedChangesTracker; // contador de cambios de la UI
+
+import java.io.IOException; // excepción E/S
+import java.nio.file.Files; // borrado de la copia de recuperación
+import java.nio.file.Path; // ruta de archivo
+import java.time.LocalTime; // hora del último autoguardado
+import java.time.format.DateTimeFormatter; // formato de hora
+import java.util.concurrent.Executors; // fábrica de ejecutores
+import java.util.concurrent.RejectedExecutionException; // servicio ya cerrado
+import java.util.concurrent.ScheduledExecutorService; // planificador
+import java.util.concurrent.TimeUnit; // unidades de tiempo
+
+/**
+ * Servicio de autoguardado que observa el {@link UnsavedChangesTracker} y
+ * agrupa ráfagas de cambios: guarda una copia de recuperación cuando pasa el
+ * intervalo configurado desde el primer cambio sin guardar o cuando se
+ * acumulan suficientes operaciones. Se serializa la instantánea CSR inmutable
+ * del {@link GraphService} en un hilo propio, sin copiar el grafo bajo su
+ * monitor ni bloquear la edición o el hilo de eventos de Swing.
+ *
+ * <p>
+ * La copia se escribe junto al archivo actual como
+ * {@code <archivo>.autosave} (o en el directorio temporal si el grafo aún no
+ * tiene archivo); el archivo del usuario solo cambia al guardar
+ * explícitamente. Tras un guardado manual la copia sobra y se borra con
+ * {@link #discardRecoveryCopy()}.</p>
+ */
+public class AutosaveService implements AutoCloseable { // guarda copias de recuperación periódicas
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 30_000L; // intervalo por defecto
+    public static final int DEFAULT_DIRTY_THRESHOLD = 50; // cambios que fuerzan un guardado anticipado
+    private static final long MAX_TICK_MILLIS = 500L; // frecuencia máxima de revisión
+    private static final String SUFFIX = ".autosave"; // extensión de la copia de recuperación
+    private static final String UNTITLED_FILE = "kosaraju-nexus" + SUFFIX; // copia para grafos sin archivo
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    /**
+     * Recibe mensajes de estado del autoguardado (desde el hilo de fondo).
+     */
+    @FunctionalInterface
+    public interface StatusListener {
+
+        void onStatus(String message);
+    }
+
+    private final GraphService graphService; // fuente del grafo
+    private final UnsavedChangesTracker tracker; // contador de cambios
+    private final long intervalMillis; // tiempo máximo que un cambio queda sin autoguardar
+    private final int dirtyThreshold; // cambios que adelantan el guardado
+    private final StatusListener listener; // destino de los mensajes de estado
+    private final CheckpointWriter checkpointWriter = new CheckpointWriter(0); // escritura atómica sin rotación
+    private final ScheduledExecutorService scheduler; // hilo de fondo
+
+    private long savedCount; // contador de cambios ya autoguardados (solo hilo de fondo)
+    private long pendingSince = -1L; // instante en que se observó el primer cambio pendiente
+    private Path lastWritten; // última copia de recuperación escrita (solo hilo de fondo)
+
+    /**
+     * Crea el servicio con la configuración por defecto.
+     *
+     * @param graphService servicio del grafo
+     * @param tracker rastreador de cambios
+     * @param listener receptor de mensajes de estado (puede ser null)
+     */
+    public AutosaveService(final GraphService graphService, final UnsavedChangesTracker tracker, final StatusListener listener) {
+        this(graphService, tracker, DEFAULT_INTERVAL_MILLIS, DEFAULT_DIRTY_THRESHOLD, listener);
+    }
+
+    /**
+     * @param graphService servicio del grafo
+     * @param tracker rastreador de cambios
+     * @param intervalMillis intervalo máximo entre el primer cambio y su
+     * autoguardado
+     * @param dirtyThreshold número de cambios que fuerzan un autoguardado
+     * inmediato
+     * @param listener receptor de mensajes de estado (puede ser null)
+     */
+    public AutosaveService(final GraphService graphService,
+            final UnsavedChangesTracker tracker,
+            final long intervalMillis,
+            final int dirtyThreshold,
+            final StatusListener listener) {
+        if (graphService == null) {
+            throw new IllegalArgumentException("graphService");
+        }
+        if (tracker == null) {
+            throw new IllegalArgumentException("tracker");
+        }
+        if (intervalMillis <= 0 || dirtyThreshold <= 0) {
+            throw new IllegalArgumentException("intervalMillis/dirtyThreshold");
+        }
+        this.graphService = graphService;
+        this.tracker = tracker;
+        this.intervalMillis = intervalMillis;
+        this.dirtyThreshold = dirtyThreshold;
+        this.listener = listener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true); // no impide cerrar la aplicación
+            return thread;
+        });
+    }
+
+    /**
+     * Inicia las revisiones periódicas.
+     */
+    public void start() { // programa la revisión periódica
+        final long tick = Math.min(MAX_TICK_MILLIS, intervalMillis);
+        savedCount = tracker.getModificationCount();
+        scheduler.scheduleWithFixedDelay(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ruta de la copia de recuperación asociada a un archivo.
+     *
+     * @param file archivo del grafo o {@code null} si aún no tiene
+     * @return ruta de la copia de recuperación
+     */
+    public static Path autosavePathFor(final Path file) {
+        if (file == null) {
+            return Path.of(System.getProperty("java.io.tmpdir"), UNTITLED_FILE);
+        }
+        return file.resolveSibling(file.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Borra la copia de recuperación escrita más recientemente. Se invoca tras
+     * un guardado manual correcto; el borrado se encola en el hilo de fondo
+     * para no competir con un autoguardado en curso.
+     */
+    public void discardRecoveryCopy() { // la copia ya no aporta nada
+        try {
+            scheduler.execute(() -> {
+                if (lastWritten == null) {
+                    return;
+                }
+                try {
+                    Files.deleteIfExists(lastWritten);
+                    lastWritten = null;
+                } catch (IOException ex) { // se reintenta en el próximo guardado
+                    report("No se pudo borrar la copia de recuperación: " + ex.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException ex) { // servicio ya cerrado
+            // sin hilo de fondo no hay nada pendiente que borrar
+        }
+    }
+
+    @Override
+    public void close() { // detiene el hilo de fondo
+        scheduler.shutdownNow();
+    }
+
+    private void tick() { // decide si toca guardar, agrupando ráfagas de cambios
+        final long count = tracker.getModificationCount();
+        if (!tracker.hasUnsavedChanges()) { // guardado manual: nada pendiente
+            savedCount = count;
+            pendingSince = -1L;
+            return;
+        }
+        if (count == savedCount) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        if (pendingSince < 0) {
+            pendingSince = now;
+        }
+        if (count - savedCount < dirtyThreshold && now - pendingSince < intervalMillis) {
+            return; // seguir acumulando
+        }
+        final GraphService.PersistenceSnapshot snapshot = graphService.capturePersistenceSnapshot(); // copia consistente
+        final Path target = autosavePathFor(snapshot.file());
+        try {
+            checkpointWriter.write(target, snapshot.graph()); // escritura fuera del monitor
+            lastWritten = target;
+            savedCount = count;
+            pendingSince = -1L;
+            report("Autoguardado " + LocalTime.now().format(TIME_FORMAT));
+        } catch (IOException | RuntimeException ex) {
+            pendingSince = now; // reintenta tras otro intervalo
+            report("Autoguardado falló: " + ex.getMessage());
+        }
+    }
+
+    private void report(final String message) {
+        if (listener != null) {
+            listener.onStatus(message);
+        }
+    }
+}
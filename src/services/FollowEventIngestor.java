@@ -0,0 +1,548 @@
+package services; // ingesta continua de eventos de seguimiento
+
+import domain.GraphMutation; // operación sobre el grafo
+
+import java.io.IOException; // excepción E/S
+import java.nio.ByteBuffer; // búfer de lectura
+import java.nio.channels.FileChannel; // lectura posicional del registro
+import java.nio.charset.StandardCharsets; // codificación UTF-8
+import java.nio.file.Files; // utilidades de archivos
+import java.nio.file.NoSuchFileException; // registro aún no creado
+import java.nio.file.Path; // ruta del registro
+import java.nio.file.StandardOpenOption; // opciones de apertura
+import java.nio.file.attribute.BasicFileAttributes; // identidad del archivo (rotación)
+import java.util.concurrent.ArrayBlockingQueue; // cola acotada entre hilos
+import java.util.concurrent.TimeUnit; // unidades de tiempo
+
+/**
+ * Sigue un registro de eventos de solo anexado (como {@code tail -f}) y aplica
+ * los eventos al {@link GraphService} en lotes. Un hilo lee y parsea líneas y
+ * entrega lotes por una cola acotada; otro hilo los aplica con
+ * {@link GraphService#applyBatch(GraphMutation[])}. Si el aplicador se
+ * retrasa, la cola llena frena al lector en lugar de acumular memoria.
+ *
+ * <p>
+ * Un lote se entrega al alcanzar {@link Options#batchSize()} eventos, al
+ * superar {@link Options#maxBatchDelayMillis()} desde su primer evento o al
+ * llegar al final del archivo, lo que acota la latencia. Tras aplicar lotes,
+ * las SCC se recalculan cuando pasa {@link Options#sccQuietMillis()} sin
+ * eventos, o como máximo cada {@link Options#sccMaxDelayMillis()} con
+ * tráfico continuo.</p>
+ *
+ * <p>
+ * Formato de línea (UTF-8), compatible con la sección {@code relaciones}:
+ * {@code @a, @b} o {@code +@a, @b} (seguir; crea los usuarios que falten),
+ * {@code -@a, @b} (dejar de seguir), {@code +@a} (alta de usuario) y
+ * {@code -@a} (baja de usuario). Las líneas vacías o que empiezan por
+ * {@code #} se ignoran. Si el archivo se trunca o se reemplaza (rotación),
+ * se vuelve a leer desde el principio.</p>
+ */
+public class FollowEventIngestor implements AutoCloseable { // lector + aplicador de eventos
+
+    private static final int QUEUE_CAPACITY = 64; // lotes en vuelo como máximo
+    private static final long POLL_MILLIS = 100L; // espera al llegar al final del archivo
+    private static final int READ_BUFFER_BYTES = 64 * 1024; // lectura por bloques
+    private static final int MAX_LINE_BYTES = 1 << 16; // líneas más largas se descartan
+    private static final Batch END = new Batch(new GraphMutation[0], new boolean[0], 0L, 0); // fin de la ingesta
+
+    /**
+     * Parámetros de la ingesta.
+     *
+     * @param fromStart {@code true} para procesar el contenido existente;
+     * {@code false} para empezar desde el final actual
+     * @param batchSize eventos máximos por lote
+     * @param maxBatchDelayMillis antigüedad máxima de un lote antes de
+     * entregarlo
+     * @param sccQuietMillis calma tras la cual se recalculan las SCC
+     * (negativo para no recalcular)
+     * @param sccMaxDelayMillis demora máxima del recálculo con tráfico
+     * continuo
+     */
+    public record Options(boolean fromStart, int batchSize, long maxBatchDelayMillis, long sccQuietMillis, long sccMaxDelayMillis) {
+
+        public Options {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize");
+            }
+            if (maxBatchDelayMillis < 0) {
+                throw new IllegalArgumentException("maxBatchDelayMillis");
+            }
+            if (sccMaxDelayMillis < sccQuietMillis) {
+                throw new IllegalArgumentException("sccMaxDelayMillis");
+            }
+        }
+
+        public static Options defaults() { // lotes de 4096, 50 ms de latencia, SCC tras 500 ms de calma
+            return new Options(true, 4096, 50L, 500L, 5000L);
+        }
+    }
+
+    /**
+     * Métricas acumuladas de la ingesta.
+     *
+     * @param linesRead líneas leídas del registro
+     * @param malformedLines líneas con formato inválido
+     * @param eventsApplied eventos que modificaron el grafo
+     * @param eventsRejected eventos rechazados por el servicio (relación
+     * repetida, usuario inexistente…)
+     * @param batchesApplied lotes aplicados
+     * @param queuedBatches lotes esperando en la cola
+     * @param bytesBehind bytes del registro aún no leídos
+     * @param lastLagMillis tiempo entre la lectura y la aplicación del último
+     * lote
+     * @param maxLagMillis mayor retraso observado
+     * @param eventsPerSecond eventos aplicados por segundo (última ventana)
+     * @param sccRecomputations recálculos de SCC realizados
+     */
+    public record Metrics(long linesRead,
+            long malformedLines,
+            long eventsApplied,
+            long eventsRejected,
+            long batchesApplied,
+            int queuedBatches,
+            long bytesBehind,
+            long lastLagMillis,
+            long maxLagMillis,
+            double eventsPerSecond,
+            long sccRecomputations) {
+
+    }
+
+    /**
+     * Recibe el progreso de la ingesta (desde el hilo aplicador).
+     */
+    public interface IngestListener {
+
+        void onBatchApplied(GraphService.BatchResult result, Metrics metrics);
+
+        default void onSccRecomputed(final GraphService.SccComputationResult result) {
+            // por defecto no se hace nada
+        }
+
+        /**
+         * Informa un error de lectura o de aplicación. La ingesta ya quedó
+         * detenida ({@link #isRunning()} devuelve {@code false}).
+         *
+         * @param message descripción del error
+         */
+        default void onIngestFailed(final String message) {
+            // por defecto se ignora
+        }
+    }
+
+    private record Batch(GraphMutation[] operations, boolean[] implicit, long createdNanos, int events) { // lote listo para aplicar
+
+    }
+
+    private final GraphService graphService; // servicio destino
+    private final Path logFile; // registro seguido
+    private final Options options; // parámetros
+    private final IngestListener listener; // receptor del progreso
+    private final ArrayBlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY); // lotes pendientes
+    private final Thread reader; // hilo lector/parser
+    private final Thread applier; // hilo aplicador
+    private volatile boolean closed;
+
+    private volatile long linesRead; // escrito por el lector
+    private volatile long malformedLines; // escrito por el lector
+    private volatile long bytesBehind; // escrito por el lector
+    private volatile long eventsApplied; // escrito por el aplicador
+    private volatile long eventsRejected; // escrito por el aplicador
+    private volatile long batchesApplied; // escrito por el aplicador
+    private volatile long lastLagMillis; // escrito por el aplicador
+    private volatile long maxLagMillis; // escrito por el aplicador
+    private volatile double eventsPerSecond; // escrito por el aplicador
+    private volatile long sccRecomputations; // escrito por el aplicador
+
+    /**
+     * @param graphService servicio del grafo
+     * @param logFile registro de eventos (puede no existir todavía)
+     * @param options parámetros de la ingesta
+     * @param listener receptor del progreso
+     */
+    public FollowEventIngestor(final GraphService graphService, final Path logFile, final Options options, final IngestListener listener) {
+        if (graphService == null) {
+            throw new IllegalArgumentException("graphService");
+        }
+        if (logFile == null) {
+            throw new IllegalArgumentException("logFile");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("options");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("listener");
+        }
+        this.graphService = graphService;
+        this.logFile = logFile;
+        this.options = options;
+        this.listener = listener;
+        this.reader = new Thread(this::readLoop, "event-reader");
+        this.reader.setDaemon(true); // no impide cerrar la aplicación
+        this.applier = new Thread(this::applyLoop, "event-applier");
+        this.applier.setDaemon(true);
+    }
+
+    /**
+     * Inicia la lectura y la aplicación.
+     */
+    public void start() {
+        applier.start();
+        reader.start();
+    }
+
+    /**
+     * @return {@code true} hasta que se cierra o falla la lectura o la
+     * aplicación
+     */
+    public boolean isRunning() {
+        return !closed;
+    }
+
+    /**
+     * @return registro seguido
+     */
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    /**
+     * @return métricas actuales (puede invocarse desde cualquier hilo)
+     */
+    public Metrics metrics() {
+        return new Metrics(linesRead,
+                malformedLines,
+                eventsApplied,
+                eventsRejected,
+                batchesApplied,
+                queue.size(),
+                bytesBehind,
+                lastLagMillis,
+                maxLagMillis,
+                eventsPerSecond,
+                sccRecomputations);
+    }
+
+    /**
+     * Detiene la lectura. Los lotes ya encolados se descartan y, al volver, el
+     * aplicador terminó: ningún lote más llega al grafo, así que quien cierra
+     * puede reemplazarlo sin mezclar eventos.
+     */
+    @Override
+    public void close() { // detiene ambos hilos
+        closed = true;
+        reader.interrupt();
+        applier.interrupt();
+        if (Thread.currentThread() != applier) {
+            try {
+                applier.join(); // espera el lote en curso (applyBatch no es interrumpible)
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt(); // conserva la interrupción de quien cierra
+            }
+        }
+    }
+
+    private void readLoop() { // sigue el archivo y entrega lotes
+        final BatchBuilder batch = new BatchBuilder(options.batchSize());
+        final LineBuffer line = new LineBuffer();
+        final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        final long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(options.maxBatchDelayMillis());
+        boolean firstOpen = true;
+        try {
+            while (!closed) {
+                final FileChannel channel = openWhenPresent();
+                if (channel == null) {
+                    return; // cerrado mientras se esperaba el archivo
+                }
+                try (channel) {
+                    final Object fileKey = fileKeyOf(logFile);
+                    long position = firstOpen && !options.fromStart() ? channel.size() : 0L;
+                    firstOpen = false;
+                    line.clear();
+                    while (!closed) {
+                        buffer.clear();
+                        final int read = channel.read(buffer, position);
+                        if (read > 0) {
+                            position += read;
+                            final byte[] bytes = buffer.array();
+                            for (int i = 0; i < read; i++) {
+                                if (bytes[i] == '\n') {
+                                    parseLine(line, batch);
+                                    line.clear();
+                                    if (batch.size() >= options.batchSize()) {
+                                        deliver(batch);
+                                    }
+                                } else {
+                                    line.append(bytes[i]);
+                                }
+                            }
+                            bytesBehind = Math.max(0L, channel.size() - position);
+                            if (!batch.isEmpty() && System.nanoTime() - batch.createdNanos() >= maxDelayNanos) {
+                                deliver(batch); // latencia acotada con tráfico continuo
+                            }
+                            continue;
+                        }
+                        deliver(batch); // final del archivo: entrega lo acumulado
+                        bytesBehind = 0L;
+                        if (channel.size() < position || !sameFile(fileKey)) {
+                            break; // truncado o rotado: se reabre desde el inicio
+                        }
+                        Thread.sleep(POLL_MILLIS);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            // cierre solicitado
+        } catch (IOException ex) {
+            if (!closed) {
+                closed = true; // el aplicador termina con lo ya encolado
+                listener.onIngestFailed("Error al leer " + logFile + ": " + ex.getMessage());
+            }
+        } finally {
+            queue.offer(END); // despierta al aplicador si la cola tiene espacio
+        }
+    }
+
+    private FileChannel openWhenPresent() throws IOException, InterruptedException { // espera a que exista el registro
+        while (!closed) {
+            try {
+                return FileChannel.open(logFile, StandardOpenOption.READ);
+            } catch (NoSuchFileException ex) {
+                Thread.sleep(POLL_MILLIS);
+            }
+        }
+        return null;
+    }
+
+    private static Object fileKeyOf(final Path path) { // identidad del archivo si el sistema la ofrece
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private boolean sameFile(final Object fileKey) { // detecta reemplazo del registro
+        if (fileKey == null) {
+            return true; // sin identidad disponible solo se detecta el truncado
+        }
+        final Object current = fileKeyOf(logFile);
+        return current == null || fileKey.equals(current);
+    }
+
+    private void parseLine(final LineBuffer line, final BatchBuilder batch) { // convierte una línea en operaciones
+        if (line.length() > MAX_LINE_BYTES) {
+            linesRead++;
+            malformedLines++;
+            return;
+        }
+        final String text = line.decode().trim();
+        if (text.isEmpty() || text.charAt(0) == '#') {
+            return;
+        }
+        linesRead++;
+        boolean remove = false;
+        String body = text;
+        if (text.charAt(0) == '+' || text.charAt(0) == '-') {
+            remove = text.charAt(0) == '-';
+            body = text.substring(1).trim();
+        }
+        final int comma = body.indexOf(',');
+        if (comma < 0) {
+            if (body.isEmpty() || body.indexOf(' ') >= 0 || body.charAt(0) != '@') {
+                malformedLines++;
+                return;
+            }
+            batch.add(remove ? GraphMutation.removeUser(body) : GraphMutation.addUser(body), false);
+            batch.countEvent();
+            return;
+        }
+        final String from = body.substring(0, comma).trim();
+        final String to = body.substring(comma + 1).trim();
+        if (from.isEmpty() || to.isEmpty() || to.indexOf(',') >= 0 || from.charAt(0) != '@' || to.charAt(0) != '@') {
+            malformedLines++;
+            return;
+        }
+        if (remove) {
+            batch.add(GraphMutation.removeRelation(from, to), false);
+        } else {
+            batch.add(GraphMutation.addUser(from), true); // altas implícitas, como en la sección relaciones
+            batch.add(GraphMutation.addUser(to), true);
+            batch.add(GraphMutation.addRelation(from, to), false);
+        }
+        batch.countEvent();
+    }
+
+    private void deliver(final BatchBuilder batch) throws InterruptedException { // entrega el lote (bloquea si la cola está llena)
+        if (!batch.isEmpty()) {
+            queue.put(batch.take());
+        }
+    }
+
+    private void applyLoop() { // aplica lotes y recalcula SCC con antirrebote
+        final long quietNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, options.sccQuietMillis()));
+        final long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, options.sccMaxDelayMillis()));
+        long firstPendingNanos = -1L; // primer lote desde el último recálculo (-1 = nada pendiente)
+        long sccDueNanos = -1L; // instante del próximo recálculo
+        long windowStartNanos = System.nanoTime(); // ventana de throughput
+        long windowEvents = 0L;
+        try {
+            while (!closed) {
+                final long now = System.nanoTime();
+                final long waitNanos = sccDueNanos < 0 ? TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS) : Math.max(0L, sccDueNanos - now);
+                final Batch batch = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+                if (batch == END) {
+                    break;
+                }
+                if (batch != null) {
+                    final GraphService.BatchResult result = graphService.applyBatch(batch.operations());
+                    recordBatch(batch, result);
+                    windowEvents += batch.events() - countExplicitFailures(batch, result);
+                    if (options.sccQuietMillis() >= 0) {
+                        final long applied = System.nanoTime();
+                        if (firstPendingNanos < 0) {
+                            firstPendingNanos = applied;
+                        }
+                        sccDueNanos = Math.min(applied + quietNanos, firstPendingNanos + maxDelayNanos);
+                    }
+                    listener.onBatchApplied(result, metrics());
+                }
+                final long after = System.nanoTime();
+                if (after - windowStartNanos >= TimeUnit.SECONDS.toNanos(1)) {
+                    eventsPerSecond = windowEvents * 1e9 / (after - windowStartNanos);
+                    windowStartNanos = after;
+                    windowEvents = 0L;
+                }
+                if (sccDueNanos >= 0 && after >= sccDueNanos) {
+                    firstPendingNanos = -1L;
+                    sccDueNanos = -1L;
+                    final GraphService.SccComputationResult scc = graphService.computeStronglyConnectedComponents();
+                    sccRecomputations++;
+                    listener.onSccRecomputed(scc);
+                }
+            }
+        } catch (InterruptedException ex) {
+            // cierre solicitado
+        } catch (RuntimeException ex) {
+            closed = true; // sin aplicador la cola se llenaría y el lector quedaría bloqueado en put
+            reader.interrupt();
+            listener.onIngestFailed("Error al aplicar eventos: " + ex.getMessage());
+        }
+    }
+
+    private void recordBatch(final Batch batch, final GraphService.BatchResult result) { // actualiza métricas del aplicador
+        final long rejected = countExplicitFailures(batch, result);
+        eventsApplied += batch.events() - rejected;
+        eventsRejected += rejected;
+        batchesApplied++;
+        final long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.createdNanos());
+        lastLagMillis = lag;
+        if (lag > maxLagMillis) {
+            maxLagMillis = lag;
+        }
+    }
+
+    private static long countExplicitFailures(final Batch batch, final GraphService.BatchResult result) { // ignora altas implícitas ya existentes
+        long failed = 0;
+        final int[] indices = result.failedIndices();
+        for (int i = 0; i < indices.length; i++) {
+            if (!batch.implicit()[indices[i]]) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private static final class BatchBuilder { // acumula operaciones del lote en curso
+
+        private GraphMutation[] operations;
+        private boolean[] implicit;
+        private int size;
+        private int events;
+        private long createdNanos;
+
+        BatchBuilder(final int batchSize) {
+            this.operations = new GraphMutation[Math.min(batchSize * 3, 1 << 16)];
+            this.implicit = new boolean[operations.length];
+        }
+
+        void add(final GraphMutation operation, final boolean isImplicit) {
+            if (size == 0) {
+                createdNanos = System.nanoTime();
+            }
+            if (size == operations.length) {
+                final GraphMutation[] next = new GraphMutation[size * 2];
+                final boolean[] nextImplicit = new boolean[size * 2];
+                System.arraycopy(operations, 0, next, 0, size);
+                System.arraycopy(implicit, 0, nextImplicit, 0, size);
+                operations = next;
+                implicit = nextImplicit;
+            }
+            operations[size] = operation;
+            implicit[size] = isImplicit;
+            size++;
+        }
+
+        void countEvent() {
+            events++;
+        }
+
+        int size() {
+            return events;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long createdNanos() {
+            return createdNanos;
+        }
+
+        Batch take() { // copia exacta y reinicia el acumulador
+            final GraphMutation[] outOperations = new GraphMutation[size];
+            final boolean[] outImplicit = new boolean[size];
+            System.arraycopy(operations, 0, outOperations, 0, size);
+            System.arraycopy(implicit, 0, outImplicit, 0, size);
+            final Batch batch = new Batch(outOperations, outImplicit, createdNanos, events);
+            for (int i = 0; i < size; i++) {
+                operations[i] = null; // no retiene operaciones ya entregadas
+            }
+            size = 0;
+            events = 0;
+            return batch;
+        }
+    }
+
+    private static final class LineBuffer { // bytes de la línea en curso (puede cruzar bloques)
+
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        void append(final byte b) {
+            if (length > MAX_LINE_BYTES) {
+                length++; // sigue contando para descartarla, sin crecer
+                return;
+            }
+            if (length == bytes.length) {
+                final byte[] next = new byte[length * 2];
+                System.arraycopy(bytes, 0, next, 0, length);
+                bytes = next;
+            }
+            bytes[length++] = b;
+        }
+
+        int length() {
+            return length;
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        String decode() {
+            final int end = length > 0 && bytes[length - 1] == '\r' ? length - 1 : length; // tolera CRLF
+            return new String(bytes, 0, end, StandardCharsets.UTF_8);
+        }
+    }
+}
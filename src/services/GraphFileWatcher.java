@@ -0,0 +1,164 @@
+package services; // vigilancia del archivo del grafo
+
+import java.io.IOException; // excepción E/S
+import java.nio.file.ClosedWatchServiceException; // cierre del vigilante
+import java.nio.file.FileSystems; // sistema de archivos por defecto
+import java.nio.file.Path; // ruta de archivo
+import java.nio.file.StandardWatchEventKinds; // tipos de evento
+import java.nio.file.WatchEvent; // evento de directorio
+import java.nio.file.WatchKey; // registro de un directorio
+import java.nio.file.WatchService; // servicio de notificaciones
+import java.util.concurrent.TimeUnit; // unidades de tiempo
+
+/**
+ * Vigila el archivo asociado al {@link GraphService} con un
+ * {@link WatchService} y, cuando otro proceso lo reescribe, pide al servicio
+ * que lo recargue de forma incremental. Los eventos se agrupan durante un
+ * intervalo de calma para no parsear archivos a medio escribir, y el
+ * directorio vigilado se actualiza solo cuando cambia el archivo actual
+ * (abrir, guardar como, nuevo).
+ */
+public class GraphFileWatcher implements AutoCloseable { // recarga en caliente del archivo actual
+
+    public static final long DEFAULT_QUIET_MILLIS = 300L; // calma exigida antes de recargar
+    private static final long POLL_MILLIS = 250L; // frecuencia de revisión del archivo actual
+
+    /**
+     * Recibe los resultados de las recargas (desde el hilo de fondo).
+     */
+    public interface ReloadListener {
+
+        void onExternalReload(GraphService.ExternalReload reload);
+
+        default void onReloadFailed(final String message) {
+            // por defecto se ignora: el archivo puede estar a medio escribir
+        }
+    }
+
+    private final GraphService graphService; // servicio a recargar
+    private final long quietMillis; // intervalo de calma
+    private final ReloadListener listener; // destino de los resultados
+    private final WatchService watchService; // notificaciones del sistema de archivos
+    private final Thread thread; // hilo de vigilancia
+    private volatile boolean closed;
+
+    /**
+     * @param graphService servicio del grafo
+     * @param listener receptor de las recargas
+     * @throws IOException si el sistema de archivos no admite vigilancia
+     */
+    public GraphFileWatcher(final GraphService graphService, final ReloadListener listener) throws IOException {
+        this(graphService, DEFAULT_QUIET_MILLIS, listener);
+    }
+
+    /**
+     * @param graphService servicio del grafo
+     * @param quietMillis milisegundos sin eventos antes de recargar
+     * @param listener receptor de las recargas
+     * @throws IOException si el sistema de archivos no admite vigilancia
+     */
+    public GraphFileWatcher(final GraphService graphService, final long quietMillis, final ReloadListener listener) throws IOException {
+        if (graphService == null) {
+            throw new IllegalArgumentException("graphService");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("listener");
+        }
+        if (quietMillis < 0) {
+            throw new IllegalArgumentException("quietMillis");
+        }
+        this.graphService = graphService;
+        this.quietMillis = quietMillis;
+        this.listener = listener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = new Thread(this::run, "file-watcher");
+        this.thread.setDaemon(true); // no impide cerrar la aplicación
+    }
+
+    /**
+     * Inicia la vigilancia.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    @Override
+    public void close() throws IOException { // detiene el hilo y libera el servicio
+        closed = true;
+        watchService.close();
+    }
+
+    private void run() { // bucle de vigilancia
+        Path watchedDirectory = null; // directorio registrado
+        WatchKey watchKey = null; // registro actual
+        long reloadAt = -1L; // instante de la próxima recarga (-1 = ninguna)
+        try {
+            while (!closed) {
+                final Path file = graphService.getCurrentFile();
+                final Path directory = file == null ? null : file.toAbsolutePath().getParent();
+                if (directory == null ? watchedDirectory != null : !directory.equals(watchedDirectory)) {
+                    if (watchKey != null) {
+                        watchKey.cancel();
+                    }
+                    watchKey = register(directory);
+                    watchedDirectory = directory;
+                }
+                final WatchKey signalled = watchService.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (signalled != null) {
+                    if (signalled == watchKey && isAboutFile(signalled, file)) {
+                        reloadAt = System.currentTimeMillis() + quietMillis; // reinicia la calma con cada evento
+                    } else {
+                        signalled.pollEvents(); // descarta eventos de otros archivos o registros antiguos
+                    }
+                    signalled.reset();
+                }
+                if (reloadAt >= 0 && System.currentTimeMillis() >= reloadAt) {
+                    reloadAt = -1L;
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ex) {
+            // cierre solicitado
+        }
+    }
+
+    private WatchKey register(final Path directory) { // registra el directorio del archivo actual
+        if (directory == null) {
+            return null;
+        }
+        try {
+            return directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, // renombrado atómico sobre el archivo
+                    StandardWatchEventKinds.ENTRY_MODIFY); // reescritura en sitio
+        } catch (IOException ex) {
+            listener.onReloadFailed("No se puede vigilar " + directory + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isAboutFile(final WatchKey key, final Path file) { // algún evento toca el archivo actual
+        if (file == null) {
+            key.pollEvents();
+            return false;
+        }
+        final Path name = file.getFileName();
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                relevant = true; // con desbordamiento no se sabe qué cambió: se revisa la huella
+            }
+        }
+        return relevant;
+    }
+
+    private void reload() { // delega en el servicio y notifica
+        try {
+            final GraphService.ExternalReload result = graphService.reloadIfChangedOnDisk();
+            if (result != null) {
+                listener.onExternalReload(result);
+            }
+        } catch (IOException | RuntimeException ex) {
+            listener.onReloadFailed("No se pudo recargar el archivo: " + ex.getMessage());
+        }
+    }
+}
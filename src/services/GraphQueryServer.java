@@ -0,0 +1,412 @@
+package services; // servidor HTTP de consultas
+
+import com.sun.net.httpserver.HttpExchange; // petición/respuesta HTTP
+import com.sun.net.httpserver.HttpServer; // servidor HTTP del JDK
+import domain.CsrGraph; // grafo inmutable indexado
+import domain.KosarajuSCC; // asignación de componentes
+
+import java.io.IOException; // excepción E/S
+import java.io.OutputStream; // cuerpo de la respuesta
+import java.net.InetSocketAddress; // dirección de escucha
+import java.nio.charset.StandardCharsets; // codificación UTF-8
+import java.util.concurrent.ExecutorService; // ejecutor de peticiones
+import java.util.concurrent.Executors; // hilos virtuales
+import java.util.concurrent.atomic.AtomicBoolean; // una sola reconstrucción a la vez
+
+/**
+ * Servidor HTTP local de solo lectura sobre el {@link GraphService}, con un
+ * hilo virtual por petición. Las respuestas son JSON:
+ *
+ * <pre>
+ * GET /counts                    usuarios, relaciones, componentes y versión
+ * GET /users/{handle}            grados y componente del usuario
+ * GET /users/{handle}/following  a quién sigue
+ * GET /users/{handle}/followers  quién lo sigue
+ * GET /users/{handle}/scc        componente y sus miembros
+ * GET /components?limit=N        tamaños de componente, de mayor a menor
+ * </pre>
+ *
+ * <p>
+ * Las consultas no toman el monitor del servicio: leen una instantánea
+ * inmutable (CSR directo e inverso más la asignación de SCC) publicada en un
+ * campo volátil. Cuando la versión del grafo cambia, la primera petición que
+ * lo nota reconstruye la instantánea mientras las demás siguen respondiendo
+ * con la anterior.</p>
+ */
+public class GraphQueryServer implements AutoCloseable { // consultas JSON concurrentes
+
+    public static final int DEFAULT_PORT = 8642; // puerto por defecto
+    private static final int BACKLOG = 1024; // conexiones pendientes aceptadas
+    private static final int DEFAULT_COMPONENT_LIMIT = 100; // componentes listadas por defecto
+    private static final String USERS_PREFIX = "/users/"; // prefijo de consultas por usuario
+    private static final String JSON_TYPE = "application/json; charset=utf-8"; // tipo de contenido
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay"; // TCP_NODELAY del servidor del JDK
+
+    private final GraphService graphService; // fuente de datos
+    private final HttpServer server; // servidor del JDK
+    private final ExecutorService executor; // hilo virtual por petición
+    private final AtomicBoolean rebuilding = new AtomicBoolean(); // evita reconstrucciones simultáneas
+    private volatile Snapshot snapshot; // instantánea vigente (nunca null tras construir)
+
+    /**
+     * @param graphService servicio del grafo
+     * @param address dirección de escucha (por ejemplo 127.0.0.1:8642)
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public GraphQueryServer(final GraphService graphService, final InetSocketAddress address) throws IOException {
+        if (graphService == null) {
+            throw new IllegalArgumentException("graphService");
+        }
+        if (address == null) {
+            throw new IllegalArgumentException("address");
+        }
+        this.graphService = graphService;
+        this.snapshot = Snapshot.of(graphService.captureIndexedSnapshot());
+        if (System.getProperty(NODELAY_PROPERTY) == null) { // sin esto, Nagle + ACK diferido suman ~40 ms por petición en conexiones persistentes
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server.setExecutor(executor);
+        this.server.createContext("/counts", exchange -> handle(exchange, this::counts));
+        this.server.createContext(USERS_PREFIX, exchange -> handle(exchange, this::user));
+        this.server.createContext("/components", exchange -> handle(exchange, this::components));
+    }
+
+    /**
+     * Empieza a atender peticiones.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return puerto en el que escucha (útil si se pidió el puerto 0)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() { // deja de aceptar y libera hilos
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface Query { // consulta sobre una instantánea
+
+        Response answer(Snapshot snapshot, HttpExchange exchange);
+    }
+
+    private record Response(int status, String body) { // respuesta JSON
+
+        static Response ok(final String body) {
+            return new Response(200, body);
+        }
+
+        static Response error(final int status, final String message) {
+            return new Response(status, new Json().beginObject().field("error", message).endObject().toString());
+        }
+    }
+
+    private void handle(final HttpExchange exchange, final Query query) throws IOException { // común a todos los endpoints
+        try (exchange) {
+            final Response response = "GET".equals(exchange.getRequestMethod())
+                    ? query.answer(current(), exchange)
+                    : Response.error(405, "Solo se admite GET");
+            final byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private Snapshot current() { // instantánea vigente, reconstruida si el grafo cambió
+        final Snapshot known = snapshot;
+        if (known.version == graphService.getGraphVersion() || !rebuilding.compareAndSet(false, true)) {
+            return known; // al día, u otra petición ya la está reconstruyendo
+        }
+        try {
+            final Snapshot rebuilt = Snapshot.of(graphService.captureIndexedSnapshot());
+            snapshot = rebuilt;
+            return rebuilt;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private Response counts(final Snapshot s, final HttpExchange exchange) { // totales del grafo
+        return Response.ok(new Json().beginObject()
+                .field("version", s.version)
+                .field("users", s.graph.userCount())
+                .field("relations", s.graph.edgeCount())
+                .field("components", s.componentSizes.length)
+                .endObject().toString());
+    }
+
+    private Response user(final Snapshot s, final HttpExchange exchange) { // /users/{handle}[/following|/followers|/scc]
+        final String rest = exchange.getRequestURI().getPath().substring(USERS_PREFIX.length());
+        final int slash = rest.lastIndexOf('/');
+        final String view = slash < 0 ? "" : rest.substring(slash + 1);
+        final String handle = slash < 0 ? rest : rest.substring(0, slash);
+        final int u = s.graph.indexOf(handle);
+        if (u < 0) {
+            return Response.error(404, "No existe el usuario: " + handle);
+        }
+        final int component = s.componentOf[u];
+        final Json json = new Json().beginObject().field("handle", handle);
+        switch (view) {
+            case "" ->
+                json.field("following", s.graph.outDegree(u))
+                        .field("followers", s.inOffsets[u + 1] - s.inOffsets[u])
+                        .field("component", component)
+                        .field("componentSize", s.componentSizes[component]);
+            case "following" -> {
+                json.beginArray("following");
+                for (int p = 0, deg = s.graph.outDegree(u); p < deg; p++) {
+                    json.value(s.graph.userAt(s.graph.neighborAt(u, p)));
+                }
+                json.endArray();
+            }
+            case "followers" -> {
+                json.beginArray("followers");
+                for (int p = s.inOffsets[u]; p < s.inOffsets[u + 1]; p++) {
+                    json.value(s.graph.userAt(s.inSources[p]));
+                }
+                json.endArray();
+            }
+            case "scc" -> {
+                json.field("component", component).field("size", s.componentSizes[component]).beginArray("members");
+                for (int p = s.memberOffsets[component]; p < s.memberOffsets[component + 1]; p++) {
+                    json.value(s.graph.userAt(s.members[p]));
+                }
+                json.endArray();
+            }
+            default -> {
+                return Response.error(404, "Consulta desconocida: " + view);
+            }
+        }
+        return Response.ok(json.endObject().toString());
+    }
+
+    private Response components(final Snapshot s, final HttpExchange exchange) { // tamaños de mayor a menor
+        int limit = DEFAULT_COMPONENT_LIMIT;
+        final String query = exchange.getRequestURI().getQuery();
+        if (query != null && query.startsWith("limit=")) {
+            try {
+                limit = Integer.parseInt(query.substring("limit=".length()));
+            } catch (NumberFormatException ex) {
+                return Response.error(400, "limit debe ser un número");
+            }
+            if (limit < 0) {
+                return Response.error(400, "limit no puede ser negativo");
+            }
+        }
+        final int shown = Math.min(limit, s.bySize.length);
+        final Json json = new Json().beginObject().field("components", s.componentSizes.length).beginArray("sizes");
+        for (int i = 0; i < shown; i++) {
+            final int c = s.bySize[i];
+            json.beginObject().field("id", c).field("size", s.componentSizes[c]).endObject();
+        }
+        return Response.ok(json.endArray().endObject().toString());
+    }
+
+    /**
+     * Datos inmutables que atienden las consultas; se comparten sin bloqueo
+     * entre todos los hilos.
+     */
+    private static final class Snapshot {
+
+        final long version; // versión del grafo representada
+        final CsrGraph graph; // relaciones salientes
+        final int[] inOffsets; // relaciones entrantes en CSR
+        final int[] inSources;
+        final int[] componentOf; // componente de cada usuario
+        final int[] componentSizes; // usuarios por componente
+        final int[] memberOffsets; // miembros de cada componente en CSR
+        final int[] members;
+        final int[] bySize; // ids de componente ordenados por tamaño descendente
+
+        private Snapshot(final long version,
+                final CsrGraph graph,
+                final int[] inOffsets,
+                final int[] inSources,
+                final int[] componentOf,
+                final int[] componentSizes,
+                final int[] memberOffsets,
+                final int[] members,
+                final int[] bySize) {
+            this.version = version;
+            this.graph = graph;
+            this.inOffsets = inOffsets;
+            this.inSources = inSources;
+            this.componentOf = componentOf;
+            this.componentSizes = componentSizes;
+            this.memberOffsets = memberOffsets;
+            this.members = members;
+            this.bySize = bySize;
+        }
+
+        static Snapshot of(final GraphService.IndexedSnapshot captured) { // O(V + E), fuera del monitor del servicio
+            final CsrGraph graph = captured.graph();
+            final int n = graph.userCount();
+            final int[] inOffsets = new int[n + 1];
+            for (int u = 0; u < n; u++) {
+                for (int p = 0, deg = graph.outDegree(u); p < deg; p++) {
+                    inOffsets[graph.neighborAt(u, p) + 1]++;
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                inOffsets[v + 1] += inOffsets[v];
+            }
+            final int[] inSources = new int[inOffsets[n]];
+            final int[] fill = new int[n];
+            for (int u = 0; u < n; u++) {
+                for (int p = 0, deg = graph.outDegree(u); p < deg; p++) {
+                    final int v = graph.neighborAt(u, p);
+                    inSources[inOffsets[v] + fill[v]++] = u;
+                }
+            }
+
+            final KosarajuSCC.Assignment assignment = new KosarajuSCC().assign(graph);
+            final int count = assignment.componentCount();
+            final int[] componentOf = assignment.componentOf();
+            final int[] sizes = new int[count];
+            for (int u = 0; u < n; u++) {
+                sizes[componentOf[u]]++;
+            }
+            final int[] memberOffsets = new int[count + 1];
+            for (int c = 0; c < count; c++) {
+                memberOffsets[c + 1] = memberOffsets[c] + sizes[c];
+            }
+            final int[] members = new int[n];
+            final int[] next = new int[count];
+            for (int u = 0; u < n; u++) {
+                final int c = componentOf[u];
+                members[memberOffsets[c] + next[c]++] = u;
+            }
+            return new Snapshot(captured.version(), graph, inOffsets, inSources, componentOf, sizes,
+                    memberOffsets, members, sortBySize(sizes, n));
+        }
+
+        private static int[] sortBySize(final int[] sizes, final int maxSize) { // ordenación por conteo, O(C + V)
+            final int[] startOfSize = new int[maxSize + 2];
+            for (int c = 0; c < sizes.length; c++) {
+                startOfSize[maxSize - sizes[c] + 1]++; // tamaños grandes primero
+            }
+            for (int k = 0; k <= maxSize; k++) {
+                startOfSize[k + 1] += startOfSize[k];
+            }
+            final int[] order = new int[sizes.length];
+            for (int c = 0; c < sizes.length; c++) {
+                order[startOfSize[maxSize - sizes[c]]++] = c;
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Escritor JSON mínimo (objetos, arreglos, cadenas y enteros) sobre un
+     * {@link StringBuilder}.
+     */
+    private static final class Json {
+
+        private final StringBuilder out = new StringBuilder(128);
+        private boolean first = true; // no hace falta coma antes del próximo elemento
+
+        Json beginObject() {
+            separator();
+            out.append('{');
+            first = true;
+            return this;
+        }
+
+        Json endObject() {
+            out.append('}');
+            first = false;
+            return this;
+        }
+
+        Json beginArray(final String name) {
+            key(name);
+            out.append('[');
+            first = true;
+            return this;
+        }
+
+        Json endArray() {
+            out.append(']');
+            first = false;
+            return this;
+        }
+
+        Json field(final String name, final String value) {
+            key(name);
+            string(value);
+            return this;
+        }
+
+        Json field(final String name, final long value) {
+            key(name);
+            out.append(value);
+            first = false;
+            return this;
+        }
+
+        Json value(final String value) {
+            separator();
+            string(value);
+            return this;
+        }
+
+        private void key(final String name) {
+            separator();
+            string(name);
+            out.append(':');
+            first = true; // el valor no lleva coma
+        }
+
+        private void separator() {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+        }
+
+        private void string(final String value) { // cadena con escapes JSON
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                switch (c) {
+                    case '"' ->
+                        out.append("\\\"");
+                    case '\\' ->
+                        out.append("\\\\");
+                    case '\n' ->
+                        out.append("\\n");
+                    case '\r' ->
+                        out.append("\\r");
+                    case '\t' ->
+                        out.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                    }
+                }
+            }
+            out.append('"');
+            first = false;
+        }
+
+        @Override
+        public String toString() {
+            return out.toString();
+        }
+    }
+}
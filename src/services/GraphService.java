@@ -1,16 +1,33 @@
 package services; // capa de servicio que expone operaciones sobre el grafo
 
+import domain.CondensedView; // vista por componentes
+import domain.CsrGraph; // instantánea CSR del grafo
 import domain.DirectedGraph; // modelo de grafo
+import domain.EgoNetwork; // vecindario de un usuario
+import domain.GraphDelta; // diferencia entre grafos
+import domain.GraphDiff; // informe de diferencias
+import domain.GraphMutation; // operación registrable sobre el grafo
 import domain.GraphUtils; // utilidades del dominio
+import domain.HandlePrefixIndex; // búsqueda por prefijo de handle
+import domain.IndexedGraph; // vista indexada de solo lectura
 import domain.KosarajuSCC; // algoritmo de SCC
 import domain.User; // representación de usuario
+import io.DotExporter; // exportación Graphviz DOT
+import io.EdgeListImporter; // importación de listas de aristas
 import io.GraphFileParser; // parser de archivos
 import io.GraphFileWriter; // escritor de archivos
+import io.GraphJournal; // diario de cambios de solo anexado
+import io.GraphMlExporter; // exportación GraphML
+import io.MappedGraphStore; // formato binario mapeado en memoria
+import io.MappedGraphView; // vista sobre archivo mapeado
+import io.SccSidecar; // caché en disco de SCC
+import io.StreamingGraphExporter; // base de los exportadores
 
 import java.io.IOException; // excepciones E/S
 import java.io.InputStreamReader; // lector de recursos
 import java.io.Reader; // interfaz Reader
 import java.nio.charset.StandardCharsets; // codificación UTF-8
+import java.nio.file.Files; // utilidades de archivos
 import java.nio.file.Path; // ruta de archivo
 // Usamos arreglos y tipos nulos en lugar de java.util
 
@@ -21,15 +38,35 @@ import java.nio.file.Path; // ruta de archivo
  */
 public class GraphService { // servicio principal que coordina lectura, modificaciones y cómputos
 
+    private static final long MIN_COMPACTION_BYTES = 1L << 20; // tamaño mínimo del diario antes de compactar
+    private static final double LARGE_DELTA_FACTOR = 0.25; // fracción del grafo a partir de la cual se reemplaza en vez de aplicar el delta
+
     private final GraphFileParser parser; // parser inyectado
     private final GraphFileWriter writer; // escritor inyectado
     private final KosarajuSCC kosaraju; // algoritmo para SCCs
+    private final MappedGraphStore mappedStore; // lectura/escritura del formato mapeado
+    private final GraphJournal journal; // diario de cambios junto al archivo
+    private final EdgeListImporter edgeListImporter; // importador de listas de aristas
+    private final SccSidecar sccSidecar; // caché de SCC junto al archivo
 
     private DirectedGraph graph; // estado actual del grafo en memoria
     private Path currentFile; // archivo asociado (si se guardó o cargó)
     private boolean dirty; // bandera de cambios sin guardar
     private SccMapping lastSccMapping; // mapeo de último cálculo SCC: handle->componenteId
     private String[][] lastComponents; // lista de componentes del último cálculo (arreglos de handles)
+    private KosarajuSCC.Condensation lastCondensation; // DAG de componentes del último cálculo (null si no hay)
+    private KosarajuSCC.Assignment lastAssignment; // componente de cada usuario en el orden del grafo (null si no hay)
+    private CsrGraph csrCache; // CSR del grafo actual (null = por construir)
+    private CsrGraph reverseCsrCache; // traspuesto de csrCache (null = por construir)
+    private HandlePrefixIndex prefixIndexCache; // índice de prefijos sobre csrCache (puede ser de un CSR anterior)
+    private byte[] fileContentHash; // SHA-256 de currentFile mientras el grafo coincide exactamente con él
+    private GraphMutation[] pendingMutations = new GraphMutation[8]; // cambios aún no guardados
+    private int pendingCount; // número de cambios pendientes
+    private boolean journalingEnabled = true; // guardar anexando al diario en lugar de reescribir
+    private boolean snapshotRequired = true; // el grafo no deriva de currentFile + diario
+    private FileStamp currentFileStamp; // tamaño y fecha de currentFile al cargarlo o guardarlo
+    private FileStamp conflictStamp; // versión externa ya reportada como conflicto (no se vuelve a parsear)
+    private volatile long graphVersion; // aumenta con cada cambio del grafo; se lee sin tomar el monitor
 
     /**
      * Construye el servicio con el parser y writer inyectados.
@@ -47,6 +84,10 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         this.parser = parser;
         this.writer = writer;
         this.kosaraju = new KosarajuSCC(); // crea instancia del algoritmo Kosaraju
+        this.mappedStore = new MappedGraphStore(); // formato binario mapeado
+        this.journal = new GraphJournal(); // diario de cambios
+        this.edgeListImporter = new EdgeListImporter(); // importador masivo
+        this.sccSidecar = new SccSidecar(); // caché de SCC
         this.graph = new DirectedGraph(); // grafo vacío por defecto
         this.lastSccMapping = SccMapping.empty(); // mapeo vacío inicial
         this.lastComponents = new String[0][]; // componentes vacíos
@@ -67,27 +108,140 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         try (Reader reader = openResource(resourcePath)) { // abre lector del recurso
             final GraphFileParser.Result result = parser.parse(reader); // parsea el recurso
             applyParsedGraph(result, null); // aplica grafo parseado
+            this.snapshotRequired = true; // no hay archivo propio todavía
             this.dirty = false; // no hay cambios recién cargados
-            return buildLoadResult(result, null); // construye resultado para la UI
+            return buildLoadResult(result, null, null); // construye resultado para la UI
         }
     }
 
     /**
-     * Carga un grafo desde un archivo del sistema de ficheros.
+     * Carga un grafo desde un archivo del sistema de ficheros. Si existe un
+     * diario de cambios correspondiente a esa instantánea, se reproduce sobre
+     * el grafo cargado.
      *
      * @param path ruta al archivo
      * @return resultado de la carga con advertencias
      * @throws IOException si falla la lectura
      */
     public synchronized GraphLoadResult loadFromFile(final Path path) throws IOException { // carga desde archivo del sistema
+        final FileStamp stamp = FileStamp.of(path); // antes de parsear: un cambio posterior se detecta después
         final GraphFileParser.Result result = parser.parse(path); // parsea archivo
         applyParsedGraph(result, path); // aplica grafo
+        final GraphJournal.ReplayResult replay = journal.replay(path, graph); // reproduce cambios anexados
+        this.snapshotRequired = false; // grafo = instantánea + diario
+        this.currentFileStamp = stamp;
         this.dirty = false; // marca limpio
-        return buildLoadResult(result, path); // retorna info de carga
+        if (replay.applied() == 0) { // el grafo coincide con el archivo: la caché de SCC es aplicable
+            this.fileContentHash = result.contentHash();
+            restoreSccFromSidecar();
+        }
+        return buildLoadResult(result, path, replay.warning()); // retorna info de carga
     }
 
     /**
-     * Guarda el grafo en el archivo actualmente asociado.
+     * Recarga el archivo actual si otro proceso lo modificó desde que se cargó
+     * o guardó. El parseo ocurre fuera del monitor; después se calcula la
+     * diferencia con el grafo en memoria y se aplica solo el delta. Si había
+     * SCC calculadas se recalculan. Con cambios sin guardar el grafo no se
+     * toca y el resultado se marca como conflicto; esa misma versión del
+     * archivo no se vuelve a parsear ni a reportar mientras sigan los cambios
+     * sin guardar.
+     *
+     * @return resultado de la recarga o {@code null} si el archivo no cambió
+     * @throws IOException si falla la lectura
+     */
+    public ExternalReload reloadIfChangedOnDisk() throws IOException { // recarga incremental tras cambios externos
+        final Path file;
+        final FileStamp known;
+        final FileStamp reported;
+        synchronized (this) {
+            file = currentFile;
+            known = currentFileStamp;
+            reported = dirty ? conflictStamp : null;
+        }
+        if (file == null) {
+            return null;
+        }
+        final FileStamp before = FileStamp.of(file);
+        if (before == null || before.equals(known)) {
+            return null; // sin cambios (o es nuestro propio guardado)
+        }
+        if (before.equals(reported)) {
+            return null; // conflicto ya reportado para esta versión
+        }
+        final GraphFileParser.Result parsed = parser.parse(file); // no bloquea la edición mientras se parsea
+        if (!before.equals(FileStamp.of(file))) {
+            return null; // el escritor externo sigue trabajando: llegará otro aviso
+        }
+        synchronized (this) {
+            if (!file.equals(currentFile) || (known == null ? currentFileStamp != null : !known.equals(currentFileStamp))) {
+                return null; // se cargó o guardó otro archivo mientras tanto
+            }
+            if (dirty) {
+                this.conflictStamp = before; // avisos posteriores de la misma versión se ignoran
+                return new ExternalReload(file, new GraphDelta(new GraphMutation[0], 0, 0, 0, 0), parsed.warnings(), true);
+            }
+            final DirectedGraph target = parsed.graph();
+            final GraphDelta delta = GraphDelta.between(graph, target);
+            final boolean hadScc = lastComponents.length > 0;
+            final boolean adopted = delta.size() > LARGE_DELTA_FACTOR * (target.getUsers().length + target.getEdgeCount());
+            if (adopted) {
+                this.graph = target; // delta comparable al grafo: adoptarlo es más barato que aplicarlo
+            } else {
+                delta.applyTo(graph); // mismo contenido, pero los usuarios nuevos quedan al final
+            }
+            journal.delete(file); // el diario describía la instantánea anterior
+            clearPendingMutations();
+            this.snapshotRequired = false;
+            this.currentFileStamp = before;
+            this.conflictStamp = null;
+            this.fileContentHash = adopted ? parsed.contentHash() : null; // solo el grafo adoptado sigue el orden del archivo
+            if (!delta.isEmpty()) {
+                resetSccState();
+                if (!restoreSccFromSidecar() && hadScc) {
+                    computeStronglyConnectedComponents(); // mantiene las SCC visibles al día
+                }
+            }
+            return new ExternalReload(file, delta, parsed.warnings(), false);
+        }
+    }
+
+    /**
+     * Importa una lista de aristas (TSV, CSV o estilo SNAP) y la usa como
+     * grafo actual. El grafo importado no queda asociado a ningún archivo y se
+     * marca con cambios pendientes hasta que se guarde.
+     *
+     * @param path archivo con la lista de aristas
+     * @param options formato de la lista
+     * @return resultado de la carga con advertencias
+     * @throws IOException si falla la lectura
+     */
+    public synchronized GraphLoadResult importEdgeList(final Path path, final EdgeListImporter.Options options) throws IOException { // importación masiva
+        if (path == null) {
+            throw new IllegalArgumentException("path");
+        }
+        final EdgeListImporter.Result result = edgeListImporter.importFile(path, options); // construye el grafo fuera del formato nativo
+        this.graph = result.graph(); // el importador entrega un grafo nuevo: no hace falta copiarlo
+        this.currentFile = null; // no es un archivo en formato nativo
+        this.currentFileStamp = null;
+        this.conflictStamp = null;
+        this.fileContentHash = null;
+        clearPendingMutations();
+        this.snapshotRequired = true;
+        resetSccState();
+        this.dirty = true; // pendiente de guardar en el formato propio
+        return new GraphLoadResult(GraphUtils.copyOf(graph),
+                result.warnings(),
+                path,
+                result.users(),
+                result.relations());
+    }
+
+    /**
+     * Guarda el grafo en el archivo actualmente asociado. Con el diario
+     * activado solo se anexan los cambios desde el último guardado (coste
+     * O(cambios)); cuando el diario supera el tamaño de la instantánea se
+     * compacta automáticamente.
      *
      * @throws IOException si ocurre un error al escribir
      */
@@ -95,7 +249,44 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         if (currentFile == null) { // si no hay archivo asociado
             throw new IOException("No hay un archivo asociado. Use 'Guardar como…'."); // error
         }
-        saveAs(currentFile); // delega a saveAs
+        if (!journalingEnabled || snapshotRequired || !Files.exists(currentFile)) { // requiere instantánea completa
+            saveAs(currentFile); // delega a saveAs
+            return;
+        }
+        if (pendingCount > 0) {
+            final long journalBytes = journal.append(currentFile, pendingMutations, pendingCount); // anexa solo los cambios
+            clearPendingMutations();
+            if (journalBytes > Math.max(MIN_COMPACTION_BYTES, Files.size(currentFile))) { // el diario ya cuesta más que reescribir
+                compactJournal();
+                return;
+            }
+        }
+        this.dirty = false; // limpia bandera
+    }
+
+    /**
+     * Compacta el diario: escribe una instantánea completa del grafo en el
+     * archivo actual y elimina el diario. Si el proceso se interrumpe tras
+     * escribir la instantánea, el diario antiguo se descarta al cargar porque
+     * ya no coincide con ella.
+     *
+     * @throws IOException si no hay archivo asociado o falla la escritura
+     */
+    public synchronized void compactJournal() throws IOException { // pliega el diario en una nueva instantánea
+        if (currentFile == null) {
+            throw new IOException("No hay un archivo asociado. Use 'Guardar como…'.");
+        }
+        saveAs(currentFile);
+    }
+
+    /**
+     * Activa o desactiva el guardado incremental mediante diario. Con el diario
+     * desactivado cada guardado reescribe el archivo completo.
+     *
+     * @param enabled {@code true} para anexar cambios al diario
+     */
+    public synchronized void setJournalingEnabled(final boolean enabled) { // permite volver al guardado completo
+        this.journalingEnabled = enabled;
     }
 
     /**
@@ -110,7 +301,13 @@ public class GraphService { // servicio principal que coordina lectura, modifica
 
         }
         writer.write(path, graph); // escribe grafo
+        journal.delete(path); // la nueva instantánea ya incluye todos los cambios
         this.currentFile = path; // actualiza archivo asociado
+        this.currentFileStamp = FileStamp.of(path); // el vigilante ignora nuestro propio guardado
+        this.conflictStamp = null; // el guardado reemplazó la versión en conflicto
+        this.fileContentHash = null; // se conocerá al volver a cargar el archivo
+        clearPendingMutations();
+        this.snapshotRequired = false;
         this.dirty = false; // limpia bandera
     }
 
@@ -120,7 +317,12 @@ public class GraphService { // servicio principal que coordina lectura, modifica
     public synchronized void createNewGraph() { // crea grafo vacío
         this.graph = new DirectedGraph(); // nueva instancia
         this.currentFile = null; // sin archivo asociado
+        this.currentFileStamp = null;
+        this.conflictStamp = null;
+        this.fileContentHash = null;
         this.dirty = false; // limpio
+        clearPendingMutations();
+        this.snapshotRequired = true;
         resetSccState(); // borra estado de SCC
     }
 
@@ -135,6 +337,7 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         if (!graph.addUser(handle)) { // intenta agregar y si ya existe
             throw new IllegalArgumentException("El usuario ya existe: " + handle); // lanza excepción
         }
+        recordMutation(GraphMutation.addUser(handle)); // registra para el diario
         markDirty(); // marca cambios pendientes
     }
 
@@ -149,6 +352,7 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         if (!graph.removeUser(handle)) { // intenta eliminar
             throw new IllegalArgumentException("No existe el usuario: " + handle); // lanza si no existe
         }
+        recordMutation(GraphMutation.removeUser(handle)); // registra para el diario
         markDirty(); // marca cambio
     }
 
@@ -170,6 +374,7 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         if (!graph.addRelation(origin, destination)) { // intenta agregar relación
             throw new IllegalArgumentException("La relación ya existe: " + origin + " → " + destination); // error si ya existía
         }
+        recordMutation(GraphMutation.addRelation(origin, destination)); // registra para el diario
         markDirty(); // marca cambios
     }
 
@@ -186,20 +391,319 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         if (!graph.removeRelation(origin, destination)) { // intenta remover
             throw new IllegalArgumentException("No existe la relación: " + origin + " → " + destination); // error si no existía
         }
+        recordMutation(GraphMutation.removeRelation(origin, destination)); // registra para el diario
         markDirty(); // marca cambios
     }
 
+    /**
+     * Aplica un lote de operaciones con una sola adquisición del monitor, una
+     * única invalidación de SCC y una sola marca de cambios. Los handles se
+     * validan antes de tomar el monitor. Cada operación se aplica con las
+     * mismas reglas que los métodos individuales; las que no pueden
+     * aplicarse se reportan en el resultado sin detener el lote.
+     *
+     * @param operations operaciones en orden de aplicación
+     * @return operaciones aplicadas y fallos por índice
+     */
+    public BatchResult applyBatch(final GraphMutation[] operations) { // aplica muchas operaciones bajo un solo bloqueo
+        if (operations == null) {
+            throw new IllegalArgumentException("operations");
+        }
+        final BatchFailures failures = new BatchFailures();
+        final boolean[] valid = new boolean[operations.length];
+        for (int i = 0; i < operations.length; i++) { // validación sin bloqueo
+            final GraphMutation op = operations[i];
+            if (op == null || !isValidHandle(op.from()) || (op.isRelation() && !isValidHandle(op.to()))) {
+                failures.add(i, BatchFailure.INVALID_HANDLE);
+            } else if (op.isRelation() && op.from().equalsIgnoreCase(op.to())) {
+                failures.add(i, BatchFailure.SELF_RELATION);
+            } else {
+                valid[i] = true;
+            }
+        }
+        failures.endValidation(); // los fallos de aplicación forman una segunda secuencia ordenada
+        int applied = 0;
+        synchronized (this) {
+            for (int i = 0; i < operations.length; i++) {
+                if (!valid[i]) {
+                    continue;
+                }
+                final BatchFailure failure = applyOne(operations[i]);
+                if (failure == null) {
+                    recordMutation(operations[i]); // registra para el diario
+                    applied++;
+                } else {
+                    failures.add(i, failure);
+                }
+            }
+            if (applied > 0) {
+                markDirty(); // una sola invalidación para todo el lote
+            }
+        }
+        return failures.toResult(applied);
+    }
+
+    private BatchFailure applyOne(final GraphMutation op) { // null si se aplicó
+        switch (op.kind()) {
+            case ADD_USER:
+                return graph.addUser(op.from()) ? null : BatchFailure.USER_EXISTS;
+            case REMOVE_USER:
+                return graph.removeUser(op.from()) ? null : BatchFailure.USER_MISSING;
+            case ADD_RELATION:
+                if (!graph.containsUser(op.from()) || !graph.containsUser(op.to())) {
+                    return BatchFailure.USER_MISSING;
+                }
+                return graph.addRelation(op.from(), op.to()) ? null : BatchFailure.RELATION_EXISTS;
+            case REMOVE_RELATION:
+                return graph.removeRelation(op.from(), op.to()) ? null : BatchFailure.RELATION_MISSING;
+            default:
+                throw new IllegalStateException("Operación desconocida: " + op.kind());
+        }
+    }
+
+    private static boolean isValidHandle(final String handle) { // mismas reglas que GraphUtils.validateHandle, sin excepciones
+        return GraphUtils.isValidHandle(handle);
+    }
+
     /**
      * Calcula los componentes fuertemente conectados usando Kosaraju.
      *
      * @return resultado con las componentes y el mapeo
      */
     public synchronized SccComputationResult computeStronglyConnectedComponents() { // calcula SCCs usando Kosaraju
-        final String[][] components = kosaraju.compute(graph); // ejecuta algoritmo (now returns String[][])
-        final SccMapping mapping = buildSccMapping(components); // construye mapeo handle->id
+        final CsrGraph csr = csr(); // vista indexada con el orden de usuarios del grafo
+        final KosarajuSCC.Assignment assignment = kosaraju.assign(csr); // ejecuta algoritmo
+        final KosarajuSCC.Condensation condensation = kosaraju.condense(csr, assignment);
+        final String[][] components = applySccAssignment(assignment, condensation);
+        if (currentFile != null && fileContentHash != null) { // grafo idéntico al archivo: guarda la caché
+            try {
+                sccSidecar.write(currentFile, fileContentHash, graph.getUsers(), assignment, condensation);
+            } catch (IOException ex) {
+                // la caché es opcional: el próximo cálculo lo reintentará
+            }
+        }
+        return new SccComputationResult(components, lastSccMapping); // retorna resultado
+    }
+
+    /**
+     * Retorna el grafo de condensación (componentes y relaciones entre ellas)
+     * del último cálculo de SCC.
+     *
+     * @return condensación o {@code null} si no hay cálculo vigente
+     */
+    public synchronized KosarajuSCC.Condensation getLastCondensation() { // DAG de componentes
+        return lastCondensation;
+    }
+
+    /**
+     * Construye la vista condensada por componentes del último cálculo de SCC
+     * (ver {@link CondensedView}).
+     *
+     * @param maxGroups grupos máximos a mostrar
+     * @param expandedComponent componente a expandir o {@code -1}
+     * @return vista condensada o {@code null} si no hay SCC calculadas
+     */
+    public synchronized CondensedView captureCondensedView(final int maxGroups, final int expandedComponent) { // nivel de detalle para grafos grandes
+        if (lastAssignment == null || lastCondensation == null) {
+            return null;
+        }
+        return CondensedView.build(csr(), lastAssignment, lastCondensation, maxGroups, expandedComponent);
+    }
+
+    /**
+     * Extrae el vecindario de un usuario (ver {@link EgoNetwork}). Si hay SCC
+     * calculadas, incluye la componente de cada usuario.
+     *
+     * @param handle usuario central
+     * @param hops saltos máximos
+     * @param maxUsers usuarios máximos del vecindario
+     * @return vecindario
+     */
+    public synchronized EgoNetwork captureEgoNetwork(final String handle, final int hops, final int maxUsers) { // subgrafo alrededor de un usuario
+        if (!isValidHandle(handle)) {
+            throw new IllegalArgumentException("Handle inválido: " + handle);
+        }
+        final CsrGraph forward = csr();
+        final int center = forward.indexOf(handle.trim());
+        if (center < 0) {
+            throw new IllegalArgumentException("El usuario no existe: " + handle);
+        }
+        if (reverseCsrCache == null) {
+            reverseCsrCache = forward.transposed();
+        }
+        return EgoNetwork.extract(forward, reverseCsrCache, center, hops, maxUsers,
+                lastAssignment == null ? null : lastAssignment.componentOf());
+    }
+
+    /**
+     * Índice de prefijos de handles sobre el grafo actual, para buscar
+     * usuarios y relaciones sin copiar listas completas (ver
+     * {@link HandlePrefixIndex}). Es inmutable: refleja el grafo en el
+     * momento de la llamada.
+     *
+     * @return índice de prefijos
+     */
+    public synchronized HandlePrefixIndex getHandlePrefixIndex() { // se reconstruye solo si el grafo cambió
+        final CsrGraph forward = csr();
+        if (prefixIndexCache == null || prefixIndexCache.graph() != forward) {
+            prefixIndexCache = HandlePrefixIndex.of(forward, prefixIndexCache); // reutiliza el orden si solo cambiaron relaciones
+        }
+        return prefixIndexCache;
+    }
+
+    private CsrGraph csr() { // CSR del grafo actual, reutilizado mientras el grafo no cambie
+        if (csrCache == null) {
+            csrCache = CsrGraph.of(graph);
+        }
+        return csrCache;
+    }
+
+    private boolean restoreSccFromSidecar() { // restaura SCC desde la caché si el hash coincide
+        if (currentFile == null || fileContentHash == null) {
+            return false;
+        }
+        try {
+            final SccSidecar.Entry entry = sccSidecar.read(currentFile, fileContentHash, graph.getUsers());
+            if (entry == null) {
+                return false;
+            }
+            applySccAssignment(entry.assignment(), entry.condensation());
+            return true;
+        } catch (IOException ex) {
+            return false; // caché ilegible: se calculará cuando se pida
+        }
+    }
+
+    private String[][] applySccAssignment(final KosarajuSCC.Assignment assignment, final KosarajuSCC.Condensation condensation) { // fija el estado SCC
+        final String[][] components = kosaraju.group(graph.getUsers(), assignment);
         this.lastComponents = components; // guarda resultado
-        this.lastSccMapping = mapping; // guarda mapeo
-        return new SccComputationResult(components, mapping); // retorna resultado
+        this.lastSccMapping = buildSccMapping(components); // construye mapeo handle->id
+        this.lastCondensation = condensation;
+        this.lastAssignment = assignment;
+        return components;
+    }
+
+    /**
+     * Calcula las componentes fuertemente conectadas de un grafo de solo
+     * lectura (por ejemplo una vista mapeada) sin alterar el estado del
+     * servicio.
+     *
+     * @param view grafo indexado a analizar
+     * @return resultado con las componentes y el mapeo
+     */
+    public SccComputationResult computeStronglyConnectedComponents(final IndexedGraph view) { // SCC sobre vistas externas
+        if (view == null) {
+            throw new IllegalArgumentException("view");
+        }
+        final String[][] components = kosaraju.compute(view); // no toca el grafo en memoria
+        return new SccComputationResult(components, buildSccMapping(components));
+    }
+
+    /**
+     * Compara el grafo actual con el contenido de un archivo (texto, comprimido
+     * o formato mapeado). El archivo se lee fuera del monitor.
+     *
+     * @param path archivo a comparar
+     * @return diferencias del grafo actual al archivo
+     * @throws IOException si falla la lectura
+     */
+    public GraphDiff diffWithFile(final Path path) throws IOException { // cambios que traería cargar el archivo
+        final IndexedGraph other = openIndexed(path);
+        final CsrGraph current;
+        synchronized (this) {
+            current = csr(); // instantánea compacta (inmutable: se puede compartir)
+        }
+        return GraphDiff.compare(current, other);
+    }
+
+    /**
+     * Compara dos archivos de grafo sin modificar el estado del servicio. Los
+     * archivos en formato mapeado se comparan sin copiarlos al heap; los de
+     * texto se convierten a CSR al leerlos.
+     *
+     * @param before archivo anterior
+     * @param after archivo nuevo
+     * @return diferencias entre ambos
+     * @throws IOException si falla la lectura
+     */
+    public GraphDiff diffFiles(final Path before, final Path after) throws IOException { // compara dos exportaciones
+        return GraphDiff.compare(openIndexed(before), openIndexed(after));
+    }
+
+    private IndexedGraph openIndexed(final Path path) throws IOException { // abre cualquier formato soportado como vista indexada
+        if (path == null) {
+            throw new IllegalArgumentException("path");
+        }
+        if (mappedStore.isMappedStore(path)) {
+            return mappedStore.open(path);
+        }
+        return CsrGraph.of(parser.parse(path).graph()); // el grafo de texto se descarta tras compactarlo
+    }
+
+    /**
+     * Exporta el grafo actual en formato GraphML. El monitor solo se toma para
+     * obtener la instantánea CSR (en caché por versión; O(V+E) si el grafo
+     * cambió desde la última) y el mapeo SCC; la escritura a disco ocurre sin
+     * bloquear ediciones, consultas ni autoguardado.
+     *
+     * @param path ruta destino ({@code .gz} para comprimir)
+     * @param includeScc si se anotan los nodos con el último cálculo de SCC
+     * @throws IOException si falla la escritura
+     */
+    public void exportGraphMl(final Path path, final boolean includeScc) throws IOException { // exporta GraphML
+        export(new GraphMlExporter(), path, includeScc);
+    }
+
+    /**
+     * Exporta el grafo actual en formato DOT de Graphviz. Igual que
+     * {@link #exportGraphMl(Path, boolean)}, escribe fuera del monitor desde
+     * la instantánea CSR.
+     *
+     * @param path ruta destino ({@code .gz} para comprimir)
+     * @param includeScc si se anotan los nodos con el último cálculo de SCC
+     * @throws IOException si falla la escritura
+     */
+    public void exportDot(final Path path, final boolean includeScc) throws IOException { // exporta DOT
+        export(new DotExporter(), path, includeScc);
+    }
+
+    private void export(final StreamingGraphExporter exporter, final Path path, final boolean includeScc) throws IOException { // captura bajo el monitor, escribe fuera
+        if (path == null) {
+            throw new IllegalArgumentException("path");
+        }
+        final CsrGraph snapshot;
+        final SccMapping mapping;
+        synchronized (this) { // grafo y SCC del mismo instante
+            snapshot = csr();
+            mapping = includeScc ? lastSccMapping : SccMapping.empty();
+        }
+        exporter.export(path, snapshot, mapping.handles(), mapping.componentIds()); // la instantánea es inmutable
+    }
+
+    /**
+     * Exporta el grafo actual al formato binario mapeable.
+     *
+     * @param path ruta destino
+     * @throws IOException si falla la escritura
+     */
+    public synchronized void exportMappedStore(final Path path) throws IOException { // exporta a formato CSR mapeado
+        if (path == null) {
+            throw new IllegalArgumentException("path");
+        }
+        mappedStore.write(path, csr()); // escribe instantánea CSR
+    }
+
+    /**
+     * Abre un grafo en formato mapeado como vista de solo lectura. La vista no
+     * reemplaza al grafo editable del servicio; sirve para consultas y SCC
+     * sobre grafos que no caben cómodamente en el heap.
+     *
+     * @param path archivo en formato mapeado
+     * @return vista del grafo
+     * @throws IOException si el archivo no es válido
+     */
+    public MappedGraphView openMappedView(final Path path) throws IOException { // abre vista mapeada sin copiar datos
+        return mappedStore.open(path);
     }
 
     /**
@@ -211,6 +715,41 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         return GraphUtils.copyOf(graph); // retorna copia profunda
     }
 
+    /**
+     * Versión del grafo: cambia cada vez que el grafo se modifica o se
+     * reemplaza. Se lee sin bloqueo para que los lectores concurrentes
+     * comprueben si su instantánea sigue vigente.
+     *
+     * @return versión actual
+     */
+    public long getGraphVersion() { // lectura volátil, sin monitor
+        return graphVersion;
+    }
+
+    /**
+     * Captura una instantánea CSR inmutable del grafo junto con la versión
+     * que representa. Solo el recorrido de copia ocurre bajo el monitor.
+     *
+     * @return instantánea indexada
+     */
+    public synchronized IndexedSnapshot captureIndexedSnapshot() { // copia compacta para lectores concurrentes
+        return new IndexedSnapshot(csr(), graphVersion);
+    }
+
+    /**
+     * Captura de forma atómica la instantánea CSR inmutable del grafo junto
+     * con el archivo asociado, para que procesos en segundo plano
+     * (autoguardado) la serialicen sin mantener el bloqueo mientras escriben.
+     * Bajo el monitor no se copia nada si la instantánea de la versión actual
+     * ya existe (la vista y las SCC la comparten); si no, se construye en
+     * O(V+E).
+     *
+     * @return instantánea del grafo y archivo asociado
+     */
+    public synchronized PersistenceSnapshot capturePersistenceSnapshot() { // copia breve bajo el monitor
+        return new PersistenceSnapshot(csr(), currentFile);
+    }
+
     /**
      * Retorna el número de usuarios cargados en el grafo.
      *
@@ -309,16 +848,36 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         return out;
     }
 
+    /**
+     * Número de componentes del último cálculo de SCC, sin copiarlas.
+     *
+     * @return componentes o 0 si no hay cálculo
+     */
+    public synchronized int getLastComponentCount() { // para la barra de estado
+        return lastComponents == null ? 0 : lastComponents.length;
+    }
+
     private void applyParsedGraph(final GraphFileParser.Result result, final Path source) { // aplica grafo parseado al estado
         this.graph = GraphUtils.copyOf(result.graph()); // copia profunda
         this.currentFile = source; // actualiza origen
+        this.currentFileStamp = null; // lo fija quien conoce el estado del archivo
+        this.conflictStamp = null;
+        this.fileContentHash = null;
+        clearPendingMutations(); // los cambios anteriores ya no aplican
         resetSccState(); // limpia estado de SCC previo
     }
 
-    private GraphLoadResult buildLoadResult(final GraphFileParser.Result result, final Path path) { // construye resultado rico para UI
-        final DirectedGraph snapshot = GraphUtils.copyOf(result.graph()); // snapshot inmutable
+    private GraphLoadResult buildLoadResult(final GraphFileParser.Result result, final Path path, final String extraWarning) { // construye resultado rico para UI
+        final DirectedGraph snapshot = GraphUtils.copyOf(graph); // snapshot inmutable (incluye cambios del diario)
+        String[] warnings = result.warnings();
+        if (extraWarning != null) {
+            final String[] merged = new String[warnings.length + 1];
+            System.arraycopy(warnings, 0, merged, 0, warnings.length);
+            merged[warnings.length] = extraWarning;
+            warnings = merged;
+        }
         return new GraphLoadResult(snapshot,
-                result.warnings(),
+                warnings,
                 path,
                 snapshot.getUsers().length,
                 snapshot.getEdgeCount()); // empaqueta info útil
@@ -344,14 +903,34 @@ public class GraphService { // servicio principal que coordina lectura, modifica
         }
     }
 
+    private void recordMutation(final GraphMutation mutation) { // acumula cambios para el próximo guardado incremental
+        if (pendingCount >= pendingMutations.length) {
+            final GraphMutation[] next = new GraphMutation[pendingMutations.length * 2];
+            System.arraycopy(pendingMutations, 0, next, 0, pendingCount);
+            pendingMutations = next;
+        }
+        pendingMutations[pendingCount++] = mutation;
+    }
+
+    private void clearPendingMutations() { // descarta cambios ya persistidos
+        pendingMutations = new GraphMutation[8];
+        pendingCount = 0;
+    }
+
     private void markDirty() { // marca que hubo cambios y resetea estado SCC
         this.dirty = true; // pone flag
+        this.fileContentHash = null; // el grafo ya no coincide con el archivo
         resetSccState(); // limpia último cálculo SCC
     }
 
-    private void resetSccState() { // borra cache/estado de SCC
+    private void resetSccState() { // borra cache/estado de SCC (todo cambio del grafo pasa por aquí)
+        this.graphVersion++; // invalida las instantáneas de los lectores
         this.lastSccMapping = SccMapping.empty(); // mapa vacío
         this.lastComponents = new String[0][]; // lista vacía
+        this.lastCondensation = null;
+        this.lastAssignment = null;
+        this.csrCache = null; // el grafo cambió
+        this.reverseCsrCache = null;
     }
 
     private SccMapping buildSccMapping(final String[][] components) { // construye mapeo user->componentId como arrays paralelos
@@ -398,6 +977,107 @@ public class GraphService { // servicio principal que coordina lectura, modifica
 
     }
 
+    /**
+     * Motivo por el que una operación de un lote no se aplicó.
+     */
+    public enum BatchFailure {
+        INVALID_HANDLE,
+        SELF_RELATION,
+        USER_EXISTS,
+        USER_MISSING,
+        RELATION_EXISTS,
+        RELATION_MISSING
+    }
+
+    /**
+     * Resultado compacto de {@link #applyBatch(GraphMutation[])}: solo se
+     * listan las operaciones que fallaron.
+     *
+     * @param applied operaciones aplicadas
+     * @param failedIndices índices (en el lote) de las operaciones fallidas
+     * @param failures motivo de cada fallo (arreglo paralelo)
+     */
+    public record BatchResult(int applied, int[] failedIndices, BatchFailure[] failures) {
+
+        /**
+         * @return número de operaciones fallidas
+         */
+        public int failedCount() {
+            return failedIndices.length;
+        }
+    }
+
+    private static final class BatchFailures { // acumulador de fallos de un lote
+
+        private int[] indices = new int[8];
+        private BatchFailure[] reasons = new BatchFailure[8];
+        private int size;
+        private int validationFailures; // fallos de validación (prefijo de indices)
+
+        void add(final int index, final BatchFailure reason) {
+            if (size == indices.length) {
+                final int[] nextIndices = new int[size * 2];
+                final BatchFailure[] nextReasons = new BatchFailure[size * 2];
+                System.arraycopy(indices, 0, nextIndices, 0, size);
+                System.arraycopy(reasons, 0, nextReasons, 0, size);
+                indices = nextIndices;
+                reasons = nextReasons;
+            }
+            indices[size] = index;
+            reasons[size] = reason;
+            size++;
+        }
+
+        void endValidation() { // separa los fallos de validación de los de aplicación
+            validationFailures = size;
+        }
+
+        BatchResult toResult(final int applied) { // los fallos de validación y de aplicación quedan ordenados por índice
+            final int[] outIndices = new int[size];
+            final BatchFailure[] outReasons = new BatchFailure[size];
+            int left = 0; // fallos de validación
+            int right = validationFailures; // fallos de aplicación
+            for (int k = 0; k < size; k++) { // mezcla lineal: ambas secuencias ya vienen ordenadas
+                final int from = right >= size || (left < validationFailures && indices[left] < indices[right]) ? left++ : right++;
+                outIndices[k] = indices[from];
+                outReasons[k] = reasons[from];
+            }
+            return new BatchResult(applied, outIndices, outReasons);
+        }
+    }
+
+    /**
+     * Resultado de recargar un archivo modificado externamente.
+     *
+     * @param file archivo recargado
+     * @param delta cambios aplicados (vacío en conflicto)
+     * @param warnings advertencias del parseo
+     * @param conflict {@code true} si no se aplicó por haber cambios sin
+     * guardar
+     */
+    public record ExternalReload(Path file, GraphDelta delta, String[] warnings, boolean conflict) {
+
+    }
+
+    private record FileStamp(long size, long modifiedMillis) { // huella barata para detectar cambios externos
+
+        static FileStamp of(final Path path) { // null si el archivo no existe o no se puede leer
+            try {
+                return new FileStamp(Files.size(path), Files.getLastModifiedTime(path).toMillis());
+            } catch (IOException ex) {
+                return null;
+            }
+        }
+    }
+
+    public record IndexedSnapshot(CsrGraph graph, long version) { // grafo inmutable y versión de la que proviene
+
+    }
+
+    public record PersistenceSnapshot(IndexedGraph graph, Path file) { // estado consistente para guardar fuera del monitor
+
+    }
+
     public record SccComputationResult(String[][] components, SccMapping mapping) { // resultado del cómputo SCC
 
     }
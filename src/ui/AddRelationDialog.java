@@ -1,8 +1,9 @@
 package ui;
 
+import domain.HandlePrefixIndex;
+
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
-import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -11,41 +12,37 @@ import javax.swing.WindowConstants;
 import java.awt.BorderLayout;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
-import java.awt.event.ItemEvent;
 
 /**
  * Diálogo modal para agregar una relación entre dos usuarios.
- * Recibe un arreglo de handles y retorna una RelationSelection o null si se canceló.
+ * Ambos usuarios se buscan por el inicio de su handle en un índice de prefijos;
+ * retorna una RelationSelection o null si se canceló.
  */
 public class AddRelationDialog extends JDialog {
 
-    private final JComboBox<String> originCombo;
-    private final JComboBox<String> destinationCombo;
-    private final String[] handles;
+    private final SearchablePicker originPicker;
+    private final SearchablePicker destinationPicker;
     private String origin;
     private String destination;
 
-    public AddRelationDialog(final MainFrame parent, final String[] handles) {
+    public AddRelationDialog(final MainFrame parent, final HandlePrefixIndex index) {
         super(parent, "Agregar relación", true);
-        this.handles = handles == null ? new String[0] : handles.clone();
         setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
         setResizable(false);
         setLayout(new BorderLayout(12, 12));
         final JPanel form = new JPanel(new GridLayout(2, 2, 8, 8));
         form.add(new JLabel("Origen:"));
-        originCombo = new JComboBox<>(this.handles);
-        form.add(originCombo);
+        originPicker = new SearchablePicker(PrefixListModel.users(index));
+        form.add(originPicker);
         form.add(new JLabel("Destino:"));
-        destinationCombo = new JComboBox<>(this.handles);
-        form.add(destinationCombo);
+        destinationPicker = new SearchablePicker(PrefixListModel.users(index));
+        form.add(destinationPicker);
         form.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
         add(form, BorderLayout.CENTER);
         add(buildButtons(), BorderLayout.SOUTH);
-        originCombo.addItemListener(this::onOriginChanged);
-        onOriginChanged(null);
         pack();
         setLocationRelativeTo(parent);
-        SwingUtilities.invokeLater(originCombo::requestFocusInWindow);
+        SwingUtilities.invokeLater(originPicker.getSearchField()::requestFocusInWindow);
     }
 
     private JPanel buildButtons() {
@@ -60,42 +57,15 @@ public class AddRelationDialog extends JDialog {
         return panel;
     }
 
-    private void onOriginChanged(final ItemEvent ev) {
-        final String selectedOrigin = (String) originCombo.getSelectedItem();
-        if (selectedOrigin == null) {
-            return;
-        }
-        int count = 0;
-        for (String h : this.handles) {
-            if (!h.equalsIgnoreCase(selectedOrigin)) {
-                count++;
-            }
-        }
-        final String[] candidates = new String[count];
-        int idx = 0;
-        for (String h : this.handles) {
-            if (!h.equalsIgnoreCase(selectedOrigin)) {
-                candidates[idx++] = h;
-            }
-        }
-        destinationCombo.removeAllItems();
-        for (String c : candidates) {
-            destinationCombo.addItem(c);
-        }
-        if (candidates.length > 0) {
-            destinationCombo.setSelectedIndex(0);
-        }
-    }
-
     private void onAccept(final ActionEvent ev) {
-        final String selOrigin = (String) originCombo.getSelectedItem();
-        final String selDest = (String) destinationCombo.getSelectedItem();
+        final String selOrigin = selectedHandle(originPicker);
+        final String selDest = selectedHandle(destinationPicker);
         if (selOrigin == null || selDest == null) {
             return;
         }
         if (selOrigin.equalsIgnoreCase(selDest)) {
-            destinationCombo.requestFocusInWindow();
-            destinationCombo.setToolTipText("El destino debe ser distinto al origen");
+            destinationPicker.getSearchField().requestFocusInWindow();
+            destinationPicker.getSearchField().setToolTipText("El destino debe ser distinto al origen");
             return;
         }
         this.origin = selOrigin;
@@ -103,6 +73,11 @@ public class AddRelationDialog extends JDialog {
         dispose();
     }
 
+    private static String selectedHandle(final SearchablePicker picker) {
+        final int row = picker.getSelectedIndex();
+        return row < 0 ? null : picker.getModel().origin(row);
+    }
+
     public RelationSelection getRelation() {
         if (origin == null || destination == null) {
             return null;
@@ -0,0 +1,551 @@
+package ui; // layout dirigido por fuerzas fuera del EDT
+
+import java.util.concurrent.ExecutionException; // fallo de un fragmento de trabajo
+import java.util.concurrent.ExecutorService; // grupo de hilos de cálculo
+import java.util.concurrent.Executors; // fábrica de ejecutores
+import java.util.concurrent.Future; // fragmento en curso
+import java.util.concurrent.atomic.AtomicInteger; // numeración de hilos
+
+/**
+ * Layout dirigido por fuerzas (Fruchterman-Reingold) calculado en hilos de
+ * fondo. La repulsión entre todos los pares se aproxima con un quadtree de
+ * Barnes-Hut, por lo que cada iteración cuesta O(n log n) en lugar de
+ * O(n²); la atracción recorre las aristas en ambos sentidos. Las fuerzas de
+ * cada iteración se reparten en fragmentos entre los hilos del grupo.
+ *
+ * <p>
+ * Si se indica la componente de cada nodo, los miembros de una misma SCC
+ * parten agrupados alrededor de un centro propio y se atraen hacia él, de
+ * modo que cada componente queda como un racimo reconocible.</p>
+ *
+ * <p>
+ * Solo hay un cálculo activo por instancia: iniciar otro cancela el
+ * anterior. Las posiciones se entregan al {@link PositionListener} desde el
+ * hilo coordinador; el receptor es responsable de pasarlas al hilo que
+ * corresponda.</p>
+ */
+public final class ForceLayout implements AutoCloseable { // motor de layout con Barnes-Hut
+
+    private static final int MAX_DEPTH = 48; // profundidad máxima del quadtree (puntos coincidentes)
+    private static final int CHUNKS_PER_THREAD = 4; // fragmentos por hilo para equilibrar la carga
+    private static final double GRAVITY = 0.02; // atracción débil al origen: evita que las partes sueltas se alejen
+    private static final double CLUSTER_PULL = 0.5; // peso de la atracción hacia el centro de la componente
+    private static final double K = 1.0; // distancia ideal entre nodos
+    private static final double GOLDEN_ANGLE = Math.PI * (3.0 - Math.sqrt(5.0)); // reparto en espiral sin solapes
+    private static final double MIN_DISTANCE = 1e-3; // distancia mínima para evitar divisiones por cero
+
+    /**
+     * Parámetros del cálculo.
+     *
+     * @param iterations iteraciones totales
+     * @param theta criterio de apertura de Barnes-Hut (0 = exacto)
+     * @param publishEvery iteraciones entre entregas intermedias (0 = solo
+     * la final)
+     * @param clusterByComponent agrupa los nodos por componente si se conocen
+     */
+    public record Options(int iterations, double theta, int publishEvery, boolean clusterByComponent) {
+
+        public Options {
+            if (iterations < 1) {
+                throw new IllegalArgumentException("iterations");
+            }
+            if (theta < 0.0) {
+                throw new IllegalArgumentException("theta");
+            }
+            if (publishEvery < 0) {
+                throw new IllegalArgumentException("publishEvery");
+            }
+        }
+
+        public static Options defaults() { // 300 iteraciones, theta 0.9, entrega cada 25
+            return new Options(300, 0.9, 25, true);
+        }
+    }
+
+    /**
+     * Recibe las posiciones calculadas. Los arreglos son copias propias del
+     * receptor.
+     */
+    @FunctionalInterface
+    public interface PositionListener {
+
+        void onPositions(double[] x, double[] y, boolean done);
+    }
+
+    private final int threads; // hilos de cálculo
+    private final ExecutorService workers; // grupo de hilos compartido por todos los cálculos
+    private Run current; // cálculo activo (protegido por this)
+
+    /**
+     * Crea el motor con un hilo de cálculo por procesador disponible.
+     */
+    public ForceLayout() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads hilos de cálculo
+     */
+    public ForceLayout(final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads");
+        }
+        this.threads = threads;
+        final AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "layout-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true); // no impide cerrar la aplicación
+            return thread;
+        });
+    }
+
+    /**
+     * Inicia un cálculo en segundo plano, cancelando el anterior.
+     *
+     * @param offsets inicio de los vecinos salientes de cada nodo (CSR,
+     * longitud n + 1)
+     * @param targets vecinos salientes
+     * @param component componente de cada nodo o {@code null}
+     * @param x posiciones iniciales (se copian)
+     * @param y posiciones iniciales (se copian)
+     * @param options parámetros
+     * @param listener receptor de las posiciones
+     */
+    public synchronized void start(final int[] offsets,
+            final int[] targets,
+            final int[] component,
+            final double[] x,
+            final double[] y,
+            final Options options,
+            final PositionListener listener) {
+        if (offsets == null || targets == null || x == null || y == null || options == null || listener == null) {
+            throw new IllegalArgumentException("Argumentos nulos");
+        }
+        final int n = offsets.length - 1;
+        if (n < 0 || x.length != n || y.length != n || (component != null && component.length != n)) {
+            throw new IllegalArgumentException("Tamaños inconsistentes");
+        }
+        cancel();
+        current = new Run(offsets, targets, options.clusterByComponent() ? component : null,
+                x.clone(), y.clone(), options, listener);
+        final Thread coordinator = new Thread(current, "force-layout");
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    /**
+     * Cancela el cálculo activo, si lo hay. Las posiciones ya entregadas se
+     * conservan.
+     */
+    public synchronized void cancel() {
+        if (current != null) {
+            current.cancelled = true;
+            current = null;
+        }
+    }
+
+    /**
+     * @return {@code true} si hay un cálculo en curso
+     */
+    public synchronized boolean isRunning() {
+        return current != null && !current.finished;
+    }
+
+    @Override
+    public void close() { // cancela y libera los hilos
+        cancel();
+        workers.shutdownNow();
+    }
+
+    private final class Run implements Runnable { // un cálculo completo
+
+        private final int n;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] inOffsets; // aristas entrantes (CSR inverso)
+        private final int[] inSources;
+        private final int[] component; // null si no se agrupa
+        private final double[] x;
+        private final double[] y;
+        private final double[] dx; // desplazamiento de la iteración
+        private final double[] dy;
+        private final double[] clusterX; // centro de cada componente
+        private final double[] clusterY;
+        private final Options options;
+        private final PositionListener listener;
+        private final QuadTree tree;
+        private volatile boolean cancelled;
+        private volatile boolean finished;
+
+        Run(final int[] offsets, final int[] targets, final int[] component,
+                final double[] x, final double[] y, final Options options, final PositionListener listener) {
+            this.n = offsets.length - 1;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.component = component;
+            this.x = x;
+            this.y = y;
+            this.dx = new double[n];
+            this.dy = new double[n];
+            this.options = options;
+            this.listener = listener;
+            this.inOffsets = new int[n + 1];
+            for (int e = 0; e < offsets[n]; e++) {
+                inOffsets[targets[e] + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                inOffsets[v + 1] += inOffsets[v];
+            }
+            this.inSources = new int[offsets[n]];
+            final int[] fill = new int[n];
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    final int v = targets[e];
+                    inSources[inOffsets[v] + fill[v]++] = u;
+                }
+            }
+            int components = 0;
+            if (component != null) {
+                for (int v = 0; v < n; v++) {
+                    components = Math.max(components, component[v] + 1);
+                }
+                seedClusters(components);
+            } else {
+                normalize();
+            }
+            this.clusterX = new double[components];
+            this.clusterY = new double[components];
+            this.tree = new QuadTree(n);
+        }
+
+        @Override
+        public void run() { // bucle de iteraciones con enfriamiento lineal
+            try {
+                if (n == 0) {
+                    return;
+                }
+                final double extent = Math.sqrt(n) * K; // tamaño aproximado del dibujo
+                final double startTemperature = extent / 10.0;
+                for (int iteration = 0; iteration < options.iterations() && !cancelled; iteration++) {
+                    final double temperature = startTemperature * (1.0 - (double) iteration / options.iterations());
+                    step(temperature);
+                    if (options.publishEvery() > 0 && (iteration + 1) % options.publishEvery() == 0
+                            && iteration + 1 < options.iterations() && !cancelled) {
+                        listener.onPositions(x.clone(), y.clone(), false);
+                    }
+                }
+                if (!cancelled) {
+                    listener.onPositions(x.clone(), y.clone(), true);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt(); // cierre del motor
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Fallo en el cálculo del layout", ex.getCause());
+            } finally {
+                finished = true;
+            }
+        }
+
+        private void normalize() { // lleva las posiciones iniciales a la escala del layout conservando su forma
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int v = 0; v < n; v++) {
+                minX = Math.min(minX, x[v]);
+                minY = Math.min(minY, y[v]);
+                maxX = Math.max(maxX, x[v]);
+                maxY = Math.max(maxY, y[v]);
+            }
+            final double span = Math.max(maxX - minX, maxY - minY);
+            final double scale = span > 0.0 ? Math.sqrt(n) * K / span : 1.0;
+            for (int v = 0; v < n; v++) {
+                x[v] = (x[v] - (minX + maxX) / 2.0) * scale;
+                y[v] = (y[v] - (minY + maxY) / 2.0) * scale;
+            }
+        }
+
+        private void seedClusters(final int components) { // cada componente parte de un centro propio
+            final int[] sizes = new int[components];
+            for (int v = 0; v < n; v++) {
+                if (component[v] >= 0) {
+                    sizes[component[v]]++;
+                }
+            }
+            final double[] centerX = new double[components];
+            final double[] centerY = new double[components];
+            double placed = 0.0; // área ocupada por los centros anteriores
+            for (int c = 0; c < components; c++) { // espiral de Fermat: el radio crece con el área acumulada
+                placed += sizes[c];
+                final double radius = Math.sqrt(placed) * K * 1.5;
+                final double angle = c * GOLDEN_ANGLE;
+                centerX[c] = Math.cos(angle) * radius;
+                centerY[c] = Math.sin(angle) * radius;
+            }
+            final int[] seen = new int[components];
+            for (int v = 0; v < n; v++) {
+                final int c = component[v];
+                if (c < 0) {
+                    continue;
+                }
+                final int m = seen[c]++;
+                final double radius = Math.sqrt(m + 0.5) * K * 0.5; // miembros en espiral alrededor del centro
+                final double angle = m * GOLDEN_ANGLE;
+                x[v] = centerX[c] + Math.cos(angle) * radius;
+                y[v] = centerY[c] + Math.sin(angle) * radius;
+            }
+        }
+
+        private void step(final double temperature) throws InterruptedException, ExecutionException { // una iteración
+            tree.build(x, y);
+            if (component != null) {
+                updateClusterCenters();
+            }
+            final int chunks = Math.min(n, threads * CHUNKS_PER_THREAD);
+            final Future<?>[] pending = new Future<?>[chunks];
+            for (int c = 0; c < chunks; c++) {
+                final int from = (int) ((long) n * c / chunks);
+                final int to = (int) ((long) n * (c + 1) / chunks);
+                pending[c] = workers.submit(() -> computeForces(from, to));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+            for (int v = 0; v < n; v++) { // desplazamiento limitado por la temperatura
+                final double length = Math.sqrt(dx[v] * dx[v] + dy[v] * dy[v]);
+                if (length > 0.0) {
+                    final double scale = Math.min(length, temperature) / length;
+                    x[v] += dx[v] * scale;
+                    y[v] += dy[v] * scale;
+                }
+            }
+        }
+
+        private void updateClusterCenters() { // centro de masa de cada componente
+            final int[] counts = new int[clusterX.length];
+            for (int c = 0; c < counts.length; c++) {
+                clusterX[c] = 0.0;
+                clusterY[c] = 0.0;
+            }
+            for (int v = 0; v < n; v++) {
+                final int c = component[v];
+                if (c >= 0) {
+                    clusterX[c] += x[v];
+                    clusterY[c] += y[v];
+                    counts[c]++;
+                }
+            }
+            for (int c = 0; c < counts.length; c++) {
+                if (counts[c] > 0) {
+                    clusterX[c] /= counts[c];
+                    clusterY[c] /= counts[c];
+                }
+            }
+        }
+
+        private void computeForces(final int from, final int to) { // fuerzas sobre los nodos [from, to)
+            final int[] stack = new int[MAX_DEPTH * 3 + 4];
+            final double k2 = K * K;
+            final double theta2 = options.theta() * options.theta();
+            for (int v = from; v < to; v++) {
+                final double[] force = {0.0, 0.0};
+                tree.repulsion(v, x[v], y[v], k2, theta2, stack, force);
+                double fx = force[0];
+                double fy = force[1];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) { // atracción d²/K por aristas salientes
+                    final int u = targets[e];
+                    final double ax = x[v] - x[u];
+                    final double ay = y[v] - y[u];
+                    final double d = Math.sqrt(ax * ax + ay * ay);
+                    fx -= ax * d / K;
+                    fy -= ay * d / K;
+                }
+                for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) { // y entrantes
+                    final int u = inSources[e];
+                    final double ax = x[v] - x[u];
+                    final double ay = y[v] - y[u];
+                    final double d = Math.sqrt(ax * ax + ay * ay);
+                    fx -= ax * d / K;
+                    fy -= ay * d / K;
+                }
+                if (component != null && component[v] >= 0) { // hacia el centro de su componente
+                    final double ax = x[v] - clusterX[component[v]];
+                    final double ay = y[v] - clusterY[component[v]];
+                    final double d = Math.sqrt(ax * ax + ay * ay);
+                    fx -= CLUSTER_PULL * ax * d / K;
+                    fy -= CLUSTER_PULL * ay * d / K;
+                }
+                fx -= GRAVITY * x[v];
+                fy -= GRAVITY * y[v];
+                dx[v] = fx;
+                dy[v] = fy;
+            }
+        }
+    }
+
+    /**
+     * Quadtree de Barnes-Hut en arreglos paralelos. Cada celda guarda su
+     * centro, su semilado, la masa y la suma de posiciones de los nodos que
+     * contiene; las hojas guardan además su único nodo. Los cuatro hijos de
+     * una celda son contiguos.
+     */
+    private static final class QuadTree {
+
+        private static final int EMPTY = -1; // hoja sin nodo
+        private static final int INTERNAL = -2; // celda subdividida
+        private static final int AGGREGATE = -3; // hoja en la profundidad máxima con varios nodos
+
+        private double[] centerX;
+        private double[] centerY;
+        private double[] half;
+        private double[] mass;
+        private double[] sumX;
+        private double[] sumY;
+        private int[] body; // nodo de la hoja, EMPTY, INTERNAL o AGGREGATE
+        private int[] firstChild;
+        private int size;
+
+        QuadTree(final int bodies) {
+            allocate(Math.max(16, bodies * 2));
+        }
+
+        void build(final double[] x, final double[] y) { // reconstruye el árbol para las posiciones dadas
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int v = 0; v < x.length; v++) {
+                minX = Math.min(minX, x[v]);
+                minY = Math.min(minY, y[v]);
+                maxX = Math.max(maxX, x[v]);
+                maxY = Math.max(maxY, y[v]);
+            }
+            size = 0;
+            newCell((minX + maxX) / 2.0, (minY + maxY) / 2.0, Math.max(maxX - minX, maxY - minY) / 2.0 + MIN_DISTANCE);
+            for (int v = 0; v < x.length; v++) {
+                insert(v, x, y);
+            }
+        }
+
+        private void insert(final int v, final double[] x, final double[] y) { // baja por el árbol acumulando masa
+            int cell = 0;
+            int depth = 0;
+            while (true) {
+                mass[cell] += 1.0;
+                sumX[cell] += x[v];
+                sumY[cell] += y[v];
+                if (body[cell] == EMPTY) {
+                    body[cell] = v;
+                    return;
+                }
+                if (body[cell] == AGGREGATE) {
+                    return;
+                }
+                if (body[cell] >= 0) { // hoja ocupada: se subdivide o se agrega
+                    if (depth >= MAX_DEPTH) {
+                        body[cell] = AGGREGATE;
+                        return;
+                    }
+                    final int previous = body[cell];
+                    subdivide(cell);
+                    final int child = childFor(cell, x[previous], y[previous]);
+                    body[child] = previous;
+                    mass[child] = 1.0;
+                    sumX[child] = x[previous];
+                    sumY[child] = y[previous];
+                }
+                cell = childFor(cell, x[v], y[v]);
+                depth++;
+            }
+        }
+
+        private void subdivide(final int cell) {
+            final double h = half[cell] / 2.0;
+            final double cx = centerX[cell];
+            final double cy = centerY[cell];
+            final int first = newCell(cx - h, cy - h, h);
+            newCell(cx + h, cy - h, h);
+            newCell(cx - h, cy + h, h);
+            newCell(cx + h, cy + h, h);
+            firstChild[cell] = first;
+            body[cell] = INTERNAL;
+        }
+
+        private int childFor(final int cell, final double px, final double py) {
+            return firstChild[cell] + (px >= centerX[cell] ? 1 : 0) + (py >= centerY[cell] ? 2 : 0);
+        }
+
+        void repulsion(final int v, final double px, final double py, final double k2, final double theta2,
+                final int[] stack, final double[] force) { // repulsión k²/d aproximada sobre el nodo v
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                final int cell = stack[--top];
+                final int b = body[cell];
+                if (b == EMPTY || b == v) {
+                    continue;
+                }
+                final double m = mass[cell];
+                double ax = px - sumX[cell] / m;
+                double ay = py - sumY[cell] / m;
+                double d2 = ax * ax + ay * ay;
+                final double width = half[cell] * 2.0;
+                if (b == INTERNAL && width * width >= theta2 * d2) { // demasiado cerca: se abren los hijos
+                    final int first = firstChild[cell];
+                    stack[top++] = first;
+                    stack[top++] = first + 1;
+                    stack[top++] = first + 2;
+                    stack[top++] = first + 3;
+                    continue;
+                }
+                if (d2 < MIN_DISTANCE * MIN_DISTANCE) { // puntos coincidentes: separación determinista
+                    ax = MIN_DISTANCE * Math.cos(v);
+                    ay = MIN_DISTANCE * Math.sin(v);
+                    d2 = MIN_DISTANCE * MIN_DISTANCE;
+                }
+                force[0] += ax * k2 * m / d2;
+                force[1] += ay * k2 * m / d2;
+            }
+        }
+
+        private int newCell(final double cx, final double cy, final double h) {
+            if (size == body.length) {
+                allocate(size * 2);
+            }
+            centerX[size] = cx;
+            centerY[size] = cy;
+            half[size] = h;
+            mass[size] = 0.0;
+            sumX[size] = 0.0;
+            sumY[size] = 0.0;
+            body[size] = EMPTY;
+            firstChild[size] = -1;
+            return size++;
+        }
+
+        private void allocate(final int capacity) { // crece conservando las celdas existentes
+            centerX = grow(centerX, capacity);
+            centerY = grow(centerY, capacity);
+            half = grow(half, capacity);
+            mass = grow(mass, capacity);
+            sumX = grow(sumX, capacity);
+            sumY = grow(sumY, capacity);
+            final int[] nextBody = new int[capacity];
+            final int[] nextChild = new int[capacity];
+            if (body != null) {
+                System.arraycopy(body, 0, nextBody, 0, size);
+                System.arraycopy(firstChild, 0, nextChild, 0, size);
+            }
+            body = nextBody;
+            firstChild = nextChild;
+        }
+
+        private double[] grow(final double[] values, final int capacity) {
+            final double[] next = new double[capacity];
+            if (values != null) {
+                System.arraycopy(values, 0, next, 0, size);
+            }
+            return next;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ui; // panel que muestra el grafo usando GraphStream
 
-import domain.DirectedGraph; // snapshot del grafo
+import domain.CondensedView; // vista por componentes
+import domain.HandleIndex; // búsqueda de handles al comparar snapshots
 import util.ColorPalette; // paleta de colores para componentes
 
 import org.graphstream.graph.Graph; // interfaz de GraphStream
@@ -11,10 +12,22 @@ import org.graphstream.ui.view.View; // vista genérica
 import org.graphstream.ui.view.Viewer; // viewer de GraphStream
 import org.graphstream.ui.swing_viewer.SwingViewer; // viewer basado en Swing
 import org.graphstream.ui.swing_viewer.ViewPanel; // panel Swing que muestra la vista
+import org.graphstream.ui.geom.Point3; // centro de la cámara
 import org.graphstream.ui.view.camera.Camera; // cámara para manipular vista
+import org.graphstream.ui.graphicGraph.GraphicElement; // elemento bajo el cursor
+import org.graphstream.ui.view.util.InteractiveElement; // tipos de elemento seleccionables
 
+import javax.swing.JComponent; // tipo de la capa sobre la vista
+import javax.swing.JLabel; // aviso mientras no hay grafo
+import javax.swing.JLayer; // superposición de tiempos sobre la vista
 import javax.swing.JPanel; // contenedor Swing
+import javax.swing.SwingConstants; // alineación del aviso
+import javax.swing.SwingUtilities; // entrega de posiciones en el EDT
+import javax.swing.Timer; // sondeo de la cámara
 import java.awt.BorderLayout; // layout principal
+import java.awt.event.MouseAdapter; // doble clic sobre la vista
+import java.awt.event.MouseEvent; // evento de ratón
+import java.util.EnumSet; // requerido por la API de GraphStream para buscar nodos
 import services.GraphService; // SccMapping type
 
 /**
@@ -25,31 +38,87 @@ public class GraphPanel extends JPanel { // panel que encapsula la vista del gra
 
     private static final String UI_CLASS = "ui.class"; // atributo para clase CSS del nodo
     private static final String UI_STYLESHEET = "ui.stylesheet"; // atributo para hojas de estilo
+    private static final String GROUP_PREFIX = "#"; // id de los nodos que representan componentes
+    private static final String REST_NODE_ID = "#resto"; // id del grupo de componentes no mostradas
+    private static final double MIN_GROUP_SIZE_PX = 10.0; // tamaño de un grupo de un usuario
+    private static final double GROUP_SIZE_STEP_PX = 5.0; // crecimiento por cada duplicación de miembros
+    private static final double MAX_GROUP_SIZE_PX = 90.0; // tope de tamaño
+    private static final double MEMBER_SPACING = 1.5; // separación de los miembros expandidos
+    private static final int CULLING_THRESHOLD = 20_000; // a partir de aquí solo se materializa lo visible
+    private static final int MAX_VISIBLE_NODES = 5_000; // nodos materializados como máximo (muestreo por grado)
+    private static final int MAX_VISIBLE_EDGES = 25_000; // aristas materializadas como máximo
+    private static final double VIEW_MARGIN = 0.25; // margen alrededor de la vista, por lado
+    private static final int CULL_POLL_MILLIS = 150; // revisión de la cámara
+    private static final int POSITION_BATCH = 5_000; // posiciones aplicadas por evento del EDT
+    private static final double GOLDEN_ANGLE = Math.PI * (3.0 - Math.sqrt(5.0)); // reparto de nodos nuevos
 
-    private final Graph graph; // grafo subyacente de GraphStream
-    private final Viewer viewer; // viewer que maneja la visualización
-    private final ViewPanel viewPanel; // panel Swing que contiene la vista
-    private String[] lastUsers = new String[0]; // usuarios la última vez renderizados (orden fijo)
-    private int lastEdgeCount; // número de aristas la última vez
+    private final JLabel placeholder = new JLabel("Cargando grafo…", SwingConstants.CENTER); // visible hasta el primer render
+    private Graph graph; // grafo subyacente de GraphStream (se crea en el primer render)
+    private Viewer viewer; // viewer que maneja la visualización
+    private ViewPanel viewPanel; // panel Swing que contiene la vista
+    private RenderHud hud; // tiempos por fase del último render
+    private boolean hudVisible; // superposición pedida (también antes de crear la vista)
+    private String[] renderedUsers = new String[0]; // usuarios del último snapshot dibujado
+    private String[][] renderedNeighbors = new String[0][]; // vecinos del último snapshot dibujado
+    private HandleIndex renderedIndex = new HandleIndex(0); // handle -> posición en renderedUsers
+    private int placedNodes; // nodos posicionados desde la última reconstrucción
+    private String[] modelUsers = new String[0]; // grafo completo a representar (puede no estar todo en GraphStream)
+    private String[][] modelNeighbors = new String[0][];
+    private HandleIndex modelIndex = new HandleIndex(0); // handle -> posición en modelUsers
+    private int[] modelComponents; // componente de cada usuario del modelo (null sin SCC)
+    private boolean culled; // solo se materializa lo que cae en la vista
+    private boolean classesFollowModel; // las clases de todos los nodos dibujados corresponden a modelComponents
+    private String stylesheet = ColorPalette.buildStylesheet(0); // hoja que debe tener el grafo
+    private double[] modelX; // posiciones del modelo recortado
+    private double[] modelY;
+    private int[] modelDegree; // grado total, para muestrear al alejarse
+    private SpatialGrid grid; // índice espacial de modelX/modelY
+    private double[] viewportBounds; // viewport del grafo fijado en la cámara
+    private int positionsVersion; // cambia cuando cambian modelX/modelY
+    private int materializedVersion = -1; // versión de posiciones aplicada a los nodos materializados
+    private double[] lastCullKey = new double[5]; // centro, zoom y tamaño del último recorte
+    private int[] visibleStamp = new int[0]; // marca de nodos visibles por recorte
+    private int cullStamp;
+    private ForceLayout forceLayout; // motor de layout por fuerzas (se crea al usarlo)
+    private int layoutGeneration; // cambia con cada nueva estructura
+    private int positionsSequence; // última entrega de posiciones en curso
+    private CondensedView condensedView; // vista condensada dibujada (null en la vista completa)
+    private ComponentToggleListener componentToggleListener; // receptor de doble clic sobre componentes
+    private NodeActivationListener nodeActivationListener; // receptor de doble clic sobre usuarios
+    private String anchorNodeId; // grupo expandido más recientemente
+    private double anchorX; // posición que tenía ese grupo
+    private double anchorY;
 
     /**
      * Supported layout algorithms.
      */
     public enum LayoutType { // tipos de layout soportados
         SPRING,
+        FORCE,
+        FORCE_BY_SCC,
         NO_LAYOUT
     }
 
     /**
-     * Creates the panel and initializes the GraphStream components.
+     * Creates the panel with a placeholder. The GraphStream graph and viewer
+     * are created on the first render, so building the window does not pay
+     * for loading and starting them.
      */
-    public GraphPanel() { // constructor: inicializa GraphStream y componentes Swing
+    public GraphPanel() { // constructor: solo componentes Swing
         super(new BorderLayout()); // usa BorderLayout
+        add(placeholder, BorderLayout.CENTER); // hasta que llegue el primer grafo
+        new Timer(CULL_POLL_MILLIS, e -> pollCamera()).start(); // la cámara no notifica desplazamientos ni zoom
+    }
+
+    private void ensureView() { // crea GraphStream al primer uso
+        if (viewer != null) {
+            return;
+        }
         // Configurar el sistema para usar Swing
         System.setProperty("org.graphstream.ui", "swing"); // fuerza implementación Swing
 
         this.graph = new SingleGraph("KosarajuNexus"); // crea instancia de grafo GraphStream
-        graph.setAttribute(UI_STYLESHEET, ColorPalette.buildStylesheet(0)); // aplica stylesheet inicial (sin componentes)
+        graph.setAttribute(UI_STYLESHEET, stylesheet); // aplica stylesheet inicial (sin componentes)
         graph.setAttribute("ui.quality"); // mejora calidad visual
         graph.setAttribute("ui.antialias"); // activa antialiasing
 
@@ -60,144 +129,618 @@ public class GraphPanel extends JPanel { // panel que encapsula la vista del gra
         // No usar layout automático por defecto: usaremos un layout 2D estático (plano)
         viewer.disableAutoLayout(); // desactiva layout automático por defecto
 
-        add(viewPanel, BorderLayout.CENTER); // añade panel de vista al centro
+        viewPanel.addMouseListener(new MouseAdapter() { // doble clic en la vista condensada
+            @Override
+            public void mouseClicked(final MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    handleDoubleClick(e);
+                }
+            }
+        });
+
+        this.hud = new RenderHud(graph);
+        hud.setVisible(hudVisible);
+        remove(placeholder);
+        add(new JLayer<JComponent>(viewPanel, hud), BorderLayout.CENTER); // añade panel de vista al centro, bajo la superposición
+        revalidate();
     }
 
     /**
-     * Updates the visualization to reflect the supplied graph snapshot.
+     * Updates the visualization to reflect the supplied graph snapshot. The
+     * snapshot is diffed against the last rendered one and only the nodes and
+     * edges that changed are added or removed, so existing nodes keep their
+     * positions; a full rebuild happens only on the first render or when most
+     * of the graph was replaced.
      *
-     * @param snapshot graph snapshot
+     * <p>
+     * The arrays are built off the EDT by the caller and handed over: the
+     * panel keeps them as its model without copying, so they must not be
+     * modified afterwards.</p>
+     *
+     * @param users handles in snapshot order
+     * @param neighbors followed handles of each user (parallel to {@code users})
      * @param sccMapping optional mapping from handle to SCC id (may be null)
      */
-    public void renderGraph(final DirectedGraph snapshot, final GraphService.SccMapping sccMapping) { // renderiza un snapshot del grafo
-        if (snapshot == null) {
-            throw new IllegalArgumentException("snapshot");
+    public void renderGraph(final String[] users, final String[][] neighbors, final GraphService.SccMapping sccMapping) { // renderiza un snapshot del grafo
+        if (users == null || neighbors == null || users.length != neighbors.length) {
+            throw new IllegalArgumentException("users/neighbors");
         }
-        final DirectedGraph.AdjacencyView adjacency = snapshot.getAdjacencyView(); // obtiene adyacencia inmutable
-        final String[] usersArr = adjacency.users();
-        final int edgeCount = snapshot.getEdgeCount(); // número de aristas
+        ensureView();
+        hud.beginRender("completo");
+        final long start = System.nanoTime();
         final GraphService.SccMapping mapping = (sccMapping == null || sccMapping.isEmpty()) ? null : sccMapping; // mapeo opcional
-        final int componentCount;
-        if (mapping == null) {
-            componentCount = 0;
-        } else {
-            // contar ids distintos en mapping.componentIds
-            final int[] ids = mapping.componentIds();
-            int max = -1;
-            for (int id : ids) {
-                if (id > max) {
-                    max = id;
-                }
+        int componentCount = 0;
+        if (mapping != null) {
+            // las clases usan el id de componente (ids globales en la vista ego): la hoja debe cubrir el mayor id
+            for (int id : mapping.componentIds()) {
+                componentCount = Math.max(componentCount, id + 1);
+            }
+        }
+        stylesheet = ColorPalette.buildStylesheet(componentCount); // hoja en caché según colores necesarios; se aplica con la estructura
+        invalidateLayout();
+        condensedView = null;
+
+        final HandleIndex index = new HandleIndex(users.length);
+        for (int i = 0; i < users.length; i++) {
+            index.putIfAbsent(users[i], i);
+        }
+        final int[] components = mapping == null ? null : componentsOf(mapping, index, users.length);
+        hud.add(RenderHud.Phase.DIFF, System.nanoTime() - start);
+        if (users.length > CULLING_THRESHOLD) { // grafo enorme: solo lo visible
+            classesFollowModel = false;
+            renderCulled(users, neighbors, index, components);
+            return;
+        }
+        leaveCulling();
+        final boolean rebuilt = renderStructure(users, neighbors);
+        final long classesStart = System.nanoTime();
+        applyNodeClasses(users, components, rebuilt); // colores por componente
+        hud.add(RenderHud.Phase.ELEMENTS, System.nanoTime() - classesStart);
+        setModel(users, neighbors, index, components);
+        classesFollowModel = true;
+    }
+
+    /**
+     * Renders the SCC condensation instead of individual users: one node per
+     * component, sized by member count, with one edge per pair of connected
+     * components. The expanded component, if any, is drawn as its members
+     * around the position its node had. Double-clicking a component node
+     * notifies the {@link ComponentToggleListener}.
+     *
+     * @param view condensed view built by the service
+     */
+    public void renderCondensedView(final CondensedView view) { // nivel de detalle por componentes
+        if (view == null) {
+            throw new IllegalArgumentException("view");
+        }
+        ensureView();
+        hud.beginRender("por componentes");
+        final long start = System.nanoTime();
+        final int groups = view.groupCount();
+        final String[] members = view.members();
+        final String[] ids = new String[groups + members.length];
+        for (int g = 0; g < groups; g++) {
+            ids[g] = groupNodeId(view.groupComponent()[g]);
+        }
+        System.arraycopy(members, 0, ids, groups, members.length);
+
+        final int[] inOffsets = new int[groups + 1]; // miembros seguidos desde cada grupo
+        for (int m = 0; m < members.length; m++) {
+            for (int g : view.memberInGroups()[m]) {
+                inOffsets[g + 1]++;
+            }
+        }
+        for (int g = 0; g < groups; g++) {
+            inOffsets[g + 1] += inOffsets[g];
+        }
+        final int[] fill = new int[groups];
+        final String[] inMembers = new String[inOffsets[groups]];
+        for (int m = 0; m < members.length; m++) {
+            for (int g : view.memberInGroups()[m]) {
+                inMembers[inOffsets[g] + fill[g]++] = members[m];
+            }
+        }
+        final String[][] neighbors = new String[ids.length][];
+        for (int g = 0; g < groups; g++) {
+            final int from = view.offsets()[g];
+            final int to = view.offsets()[g + 1];
+            final String[] out = new String[to - from + inOffsets[g + 1] - inOffsets[g]];
+            for (int p = from; p < to; p++) {
+                out[p - from] = ids[view.targets()[p]];
+            }
+            System.arraycopy(inMembers, inOffsets[g], out, to - from, inOffsets[g + 1] - inOffsets[g]);
+            neighbors[g] = out;
+        }
+        for (int m = 0; m < members.length; m++) {
+            final String[] follows = view.memberFollows()[m];
+            final int[] outGroups = view.memberOutGroups()[m];
+            final String[] out = new String[follows.length + outGroups.length];
+            System.arraycopy(follows, 0, out, 0, follows.length);
+            for (int k = 0; k < outGroups.length; k++) {
+                out[follows.length + k] = ids[outGroups[k]];
+            }
+            neighbors[groups + m] = out;
+        }
+
+        final String expandedId = view.expandedComponent() >= 0 ? groupNodeId(view.expandedComponent()) : null;
+        final Node expandedNode = expandedId == null ? null : graph.getNode(expandedId);
+        if (expandedNode != null) { // los miembros aparecerán alrededor del nodo que los representaba
+            final double[] xy = positionOf(expandedNode);
+            anchorNodeId = expandedId;
+            anchorX = xy[0];
+            anchorY = xy[1];
+        }
+        final boolean[] isNew = new boolean[members.length];
+        for (int m = 0; m < members.length; m++) {
+            isNew[m] = renderedIndex.get(members[m]) < 0;
+        }
+        final boolean restoreAnchor = anchorNodeId != null && !anchorNodeId.equals(expandedId) && graph.getNode(anchorNodeId) == null;
+
+        invalidateLayout();
+        leaveCulling();
+        stylesheet = ColorPalette.buildCondensedStylesheet();
+        classesFollowModel = false; // grupos y miembros usan las clases de la vista condensada
+        hud.add(RenderHud.Phase.DIFF, System.nanoTime() - start);
+        renderStructure(ids, neighbors);
+
+        final long attributesStart = System.nanoTime();
+        for (int g = 0; g < groups; g++) { // tamaño, color y etiqueta de cada grupo
+            final Node node = graph.getNode(ids[g]);
+            final int component = view.groupComponent()[g];
+            final int size = view.groupSizes()[g];
+            setAttributeIfChanged(node, "ui.size", Math.min(MAX_GROUP_SIZE_PX, MIN_GROUP_SIZE_PX + GROUP_SIZE_STEP_PX * log2(size)));
+            setAttributeIfChanged(node, "ui.label", component == CondensedView.REST
+                    ? view.groupComponentCounts()[g] + " componentes más (" + size + ")"
+                    : "SCC " + component + " (" + size + ")");
+            setClassIfChanged(node, component == CondensedView.REST ? "rest" : ColorPalette.groupClassFor(component));
+        }
+        final String memberClass = ColorPalette.groupClassFor(view.expandedComponent());
+        for (int m = 0; m < members.length; m++) {
+            final Node node = graph.getNode(members[m]);
+            setClassIfChanged(node, memberClass);
+            node.removeAttribute("ui.size");
+            if (isNew[m] && anchorNodeId != null) { // espiral de Fermat alrededor del nodo expandido
+                final double radius = MEMBER_SPACING * Math.sqrt(m + 1);
+                final double angle = GOLDEN_ANGLE * m;
+                node.setAttribute("xy", anchorX + Math.cos(angle) * radius, anchorY + Math.sin(angle) * radius);
+            }
+        }
+        if (restoreAnchor && graph.getNode(anchorNodeId) != null) { // al contraer, el grupo vuelve a su sitio
+            graph.getNode(anchorNodeId).setAttribute("xy", anchorX, anchorY);
+        }
+        hud.add(RenderHud.Phase.ELEMENTS, System.nanoTime() - attributesStart);
+        setModel(ids, neighbors, renderedIndex, null); // los grupos ya son componentes
+        condensedView = view;
+    }
+
+    /**
+     * Registers the listener notified when a component node is
+     * double-clicked in the condensed view (with {@code -1} when a member of
+     * the expanded component is double-clicked, to collapse it).
+     *
+     * @param listener listener or {@code null}
+     */
+    public void setComponentToggleListener(final ComponentToggleListener listener) {
+        this.componentToggleListener = listener;
+    }
+
+    /**
+     * Receives expand/collapse requests from the condensed view.
+     */
+    @FunctionalInterface
+    public interface ComponentToggleListener {
+
+        void onComponentToggled(int component);
+    }
+
+    /**
+     * Registers the listener notified when a user node is double-clicked
+     * outside the condensed view.
+     *
+     * @param listener listener or {@code null}
+     */
+    public void setNodeActivationListener(final NodeActivationListener listener) {
+        this.nodeActivationListener = listener;
+    }
+
+    /**
+     * Receives double-clicks on user nodes.
+     */
+    @FunctionalInterface
+    public interface NodeActivationListener {
+
+        void onNodeActivated(String handle);
+    }
+
+    private void handleDoubleClick(final MouseEvent event) { // expande o contrae una componente, o activa un usuario
+        final GraphicElement element = viewPanel.findGraphicElementAt(EnumSet.of(InteractiveElement.NODE), event.getX(), event.getY());
+        if (element == null) {
+            return;
+        }
+        final String id = element.getId();
+        final CondensedView view = condensedView;
+        if (view == null) {
+            if (nodeActivationListener != null) {
+                nodeActivationListener.onNodeActivated(id);
             }
-            if (max < 0) {
-                componentCount = 0;
+            return;
+        }
+        if (componentToggleListener == null) {
+            return;
+        }
+        if (id.startsWith(GROUP_PREFIX) && !id.equals(REST_NODE_ID)) {
+            componentToggleListener.onComponentToggled(Integer.parseInt(id.substring(GROUP_PREFIX.length())));
+        } else if (!id.startsWith(GROUP_PREFIX) && view.expandedComponent() >= 0) {
+            componentToggleListener.onComponentToggled(-1); // miembro: contrae
+        }
+    }
+
+    private static String groupNodeId(final int component) { // los handles empiezan por '@': no hay colisión
+        return component == CondensedView.REST ? REST_NODE_ID : GROUP_PREFIX + component;
+    }
+
+    private static double log2(final int value) {
+        return Math.log(Math.max(1, value)) / Math.log(2);
+    }
+
+    private static double[] positionOf(final Node node) { // posición "xy" de un nodo (origen si no tiene)
+        final Object xy = node.getAttribute("xy");
+        if (xy instanceof Object[] values && values.length >= 2 && values[0] instanceof Number x && values[1] instanceof Number y) {
+            return new double[]{x.doubleValue(), y.doubleValue()};
+        }
+        return new double[]{0.0, 0.0};
+    }
+
+    private boolean renderStructure(final String[] users, final String[][] neighbors) { // aplica la nueva estructura con el mínimo de cambios
+        final long start = System.nanoTime();
+        final HandleIndex index = new HandleIndex(users.length); // handle -> posición en el nuevo snapshot
+        for (int i = 0; i < users.length; i++) {
+            index.putIfAbsent(users[i], i);
+        }
+        final boolean rebuild = requiresRebuild(index);
+        hud.add(RenderHud.Phase.DIFF, System.nanoTime() - start);
+        if (rebuild) {
+            graph.clear(); // borra nodos, aristas y atributos del grafo
+            applyStylesheet(); // una sola vez, ya sin nodos que reestilizar
+        } else if (!stylesheet.equals(graph.getAttribute(UI_STYLESHEET))) {
+            applyStylesheet(); // reaplicarla obliga a reestilizar todos los nodos
+        }
+        final long elementsStart = System.nanoTime();
+        if (rebuild) {
+            rebuildGraph(users, neighbors); // primera vez o grafo reemplazado casi por completo
+        } else {
+            updateGraph(users, neighbors, index); // solo las diferencias
+        }
+        hud.add(RenderHud.Phase.ELEMENTS, System.nanoTime() - elementsStart);
+        renderedUsers = users; // el snapshot es una copia privada: se puede conservar
+        renderedNeighbors = neighbors;
+        renderedIndex = index;
+        return rebuild;
+    }
+
+    private void setModel(final String[] users, final String[][] neighbors, final HandleIndex index, final int[] components) { // grafo lógico representado
+        modelUsers = users;
+        modelNeighbors = neighbors;
+        modelIndex = index;
+        modelComponents = components;
+    }
+
+    private void invalidateLayout() { // las posiciones en cálculo ya no corresponden a la nueva estructura
+        layoutGeneration++;
+        if (forceLayout != null) {
+            forceLayout.cancel();
+        }
+    }
+
+    private void renderCulled(final String[] users, final String[][] neighbors, final HandleIndex index, final int[] components) { // modelo completo + recorte por vista
+        final int n = users.length;
+        final double[] x = new double[n];
+        final double[] y = new double[n];
+        final double radius = Math.max(1.0, n / 2.0); // mismo círculo que el layout estático
+        for (int i = 0; i < n; i++) {
+            final int previous = culled ? modelIndex.get(users[i]) : -1; // los supervivientes conservan su posición
+            if (previous >= 0) {
+                x[i] = modelX[previous];
+                y[i] = modelY[previous];
             } else {
-                final boolean[] seen = new boolean[max + 1];
-                int distinct = 0;
-                for (int id : ids) {
-                    if (!seen[id]) {
-                        seen[id] = true;
-                        distinct++;
-                    }
+                final double angle = 2.0 * Math.PI * i / n;
+                x[i] = Math.cos(angle) * radius;
+                y[i] = Math.sin(angle) * radius;
+            }
+        }
+        final int[] degree = new int[n];
+        for (int i = 0; i < n; i++) {
+            degree[i] += neighbors[i].length;
+            for (String target : neighbors[i]) {
+                final int t = index.get(target);
+                if (t >= 0) {
+                    degree[t]++;
                 }
-                componentCount = distinct;
             }
         }
-        final String stylesheet = ColorPalette.buildStylesheet(componentCount); // construye stylesheet según colores necesarios
-        graph.setAttribute(UI_STYLESHEET, stylesheet); // aplica stylesheet
+        final boolean entering = !culled;
+        setModel(users, neighbors, index, components);
+        culled = true;
+        modelDegree = degree;
+        visibleStamp = new int[n];
+        cullStamp = 0;
+        setModelPositions(x, y);
+        if (entering) {
+            fitViewport(); // la cámara ya no puede ajustarse a los nodos materializados
+        }
+        cull();
+    }
 
-        if (canReuseStructure(usersArr, edgeCount, mapping)) { // intenta reutilizar estructura si no cambió topología
-            recolorNodes(usersArr, mapping); // solo recolorea nodos
-        } else {
-            rebuildGraph(adjacency, mapping, stylesheet); // reconstruye todo el grafo en la vista
+    private void setModelPositions(final double[] x, final double[] y) {
+        modelX = x;
+        modelY = y;
+        grid = SpatialGrid.build(x, y);
+        positionsVersion++;
+    }
+
+    private void leaveCulling() { // vuelve a materializar todo el grafo
+        if (!culled) {
+            return;
         }
-        lastUsers = usersArr == null ? new String[0] : usersArr.clone(); // guarda estado para próxima renderización
-        lastEdgeCount = edgeCount; // guarda conteo de aristas
+        culled = false;
+        modelX = null;
+        modelY = null;
+        modelDegree = null;
+        grid = null;
+        viewportBounds = null;
+        visibleStamp = new int[0];
+        final Camera camera = viewPanel.getCamera();
+        camera.removeGraphViewport();
+        camera.resetView(); // vuelve al ajuste automático
+    }
+
+    private void fitViewport() { // fija el viewport de la cámara al contorno del modelo
+        final double[] bounds = grid.bounds();
+        final double pad = Math.max(1.0, Math.max(bounds[2] - bounds[0], bounds[3] - bounds[1]) * 0.02);
+        viewportBounds = new double[]{bounds[0] - pad, bounds[1] - pad, bounds[2] + pad, bounds[3] + pad};
+        final Camera camera = viewPanel.getCamera();
+        camera.setGraphViewport(viewportBounds[0], viewportBounds[1], viewportBounds[2], viewportBounds[3]);
+        camera.setViewCenter((viewportBounds[0] + viewportBounds[2]) / 2.0, (viewportBounds[1] + viewportBounds[3]) / 2.0, 0.0);
+        camera.setViewPercent(1.0); // todo el modelo a la vista
     }
 
-    private boolean canReuseStructure(final String[] users, final int edgeCount, final GraphService.SccMapping mapping) { // decide si se puede reutilizar la estructura existente
-        if (mapping == null) { // si no hay mapeo SCC
-            return false; // no reutilizar (deseamos reconstruir para aplicar estilo por componentes)
+    private void pollCamera() { // recorta de nuevo si la cámara se movió o cambió el zoom
+        if (!culled) {
+            return;
         }
-        if (users == null) {
-            return false;
+        final double[] key = cameraKey();
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != lastCullKey[i]) {
+                hud.beginRender("recorte");
+                cull();
+                return;
+            }
         }
-        if (lastUsers == null) {
-            return false;
+    }
+
+    private double[] cameraKey() {
+        final Camera camera = viewPanel.getCamera();
+        final Point3 center = camera.getViewCenter();
+        return new double[]{center.x, center.y, camera.getViewPercent(), viewPanel.getWidth(), viewPanel.getHeight()};
+    }
+
+    private double[] visibleRect(final double[] key) { // rectángulo visible en unidades del grafo, con margen
+        final double width = key[3];
+        final double height = key[4];
+        if (width <= 0 || height <= 0 || viewportBounds == null) {
+            return grid.bounds(); // aún sin tamaño: todo el modelo (muestreado)
         }
-        if (lastEdgeCount != edgeCount) {
-            return false;
+        final double graphWidth = Math.max(1e-9, viewportBounds[2] - viewportBounds[0]);
+        final double graphHeight = Math.max(1e-9, viewportBounds[3] - viewportBounds[1]);
+        final double zoom = key[2] > 0 ? key[2] : 1.0;
+        final double pxPerUnit = Math.min(width / (graphWidth * zoom), height / (graphHeight * zoom)); // como DefaultCamera.userView
+        final double halfWidth = width / 2.0 / pxPerUnit * (1.0 + 2.0 * VIEW_MARGIN);
+        final double halfHeight = height / 2.0 / pxPerUnit * (1.0 + 2.0 * VIEW_MARGIN);
+        return new double[]{key[0] - halfWidth, key[1] - halfHeight, key[0] + halfWidth, key[1] + halfHeight};
+    }
+
+    private void cull() { // materializa solo los nodos visibles y las aristas entre ellos
+        final double[] key = cameraKey();
+        final double[] rect = visibleRect(key);
+        int[] visible = grid.query(rect[0], rect[1], rect[2], rect[3], modelX, modelY);
+        if (visible.length > MAX_VISIBLE_NODES) {
+            visible = sampleByDegree(visible, MAX_VISIBLE_NODES); // alejado: solo los más conectados
         }
-        if (lastUsers.length != users.length) {
-            return false;
+        final int stamp = ++cullStamp;
+        for (int v : visible) {
+            visibleStamp[v] = stamp;
         }
-        for (int i = 0; i < users.length; i++) {
-            if (!lastUsers[i].equals(users[i])) {
-                return false;
+        final String[] users = new String[visible.length];
+        final String[][] neighbors = new String[visible.length][];
+        int edges = 0;
+        for (int k = 0; k < visible.length; k++) {
+            final String[] all = modelNeighbors[visible[k]];
+            int kept = 0;
+            final String[] inside = new String[all.length];
+            for (String target : all) {
+                final int t = modelIndex.get(target);
+                if (t >= 0 && visibleStamp[t] == stamp && edges < MAX_VISIBLE_EDGES) {
+                    inside[kept++] = target;
+                    edges++;
+                }
+            }
+            users[k] = modelUsers[visible[k]];
+            neighbors[k] = kept == all.length ? inside : copyOf(inside, kept);
+        }
+        final HandleIndex before = renderedIndex;
+        final boolean rebuilt = renderStructure(users, neighbors);
+        final boolean moved = rebuilt || materializedVersion != positionsVersion;
+        for (int k = 0; k < visible.length; k++) {
+            final Node node = graph.getNode(users[k]);
+            final int v = visible[k];
+            if (moved || before.get(users[k]) < 0) {
+                node.setAttribute("xy", modelX[v], modelY[v]);
+            }
+            setClassIfChanged(node, classFor(modelComponents == null ? -1 : modelComponents[v]));
+        }
+        materializedVersion = positionsVersion;
+        lastCullKey = key;
+    }
+
+    private int[] sampleByDegree(final int[] candidates, final int limit) { // los 'limit' candidatos de mayor grado, en O(c)
+        final int buckets = 1024; // grados mayores se agrupan en el último
+        final int[] histogram = new int[buckets];
+        for (int v : candidates) {
+            histogram[Math.min(buckets - 1, modelDegree[v])]++;
+        }
+        int threshold = buckets - 1;
+        int above = 0; // candidatos con grado mayor que el umbral
+        while (threshold > 0 && above + histogram[threshold] <= limit) {
+            above += histogram[threshold];
+            threshold--;
+        }
+        final int[] sample = new int[limit];
+        int count = 0;
+        for (int v : candidates) { // primero todos los que superan el umbral
+            if (Math.min(buckets - 1, modelDegree[v]) > threshold) {
+                sample[count++] = v;
+            }
+        }
+        for (int k = 0; k < candidates.length && count < limit; k++) { // y luego el umbral hasta completar
+            if (Math.min(buckets - 1, modelDegree[candidates[k]]) == threshold) {
+                sample[count++] = candidates[k];
+            }
+        }
+        return count == limit ? sample : copyOf(sample, count);
+    }
+
+    private static String[] copyOf(final String[] values, final int length) {
+        final String[] copy = new String[length];
+        System.arraycopy(values, 0, copy, 0, length);
+        return copy;
+    }
+
+    private static int[] copyOf(final int[] values, final int length) {
+        final int[] copy = new int[length];
+        System.arraycopy(values, 0, copy, 0, length);
+        return copy;
+    }
+
+    private boolean requiresRebuild(final HandleIndex index) { // decide si conviene reconstruir en lugar de aplicar diferencias
+        if (renderedUsers.length == 0 || graph.getNodeCount() != renderedUsers.length) {
+            return true;
+        }
+        int kept = 0;
+        for (int i = 0; i < renderedUsers.length; i++) {
+            if (index.get(renderedUsers[i]) >= 0) {
+                kept++;
             }
         }
-        return true; // mismo conjunto y orden
+        return kept * 2 < renderedUsers.length; // menos de la mitad sobrevive: otro archivo
     }
 
-    private void rebuildGraph(final DirectedGraph.AdjacencyView adjacency,
-            final GraphService.SccMapping mapping,
-            final String stylesheet) { // limpia y reconstruye la estructura visual
-        graph.clear(); // borra nodos y aristas actuales
-        graph.setAttribute(UI_STYLESHEET, stylesheet); // aplica stylesheet actualizado
-        final String[] users = adjacency.users();
+    private void rebuildGraph(final String[] users, final String[][] neighbors) { // reconstruye la estructura visual sobre el grafo recién vaciado
+        graph.setAttribute("ui.quality"); // clear() también borra los atributos del grafo
+        graph.setAttribute("ui.antialias");
         for (String user : users) {
-            addOrUpdateNode(user, mapping);
+            addNode(user);
         }
-        int edgeCounter = 0; // contador para ids de aristas
-        final String[][] neighbors = adjacency.neighbors();
         for (int i = 0; i < users.length; i++) {
-            final String from = users[i];
             final String[] neigh = neighbors[i];
             for (int j = 0; j < neigh.length; j++) {
-                final String to = neigh[j];
-                edgeCounter++;
-                final String edgeId = "e" + edgeCounter + ":" + from + "->" + to; // id único por arista
-                graph.addEdge(edgeId, from, to, true); // crea arista dirigida
+                graph.addEdge(edgeId(users[i], neigh[j]), users[i], neigh[j], true); // crea arista dirigida
             }
         }
         // Aplicar un layout 2D estático y plano (sin movimiento). Usamos un layout circular simple.
-        applyStaticLayout(adjacency.users()); // asigna posiciones fijas a nodos
+        applyStaticLayout(users); // asigna posiciones fijas a nodos
+        placedNodes = users.length;
     }
 
-    private void recolorNodes(final String[] users, final GraphService.SccMapping mapping) { // actualiza etiquetas y clases CSS de nodos existentes
-        if (users == null) {
-            return;
+    private void updateGraph(final String[] users, final String[][] neighbors, final HandleIndex index) { // aplica solo altas y bajas
+        final int n = users.length;
+        for (int i = 0; i < renderedUsers.length; i++) { // bajas de nodos (arrastran sus aristas)
+            if (index.get(renderedUsers[i]) < 0) {
+                graph.removeNode(renderedUsers[i]);
+            }
         }
-        for (String user : users) { // itera usuarios
-            final Node node = graph.getNode(user); // obtiene nodo por id (handle)
-            if (node != null) { // si existe
-                node.setAttribute("ui.label", user); // actualiza etiqueta visible
-                applyNodeClass(node, mapping); // aplica clase CSS según componente
+        for (int u = 0; u < n; u++) { // altas de nodos antes que sus aristas
+            if (renderedIndex.get(users[u]) < 0) {
+                placeNewNode(addNode(users[u]), n);
+            }
+        }
+        final int[] oldTarget = new int[n]; // marca (u + 1): destino ya dibujado desde u
+        final int[] newTarget = new int[n]; // marca (u + 1): destino presente en el snapshot
+        for (int u = 0; u < n; u++) { // aristas de cada usuario: bajas y altas
+            final String[] wanted = neighbors[u];
+            final int before = renderedIndex.get(users[u]);
+            if (before >= 0) {
+                for (int j = 0; j < wanted.length; j++) {
+                    newTarget[index.get(wanted[j])] = u + 1;
+                }
+                final String[] drawn = renderedNeighbors[before];
+                for (int j = 0; j < drawn.length; j++) {
+                    final int t = index.get(drawn[j]);
+                    if (t < 0) {
+                        continue; // el destino ya se eliminó con su nodo
+                    }
+                    oldTarget[t] = u + 1;
+                    if (newTarget[t] != u + 1) {
+                        graph.removeEdge(edgeId(users[u], drawn[j]));
+                    }
+                }
+            }
+            for (int j = 0; j < wanted.length; j++) {
+                if (before < 0 || oldTarget[index.get(wanted[j])] != u + 1) {
+                    graph.addEdge(edgeId(users[u], wanted[j]), users[u], wanted[j], true);
+                }
             }
         }
     }
 
-    private void addOrUpdateNode(final String handle, final GraphService.SccMapping mapping) { // añade un nodo si no existe o lo actualiza
-        Node node = graph.getNode(handle); // intenta obtener nodo
-        if (node == null) { // si no existe
-            node = graph.addNode(handle); // lo crea
+    private void applyStylesheet() { // GraphStream reinterpreta la hoja completa cada vez que se asigna
+        final long start = System.nanoTime();
+        graph.setAttribute(UI_STYLESHEET, stylesheet);
+        hud.add(RenderHud.Phase.STYLESHEET, System.nanoTime() - start);
+    }
+
+    private static String edgeId(final String from, final String to) { // id estable: los handles no contienen saltos de línea
+        return from + '\n' + to;
+    }
+
+    private void applyNodeClasses(final String[] users, final int[] components, final boolean rebuilt) { // actualiza clases CSS solo de los nodos cuya componente cambió
+        final boolean incremental = classesFollowModel && !rebuilt;
+        for (int v = 0; v < users.length; v++) {
+            final int component = components == null ? -1 : components[v];
+            final int before = incremental ? modelIndex.get(users[v]) : -1;
+            if (before >= 0 && component == (modelComponents == null ? -1 : modelComponents[before])) {
+                continue; // misma componente que en el render anterior
+            }
+            setClassIfChanged(graph.getNode(users[v]), classFor(component));
         }
+    }
+
+    private Node addNode(final String handle) { // crea un nodo fijo con su etiqueta
+        final Node node = graph.addNode(handle);
         node.setAttribute("ui.label", handle); // etiqueta con el handle
         // Marcar el nodo como no interactivo / fijo para evitar arrastre por ratón
         node.setAttribute("ui.lock", true); // atributo usado por GraphStream
         node.setAttribute("locked", true); // atributo adicional para asegurar bloqueo
-        applyNodeClass(node, mapping); // aplica clase CSS
+        return node;
     }
 
-    private void applyNodeClass(final Node node, final GraphService.SccMapping mapping) { // asigna clase CSS al nodo según su SCC
-        if (mapping != null) { // si hay mapeo
-            final int id = mapping.findComponentIdFor(node.getId()); // obtiene id de componente para este nodo
-            if (id >= 0) { // si pertenece a una componente
-                node.setAttribute(UI_CLASS, "scc-" + id); // asigna clase scc-N
-                return; // fin
-            }
+    private void placeNewNode(final Node node, final int total) { // posición para un nodo añadido sin mover los existentes
+        final double radius = Math.max(1.0, total / 2.0); // mismo radio que el layout circular
+        final double angle = GOLDEN_ANGLE * placedNodes++; // ángulo áureo: reparte los nodos nuevos sin solaparlos
+        node.setAttribute("xy", Math.cos(angle) * radius, Math.sin(angle) * radius);
+    }
+
+    private static String classFor(final int component) { // clase CSS según la SCC del nodo
+        return component >= 0 ? ColorPalette.sccClassFor(component) : "default";
+    }
+
+    private static void setClassIfChanged(final Node node, final String cssClass) { // evita eventos de atributo innecesarios
+        setAttributeIfChanged(node, UI_CLASS, cssClass);
+    }
+
+    private static void setAttributeIfChanged(final Node node, final String attribute, final Object value) { // solo emite el evento si el valor cambia
+        if (!value.equals(node.getAttribute(attribute))) {
+            node.setAttribute(attribute, value);
         }
-        node.setAttribute(UI_CLASS, "default"); // clase por defecto
     }
 
     /**
@@ -228,10 +771,45 @@ public class GraphPanel extends JPanel { // panel que encapsula la vista del gra
         }
     }
 
+    /**
+     * Shows or hides the overlay with the last render's phase timings,
+     * element counts and painted frames per second.
+     *
+     * @param show {@code true} to show it
+     */
+    public void setHudVisible(final boolean show) {
+        hudVisible = show;
+        if (hud != null) {
+            hud.setVisible(show);
+            viewPanel.repaint();
+        }
+    }
+
+    /**
+     * Records how long the caller took to copy the snapshot that the next
+     * render will draw, so the overlay can show it next to the panel's own
+     * phases.
+     *
+     * @param nanos snapshot copy time in nanoseconds
+     */
+    public void reportSnapshotTime(final long nanos) {
+        ensureView(); // precede al render que dibuja ese snapshot
+        hud.set(RenderHud.Phase.SNAPSHOT, nanos);
+    }
+
     /**
      * Recenters the camera resetting zoom and translation.
      */
     public void recenter() { // centra la cámara en la vista
+        if (viewer == null) {
+            return; // aún no se dibujó nada
+        }
+        if (culled) { // el ajuste automático solo vería los nodos materializados
+            fitViewport();
+            hud.beginRender("recorte");
+            cull();
+            return;
+        }
         final Camera camera = viewPanel.getCamera(); // obtiene cámara de la vista
         camera.resetView(); // resetea zoom/traducción
     }
@@ -245,22 +823,118 @@ public class GraphPanel extends JPanel { // panel que encapsula la vista del gra
         if (layoutType == null) {
             throw new IllegalArgumentException("layoutType");
         }
+        ensureView();
         switch (layoutType) {
             case SPRING -> { // layout tipo resorte (dinámico)
                 SpringBox springBox = new SpringBox(); // instancia SpringBox
                 viewer.enableAutoLayout(springBox); // habilita layout automático con SpringBox
             }
-            case NO_LAYOUT ->
+            case FORCE, FORCE_BY_SCC -> { // Barnes-Hut en hilos de fondo
+                viewer.disableAutoLayout(); // las posiciones llegan ya calculadas
+                startForceLayout(layoutType == LayoutType.FORCE_BY_SCC);
+            }
+            case NO_LAYOUT -> {
                 viewer.disableAutoLayout(); // desactiva layout automático
+                if (forceLayout != null) {
+                    forceLayout.cancel();
+                }
+            }
             default ->
                 throw new IllegalArgumentException("Layout no soportado: " + layoutType); // caso no esperado
         }
     }
 
+    private void startForceLayout(final boolean clusterByComponent) { // calcula posiciones fuera del EDT
+        final String[] users = modelUsers;
+        final String[][] neighbors = modelNeighbors;
+        final int n = users.length;
+        final int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + neighbors[i].length;
+        }
+        final int[] targets = new int[offsets[n]];
+        final double[] x = new double[n];
+        final double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < neighbors[i].length; j++) {
+                targets[offsets[i] + j] = modelIndex.get(neighbors[i][j]);
+            }
+            if (culled) {
+                x[i] = modelX[i];
+                y[i] = modelY[i];
+                continue;
+            }
+            final Node node = graph.getNode(users[i]);
+            final double[] xy = node == null ? new double[]{0.0, 0.0} : positionOf(node);
+            x[i] = xy[0];
+            y[i] = xy[1];
+        }
+        if (forceLayout == null) {
+            forceLayout = new ForceLayout();
+        }
+        final int generation = layoutGeneration;
+        final ForceLayout.Options defaults = ForceLayout.Options.defaults();
+        forceLayout.start(offsets, targets, modelComponents, x, y,
+                new ForceLayout.Options(defaults.iterations(), defaults.theta(), defaults.publishEvery(), clusterByComponent),
+                (px, py, done) -> SwingUtilities.invokeLater(() -> publishPositions(generation, users, px, py, done)));
+    }
+
+    private void publishPositions(final int generation, final String[] users,
+            final double[] x, final double[] y, final boolean done) { // en el EDT
+        if (generation != layoutGeneration) {
+            return; // la estructura cambió mientras se calculaba
+        }
+        if (culled) { // se actualiza el modelo y se vuelve a recortar
+            setModelPositions(x, y);
+            if (done) {
+                fitViewport();
+            }
+            hud.beginRender("recorte");
+            cull();
+            return;
+        }
+        final int sequence = ++positionsSequence; // una entrega posterior sustituye a esta
+        applyPositions(generation, sequence, users, x, y, 0);
+    }
+
+    private void applyPositions(final int generation, final int sequence,
+            final String[] users, final double[] x, final double[] y, final int from) { // por tandas para no bloquear el EDT
+        if (generation != layoutGeneration || sequence != positionsSequence) {
+            return;
+        }
+        final int to = Math.min(users.length, from + POSITION_BATCH);
+        for (int i = from; i < to; i++) {
+            final Node node = graph.getNode(users[i]);
+            if (node != null) {
+                node.setAttribute("xy", x[i], y[i]);
+            }
+        }
+        if (to < users.length) {
+            SwingUtilities.invokeLater(() -> applyPositions(generation, sequence, users, x, y, to));
+        }
+    }
+
+    private static int[] componentsOf(final GraphService.SccMapping mapping, final HandleIndex index, final int count) { // componente de cada usuario en O(V)
+        final int[] components = new int[count];
+        for (int i = 0; i < components.length; i++) {
+            components[i] = -1;
+        }
+        final String[] handles = mapping.handles();
+        final int[] ids = mapping.componentIds();
+        for (int i = 0; i < handles.length; i++) {
+            final int position = index.get(handles[i]);
+            if (position >= 0) {
+                components[position] = ids[i];
+            }
+        }
+        return components;
+    }
+
     /**
      * @return underlying GraphStream {@link Viewer}
      */
     public Viewer getViewer() { // expone viewer subyacente
+        ensureView();
         return viewer; // retorna viewer
     }
 
@@ -268,6 +942,7 @@ public class GraphPanel extends JPanel { // panel que encapsula la vista del gra
      * @return underlying GraphStream {@link ViewPanel}
      */
     public ViewPanel getViewPanel() { // expone panel de vista
+        ensureView();
         return viewPanel; // retorna viewPanel
     }
 }
@@ -1,6 +1,15 @@
 package ui; // ventana principal de la aplicación
 
-import domain.DirectedGraph; // snapshot del grafo
+import domain.CondensedView; // vista por componentes
+import domain.EgoNetwork; // vecindario de un usuario
+import domain.GraphDelta; // cambios aplicados por una recarga
+import domain.GraphDiff; // informe de comparación
+import domain.HandlePrefixIndex; // búsqueda por prefijo de handle
+import domain.IndexedGraph; // instantánea inmutable del grafo
+import io.CompressedStreams; // extensión de archivos comprimidos
+import io.EdgeListImporter; // importador de listas de aristas
+import services.AutosaveService; // autoguardado en segundo plano
+import services.FollowEventIngestor; // ingesta de eventos de seguimiento
 import services.GraphService; // servicio del grafo
 import services.GraphService.GraphLoadResult; // resultado al cargar
 import services.GraphService.SccComputationResult; // resultado SCC
@@ -10,6 +19,7 @@ import util.UnsavedChangesTracker; // tracker de cambios no guardados
 import javax.swing.Box; // espaciador horizontal
 import javax.swing.BoxLayout; // layout para status bar
 import javax.swing.JButton; // botón
+import javax.swing.JCheckBoxMenuItem; // opción activable del menú Ver
 import javax.swing.JFileChooser; // selector de archivos
 import javax.swing.JFrame; // ventana principal
 import javax.swing.JLabel; // etiqueta de estado
@@ -22,17 +32,21 @@ import javax.swing.JSeparator; // separador en toolbars
 import javax.swing.JToolBar; // toolbar
 import javax.swing.SwingConstants; // constantes Swing
 import javax.swing.SwingUtilities; // utilidades Swing
+import javax.swing.Timer; // recálculo diferido de SCC
 import javax.swing.WindowConstants; // constantes de ventana
 import javax.swing.filechooser.FileNameExtensionFilter; // filtro para selector de archivos
 import java.awt.BorderLayout; // layout principal
+import java.awt.Component; // controles habilitables
 import java.awt.Dimension; // dimensiones preferidas
 import java.awt.event.WindowAdapter; // escucha cierre ventana
 import java.awt.event.WindowEvent; // evento de ventana
 import java.io.File; // representación de archivo
 import java.io.IOException; // excepción E/S
 import java.nio.file.Path; // ruta
+import java.util.Locale; // minúsculas independientes del idioma
+import java.util.concurrent.ExecutorService; // hilo del recálculo de SCC
+import java.util.concurrent.Executors; // fábrica de ejecutores
 // avoid java.util imports here; use arrays and service types instead
-import domain.User; // usuario del dominio
 
 /**
  * Ventana principal de la aplicación que contiene menús, toolbar, la vista del
@@ -48,6 +62,8 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
     private static final String MENU_TEXT_ADD_RELATION = "Agregar relación";
     private static final String MENU_TEXT_REMOVE_RELATION = "Eliminar relación";
     private static final String MENU_TEXT_DETECT_SCC = "Detectar SCC (Kosaraju)";
+    private static final String MENU_TEXT_START_INGEST = "Seguir registro de eventos…";
+    private static final String MENU_TEXT_STOP_INGEST = "Detener registro de eventos";
     private static final String STATUS_PREFIX_FILE = "Archivo: "; // prefijos para status bar
     private static final String STATUS_PREFIX_USERS = "Usuarios: ";
     private static final String STATUS_PREFIX_RELATIONS = "Relaciones: ";
@@ -55,8 +71,22 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
     private static final String DEFAULT_FILE_NAME = "Memoria"; // nombre cuando no hay archivo
     private static final String UNSAVED_FILE_NAME = "Sin título"; // nombre mostrado en diálogos de guardado
     private static final String TXT_EXTENSION = ".txt"; // extensión por defecto
+    private static final String EXPORT_GRAPHML = "graphml"; // extensión de exportación GraphML
+    private static final String EXPORT_DOT = "dot"; // extensión de exportación DOT
+    private static final int DIFF_SAMPLE_SIZE = 10; // relaciones listadas por tipo al comparar
     private static final String WARNINGS_HEADER = "Se detectaron observaciones:"; // encabezado para advertencias al cargar
     private static final String WARNINGS_BULLET = "\u2022 "; // viñeta
+    private static final String MENU_TEXT_CONDENSED = "Vista por componentes (SCC)";
+    private static final String MENU_TEXT_EGO = "Vecindario de un usuario…";
+    private static final String MENU_TEXT_EGO_EXIT = "Ver grafo completo";
+    private static final int EGO_DEFAULT_HOPS = 2; // radio sugerido
+    private static final int EGO_MAX_HOPS = 10; // radio máximo aceptado
+    private static final int EGO_MAX_USERS = 3000; // usuarios dibujados como máximo en el vecindario
+    private static final int CONDENSED_AUTO_USERS = 5000; // a partir de aquí se usa la vista por componentes
+    private static final int CONDENSED_MAX_GROUPS = 1500; // nodos de componente dibujados como máximo
+    private static final int CONDENSED_MAX_EXPANDED = 5000; // miembros máximos al expandir una componente
+    private static final String STATUS_SCC_STALE = "Componentes desactualizadas: recalculando…";
+    private static final int SCC_RECOMPUTE_DELAY_MILLIS = 500; // calma tras la última edición antes de recalcular SCC para la vista condensada
 
     private final GraphService graphService; // servicio inyectado
     private final UnsavedChangesTracker changesTracker; // tracker inyectado
@@ -64,11 +94,29 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
 
     private JMenuItem saveMenuItem; // referencia a item guardar para habilitar/deshabilitar
     private JMenuItem detectSccMenuItem; // item para detectar SCC
+    private JMenuItem ingestMenuItem; // item para iniciar/detener la ingesta de eventos
+    private FollowEventIngestor eventIngestor; // ingesta activa (null si no hay)
+    private AutosaveService autosaveService; // autoguardado activo (null hasta terminar el arranque)
+    private JCheckBoxMenuItem condensedMenuItem; // alterna la vista por componentes
+    private boolean condensedChosen; // el usuario eligió la vista explícitamente
+    private int expandedComponent = -1; // componente expandida en la vista condensada
+    private CondensedView condensedView; // última vista condensada dibujada
+    private JMenuItem egoExitMenuItem; // vuelve del vecindario al grafo completo
+    private String egoHandle; // usuario central del vecindario (null = grafo completo)
+    private int egoHops = EGO_DEFAULT_HOPS; // radio del vecindario
+    private GraphPanel.LayoutType pendingLayout; // layout a aplicar tras el próximo cuadro
+    private final RenderScheduler<ViewFrame> renderScheduler; // agrupa los repintados
+    private final Timer sccRecomputeTimer; // recálculo de SCC diferido tras ediciones (vista condensada)
+    private final ExecutorService sccExecutor; // hilo del recálculo diferido
+    private volatile ViewState viewState = new ViewState(null, EGO_DEFAULT_HOPS, false, false, -1); // modo leído por el hilo de captura
 
     private JLabel statusFileLabel; // etiqueta estado archivo
     private JLabel statusUsersLabel; // etiqueta estado usuarios
     private JLabel statusRelationsLabel; // etiqueta estado relaciones
     private JLabel statusSccLabel; // etiqueta estado SCC
+    private JLabel statusActivityLabel; // etiqueta de tareas en segundo plano (autoguardado, recargas)
+    private Component[] graphControls; // menús y botones que usan el grafo (se deshabilitan durante la carga inicial)
+    private boolean graphLoading; // la carga inicial tiene tomado el monitor del servicio
 
     public MainFrame(final GraphService graphService, final UnsavedChangesTracker changesTracker) { // constructor
         super(TITLE_BASE); // setea título base
@@ -81,6 +129,29 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         this.graphService = graphService;
         this.changesTracker = changesTracker;
         this.graphPanel = new GraphPanel(); // crea panel de grafo
+        this.renderScheduler = new RenderScheduler<>(new RenderScheduler.Renderer<ViewFrame>() {
+            @Override
+            public ViewFrame capture() {
+                return captureFrame();
+            }
+
+            @Override
+            public void apply(final ViewFrame frame) {
+                applyFrame(frame);
+            }
+
+            @Override
+            public void failed(final String message) {
+                statusActivityLabel.setText(message);
+            }
+        });
+        this.sccExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "scc-recompute");
+            thread.setDaemon(true); // no impide cerrar la aplicación
+            return thread;
+        });
+        this.sccRecomputeTimer = new Timer(SCC_RECOMPUTE_DELAY_MILLIS, e -> scheduleSccRecompute());
+        this.sccRecomputeTimer.setRepeats(false);
         initializeUi(); // inicializa todos los componentes UI
     }
 
@@ -95,9 +166,23 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
             }
         });
 
-        setJMenuBar(buildMenuBar()); // menú superior
-        add(buildToolBar(), BorderLayout.NORTH); // toolbar arriba
+        final JMenuBar menuBar = buildMenuBar();
+        final JToolBar toolBar = buildToolBar();
+        final Component[] tools = toolBar.getComponents();
+        graphControls = new Component[3 + tools.length]; // Archivo, Editar, Ver y los botones
+        for (int i = 0; i < 3; i++) {
+            graphControls[i] = menuBar.getMenu(i);
+        }
+        System.arraycopy(tools, 0, graphControls, 3, tools.length);
+        setJMenuBar(menuBar); // menú superior
+        add(toolBar, BorderLayout.NORTH); // toolbar arriba
         add(graphPanel, BorderLayout.CENTER); // panel de grafo centro
+        graphPanel.setComponentToggleListener(this::handleComponentToggled); // doble clic en la vista condensada
+        graphPanel.setNodeActivationListener(handle -> { // en el vecindario, doble clic recentra en otro usuario
+            if (egoHandle != null) {
+                showEgoNetwork(handle, egoHops);
+            }
+        });
         add(buildStatusBar(), BorderLayout.SOUTH); // status bar abajo
 
         
@@ -127,16 +212,32 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         saveMenuItem.addActionListener(e -> handleSave()); // acción guardar
         saveMenuItem.setEnabled(false); // por defecto deshabilitado
 
+        final JMenuItem importItem = new JMenuItem("Importar lista de aristas…"); // importar CSV/TSV
+        importItem.addActionListener(e -> handleImportEdgeList()); // acción importar
+
         final JMenuItem saveAsItem = new JMenuItem("Guardar como…"); // guardar como
         saveAsItem.addActionListener(e -> handleSaveAs()); // acción guardar como
 
+        final JMenuItem exportGraphMlItem = new JMenuItem("Exportar GraphML…"); // exportar GraphML
+        exportGraphMlItem.addActionListener(e -> handleExport(EXPORT_GRAPHML)); // acción exportar
+
+        final JMenuItem exportDotItem = new JMenuItem("Exportar DOT…"); // exportar Graphviz
+        exportDotItem.addActionListener(e -> handleExport(EXPORT_DOT)); // acción exportar
+
+        ingestMenuItem = new JMenuItem(MENU_TEXT_START_INGEST); // seguir registro de eventos
+        ingestMenuItem.addActionListener(e -> handleToggleIngest()); // acción iniciar/detener
+
         final JMenuItem exitItem = new JMenuItem("Salir"); // salir
         exitItem.addActionListener(e -> attemptExit()); // acción salir
 
         menu.add(newItem); // añade items al menú
         menu.add(openItem);
+        menu.add(importItem);
         menu.add(saveMenuItem);
         menu.add(saveAsItem);
+        menu.add(exportGraphMlItem);
+        menu.add(exportDotItem);
+        menu.add(ingestMenuItem);
         menu.add(new JSeparator()); // separador
         menu.add(exitItem);
         return menu; // retorna menú construido
@@ -174,12 +275,43 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         final JMenuItem recenterItem = new JMenuItem("Recentrar/Refrescar"); // re-centra vista
         recenterItem.addActionListener(e -> graphPanel.recenter()); // acción recenter
 
+        final JMenuItem diffItem = new JMenuItem("Comparar con archivo…"); // diferencias con otro archivo
+        diffItem.addActionListener(e -> handleDiffWithFile()); // acción comparar
+
+        final JCheckBoxMenuItem hudItem = new JCheckBoxMenuItem("Mostrar tiempos de render"); // superposición de rendimiento
+        hudItem.addActionListener(e -> graphPanel.setHudVisible(hudItem.isSelected()));
+
         final JMenuItem layoutItem = new JMenuItem("Layout"); // cambiar layout
         layoutItem.addActionListener(e -> handleLayoutSwitch()); // acción layout
 
+        condensedMenuItem = new JCheckBoxMenuItem(MENU_TEXT_CONDENSED); // un nodo por componente
+        condensedMenuItem.addActionListener(e -> {
+            condensedChosen = true; // respeta la elección del usuario en adelante
+            expandedComponent = -1;
+            egoHandle = null;
+            egoExitMenuItem.setEnabled(false);
+            refreshGraph();
+        });
+
+        final JMenuItem egoItem = new JMenuItem(MENU_TEXT_EGO); // solo un usuario y sus alrededores
+        egoItem.addActionListener(e -> handleEgoNetwork());
+        egoExitMenuItem = new JMenuItem(MENU_TEXT_EGO_EXIT);
+        egoExitMenuItem.addActionListener(e -> {
+            egoHandle = null;
+            egoExitMenuItem.setEnabled(false);
+            statusActivityLabel.setText("");
+            refreshGraph();
+        });
+        egoExitMenuItem.setEnabled(false);
+
         menu.add(detectSccMenuItem); // añade opciones al menú
+        menu.add(condensedMenuItem);
+        menu.add(egoItem);
+        menu.add(egoExitMenuItem);
         menu.add(recenterItem);
         menu.add(layoutItem);
+        menu.add(hudItem);
+        menu.add(diffItem);
         return menu; // retorna menú Ver
     }
 
@@ -219,6 +351,7 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         statusUsersLabel = new JLabel(STATUS_PREFIX_USERS + 0); // etiqueta usuarios
         statusRelationsLabel = new JLabel(STATUS_PREFIX_RELATIONS + 0); // etiqueta relaciones
         statusSccLabel = new JLabel(STATUS_PREFIX_SCC + 0); // etiqueta SCC
+        statusActivityLabel = new JLabel(""); // etiqueta de autoguardado (vacía hasta el primero)
 
         statusBar.add(Box.createHorizontalStrut(12)); // espacio
         statusBar.add(statusFileLabel); // añade etiquetas al status bar
@@ -229,20 +362,226 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         statusBar.add(Box.createHorizontalStrut(24));
         statusBar.add(statusSccLabel);
         statusBar.add(Box.createHorizontalGlue()); // empuja contenido a la izquierda
+        statusBar.add(statusActivityLabel); // estado del autoguardado a la derecha
+        statusBar.add(Box.createHorizontalStrut(12));
         return statusBar; // retorna panel de estado
     }
 
-    public void refreshGraph() { // refresca la vista del grafo usando snapshot del servicio
-        final DirectedGraph snapshot = graphService.getGraphSnapshot(); // obtiene copia del grafo
-        final services.GraphService.SccMapping mapping = graphService.getLastSccMapping(); // mapeo SCC si existe
-        graphPanel.renderGraph(snapshot, mapping.isEmpty() ? null : mapping); // renderiza (pasa null si vacío)
-        updateStatusBar(); // actualiza información en la barra de estado
+    /**
+     * Muestra un mensaje de actividad en la barra de estado (autoguardado,
+     * recargas, ingesta, progreso de la carga inicial). Puede invocarse desde
+     * cualquier hilo.
+     *
+     * @param message texto a mostrar
+     */
+    public void showStatusMessage(final String message) { // reenvía al EDT
+        SwingUtilities.invokeLater(() -> statusActivityLabel.setText(message == null ? "" : message));
+    }
+
+    /**
+     * Refleja una recarga del archivo hecha por el vigilante: refresca la
+     * vista o avisa del conflicto si había cambios sin guardar. Puede
+     * invocarse desde cualquier hilo.
+     *
+     * @param reload resultado de la recarga
+     */
+    public void showExternalReload(final GraphService.ExternalReload reload) { // reenvía al EDT
+        SwingUtilities.invokeLater(() -> {
+            if (reload.conflict()) {
+                statusActivityLabel.setText("El archivo cambió en disco; hay cambios sin guardar");
+                return;
+            }
+            if (!graphService.hasUnsavedChanges()) { // sin ediciones posteriores a la recarga
+                changesTracker.markClean();
+            }
+            final GraphDelta delta = reload.delta();
+            statusActivityLabel.setText("Recargado: +" + delta.addedUsers() + "/-" + delta.removedUsers()
+                    + " usuarios, +" + delta.addedRelations() + "/-" + delta.removedRelations() + " relaciones");
+            if (!delta.isEmpty()) {
+                refreshGraph(); // refresca
+            }
+        });
+    }
+
+    /**
+     * Marca la vista como desactualizada. El repintado se agrupa con las
+     * solicitudes siguientes: la copia del grafo se toma en segundo plano y
+     * solo la actualización del panel ocurre en el hilo de eventos. Debe
+     * invocarse desde el hilo de eventos.
+     */
+    public void refreshGraph() { // pide un cuadro con el modo de vista actual
+        final ViewState next = new ViewState(egoHandle, egoHops, condensedChosen, condensedMenuItem.isSelected(), expandedComponent);
+        if (!next.equals(viewState)) { // solo un cambio de modo descarta los cuadros en curso
+            viewState = next;
+        }
+        renderScheduler.requestRender();
+    }
+
+    private ViewFrame captureFrame() { // hilo de fondo: copia lo que dibuja el modo de vista pedido
+        final long start = System.nanoTime();
+        final ViewState state = viewState;
+        EgoNetwork ego = null;
+        if (state.egoHandle() != null) {
+            try {
+                ego = graphService.captureEgoNetwork(state.egoHandle(), state.egoHops(), EGO_MAX_USERS);
+            } catch (IllegalArgumentException ex) { // eliminado mientras se mostraba
+                return new ViewFrame(state, null, null, null, null, null, true, false, null, 0, 0, 0, 0L);
+            }
+        }
+        final int users = graphService.getUserCount();
+        CondensedView condensed = null;
+        String[] handles = null;
+        String[][] follows = null;
+        GraphService.SccMapping mapping = null;
+        final boolean condensedOn = state.condensedChosen() ? state.condensedSelected() : users > CONDENSED_AUTO_USERS; // grafos grandes: vista por componentes salvo que el usuario la desactive
+        boolean sccStale = false;
+        if (ego == null && condensedOn && users > 0) {
+            condensed = graphService.captureCondensedView(CONDENSED_MAX_GROUPS, state.expandedComponent()); // un id que ya no existe se ignora
+            sccStale = condensed == null; // SCC sin calcular o invalidadas por una edición: se recalculan aparte
+        } else if (ego == null) {
+            final IndexedGraph csr = graphService.captureIndexedSnapshot().graph(); // inmutable: se copia fuera del monitor
+            handles = new String[csr.userCount()];
+            follows = new String[handles.length][];
+            for (int v = 0; v < handles.length; v++) { // única copia del cuadro, hecha aquí y no en el EDT
+                handles[v] = csr.userAt(v);
+                final String[] targets = new String[csr.outDegree(v)];
+                for (int p = 0; p < targets.length; p++) {
+                    targets[p] = csr.userAt(csr.neighborAt(v, p));
+                }
+                follows[v] = targets;
+            }
+            mapping = graphService.getLastSccMapping(); // mapeo SCC si existe
+        }
+        final Path current = graphService.getCurrentFile();
+        return new ViewFrame(state, handles, follows, mapping, condensed, ego, false, sccStale,
+                current == null ? DEFAULT_FILE_NAME : current.getFileName().toString(),
+                users, graphService.getRelationCount(), graphService.getLastComponentCount(), System.nanoTime() - start);
+    }
+
+    private void applyFrame(final ViewFrame frame) { // EDT: vuelca el cuadro en el panel
+        if (frame.state() != viewState) {
+            return; // el modo cambió después de la captura; ya hay otro cuadro pedido
+        }
+        if (frame.egoMissing()) {
+            statusActivityLabel.setText("El usuario " + egoHandle + " ya no existe; se muestra el grafo completo");
+            egoHandle = null;
+            egoExitMenuItem.setEnabled(false);
+            refreshGraph();
+            return;
+        }
+        graphPanel.reportSnapshotTime(frame.captureNanos()); // fase medida fuera del EDT, para la superposición
+        if (frame.ego() != null) {
+            renderEgoNetwork(frame.ego());
+        } else if (frame.condensed() != null) { // un nodo por componente
+            expandedComponent = frame.condensed().expandedComponent();
+            condensedView = frame.condensed();
+            graphPanel.renderCondensedView(frame.condensed());
+            if (STATUS_SCC_STALE.equals(statusActivityLabel.getText())) {
+                statusActivityLabel.setText("");
+            }
+        } else if (frame.sccStale()) { // se mantiene lo dibujado hasta el recálculo diferido
+            statusActivityLabel.setText(STATUS_SCC_STALE);
+            sccRecomputeTimer.restart(); // cada edición pospone el recálculo
+        } else {
+            graphPanel.renderGraph(frame.handles(), frame.follows(), frame.mapping().isEmpty() ? null : frame.mapping()); // pasa null si no hay SCC
+        }
+        if (frame.ego() == null && !frame.state().condensedChosen()) {
+            condensedMenuItem.setSelected(frame.condensed() != null || frame.sccStale());
+        }
+        updateStatusBar(frame); // actualiza información en la barra de estado
+        if (pendingLayout != null) { // layout pedido antes de este cuadro
+            graphPanel.applyLayout(pendingLayout);
+            pendingLayout = null;
+        }
+    }
+
+    private void scheduleSccRecompute() { // EDT: la calma terminó; calcula las SCC fuera del EDT
+        if (eventIngestor != null) {
+            return; // la ingesta ya recalcula tras su propia calma y pide un cuadro
+        }
+        sccExecutor.execute(() -> {
+            if (graphService.getLastCondensation() == null) { // nadie las calculó entretanto
+                graphService.computeStronglyConnectedComponents();
+            }
+            renderScheduler.requestRender();
+        });
+    }
+
+    private void handleComponentToggled(final int component) { // doble clic: expande o contrae una componente
+        final int size = condensedView == null ? 0 : sizeOfGroup(condensedView, component);
+        if (size > CONDENSED_MAX_EXPANDED) {
+            Alerts.warn(this, MENU_TEXT_CONDENSED, "La componente " + component + " tiene " + size
+                    + " usuarios; solo se expanden componentes de hasta " + CONDENSED_MAX_EXPANDED + ".");
+            return;
+        }
+        expandedComponent = component;
+        refreshGraph();
+    }
+
+    private void renderEgoNetwork(final EgoNetwork ego) { // dibuja el vecindario con los colores de sus SCC
+        final GraphService.SccMapping mapping = ego.componentIds() == null
+                ? null
+                : new GraphService.SccMapping(ego.users(), ego.componentIds()); // mismas componentes que el grafo completo
+        graphPanel.renderGraph(ego.users(), ego.follows(), mapping); // el vecindario ya trae la adyacencia
+        statusActivityLabel.setText("Vecindario de " + ego.center() + " (" + ego.hops() + " saltos): "
+                + ego.users().length + " usuarios" + (ego.truncated() ? ", recortado" : ""));
+    }
+
+    private void handleEgoNetwork() { // pide usuario y radio y muestra su vecindario
+        if (graphService.getUserCount() == 0) {
+            Alerts.warn(this, MENU_TEXT_EGO, "No hay usuarios cargados en el grafo.");
+            return;
+        }
+        final String handle = JOptionPane.showInputDialog(this, "Usuario central (@handle):", egoHandle == null ? "@" : egoHandle);
+        if (handle == null) {
+            return; // cancelado
+        }
+        final String hopsText = JOptionPane.showInputDialog(this, "Saltos (0-" + EGO_MAX_HOPS + "):", Integer.toString(egoHops));
+        if (hopsText == null) {
+            return;
+        }
+        final int hops;
+        try {
+            hops = Integer.parseInt(hopsText.trim());
+        } catch (NumberFormatException ex) {
+            Alerts.warn(this, MENU_TEXT_EGO, "El número de saltos debe ser un entero.");
+            return;
+        }
+        if (hops < 0 || hops > EGO_MAX_HOPS) {
+            Alerts.warn(this, MENU_TEXT_EGO, "El número de saltos debe estar entre 0 y " + EGO_MAX_HOPS + ".");
+            return;
+        }
+        showEgoNetwork(handle.trim(), hops);
+    }
+
+    private void showEgoNetwork(final String handle, final int hops) { // cambia el usuario central y refresca
+        final EgoNetwork ego;
+        try {
+            ego = graphService.captureEgoNetwork(handle, 0, 1); // solo valida el handle; el cuadro extrae el vecindario
+        } catch (IllegalArgumentException ex) { // handle inválido o inexistente
+            Alerts.warn(this, MENU_TEXT_EGO, ex.getMessage());
+            return;
+        }
+        egoHandle = ego.center();
+        egoHops = hops;
+        egoExitMenuItem.setEnabled(true);
+        refreshGraph();
+    }
+
+    private static int sizeOfGroup(final CondensedView view, final int component) { // miembros de una componente dibujada
+        for (int g = 0; g < view.groupCount(); g++) {
+            if (view.groupComponent()[g] == component) {
+                return view.groupSizes()[g];
+            }
+        }
+        return 0;
     }
 
     private void handleNew() { // crea un grafo nuevo, pidiendo confirmar cambios si es necesario
         if (!ensureChangesSaved()) { // si el usuario cancela
             return; // aborta
         }
+        stopIngest(); // los eventos del registro no pertenecen al grafo nuevo
         graphService.createNewGraph(); // crea grafo vacío
         changesTracker.markClean(); // marca limpio
         refreshGraph(); // refresca vista
@@ -256,6 +595,7 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         final int choice = fileChooser.showOpenDialog(this); // muestra diálogo abrir
         if (choice == JFileChooser.APPROVE_OPTION) { // si eligió archivo
             final File file = fileChooser.getSelectedFile(); // obtiene selección
+            stopIngest(); // los eventos del registro no pertenecen al archivo abierto
             try {
                 final GraphLoadResult result = graphService.loadFromFile(file.toPath()); // carga archivo
                 deliverWarnings(result.warnings()); // muestra advertencias si las hay
@@ -267,6 +607,45 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         }
     }
 
+    private void handleImportEdgeList() { // importa una lista de aristas sin encabezado
+        if (!ensureChangesSaved()) { // confirma cambios pendientes
+            return; // aborta si cancela
+        }
+        final JFileChooser fileChooser = new JFileChooser(); // cualquier extensión
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY); // solo archivos
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return; // cancelado
+        }
+        final Object[] options = {"Tabulador", "Coma", "Espacios"}; // delimitadores soportados
+        final int choice = JOptionPane.showOptionDialog(this,
+                "Seleccione el delimitador",
+                "Importar lista de aristas",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                options,
+                options[0]); // muestra diálogo de opciones
+        final EdgeListImporter.Options importOptions;
+        if (choice == 0) {
+            importOptions = EdgeListImporter.Options.tsv();
+        } else if (choice == 1) {
+            importOptions = EdgeListImporter.Options.csv();
+        } else if (choice == 2) {
+            importOptions = EdgeListImporter.Options.snap();
+        } else {
+            return; // diálogo cerrado
+        }
+        stopIngest(); // los eventos del registro no pertenecen al grafo importado
+        try {
+            final GraphLoadResult result = graphService.importEdgeList(fileChooser.getSelectedFile().toPath(), importOptions); // importa
+            deliverWarnings(result.warnings()); // muestra advertencias si las hay
+            changesTracker.markDirty(); // el grafo importado aún no tiene archivo
+            refreshGraph(); // refresca
+        } catch (IOException ex) { // error al importar
+            Alerts.error(this, "Error al importar", ex.getMessage()); // muestra diálogo de error
+        }
+    }
+
     private void handleSave() { // guarda en el archivo asociado o pide ruta si no existe
         if (graphService.getCurrentFile() == null) { // si no hay archivo asociado
             handleSaveAs(); // invoca guardar como
@@ -275,6 +654,7 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         try {
             graphService.save(); // guarda en archivo actual
             changesTracker.markClean(); // marca limpio
+            discardRecoveryCopy();
             refreshGraph(); // refresca
         } catch (IOException ex) { // error al guardar
             Alerts.error(this, "Error al guardar", ex.getMessage()); // muestra error
@@ -300,6 +680,7 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
             try {
                 graphService.saveAs(file.toPath()); // guarda en la ruta elegida
                 changesTracker.markClean(); // marca limpio
+                discardRecoveryCopy();
                 refreshGraph(); // refresca
             } catch (IOException ex) { // error al guardar
                 Alerts.error(this, "Error al guardar", ex.getMessage()); // muestra error
@@ -307,6 +688,37 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         }
     }
 
+    private void handleExport(final String extension) { // exporta a GraphML o DOT con las SCC calculadas
+        final JFileChooser chooser = new JFileChooser(); // selector propio (otra extensión)
+        chooser.setFileFilter(new FileNameExtensionFilter(extension.toUpperCase(Locale.ROOT), extension, "gz")); // filtra por formato
+        chooser.setFileSelectionMode(JFileChooser.FILES_ONLY); // solo archivos
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return; // cancelado
+        }
+        File file = chooser.getSelectedFile(); // archivo elegido
+        final String lowerName = file.getName().toLowerCase(Locale.ROOT); // la extensión no depende del idioma
+        if (!lowerName.endsWith("." + extension) && !lowerName.endsWith(CompressedStreams.GZIP_EXTENSION)) {
+            file = new File(file.getParentFile(), file.getName() + "." + extension); // añade extensión
+        }
+        final Path target = file.toPath();
+        statusActivityLabel.setText("Exportando " + target.getFileName() + "…");
+        final Thread worker = new Thread(() -> { // la escritura puede tardar: fuera del EDT
+            try {
+                if (EXPORT_GRAPHML.equals(extension)) {
+                    graphService.exportGraphMl(target, true); // incluye SCC si ya se calcularon
+                } else {
+                    graphService.exportDot(target, true);
+                }
+                showStatusMessage("Exportado " + target.getFileName());
+            } catch (IOException | RuntimeException ex) { // error al exportar
+                showStatusMessage("");
+                SwingUtilities.invokeLater(() -> Alerts.error(this, "Error al exportar", ex.getMessage())); // muestra error
+            }
+        }, "export");
+        worker.setDaemon(true); // no impide cerrar la aplicación
+        worker.start();
+    }
+
     private void handleAddUser() { // flujo para agregar un usuario (diálogo + servicio)
         final AddUserDialog dialog = new AddUserDialog(this); // crea diálogo
         dialog.setVisible(true); // muestra modalmente
@@ -323,16 +735,12 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
     }
 
     private void handleRemoveUser() { // flujo para eliminar un usuario
-        final User[] users = graphService.getUsers();
-        if (users.length == 0) { // si no hay usuarios
+        final HandlePrefixIndex index = graphService.getHandlePrefixIndex(); // búsqueda sin copiar la lista de usuarios
+        if (index.size() == 0) { // si no hay usuarios
             Alerts.warn(this, MENU_TEXT_REMOVE_USER, "No hay usuarios para eliminar."); // muestra advertencia
             return; // nada que hacer
         }
-        final String[] handles = new String[users.length];
-        for (int i = 0; i < users.length; i++) {
-            handles[i] = users[i].getHandle();
-        }
-        final RemoveUserDialog dialog = new RemoveUserDialog(this, handles); // muestra diálogo de selección
+        final RemoveUserDialog dialog = new RemoveUserDialog(this, index); // muestra diálogo de selección
         dialog.setVisible(true); // modal
         final String selected = dialog.getSelectedHandle();
         if (selected != null) {
@@ -351,16 +759,12 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
     }
 
     private void handleAddRelation() { // flujo para agregar relación
-        final User[] users = graphService.getUsers();
-        if (users.length < 2) { // requiere al menos dos usuarios
+        final HandlePrefixIndex index = graphService.getHandlePrefixIndex(); // búsqueda sin copiar la lista de usuarios
+        if (index.size() < 2) { // requiere al menos dos usuarios
             Alerts.warn(this, MENU_TEXT_ADD_RELATION, "Se requieren al menos dos usuarios."); // advierte
             return; // aborta
         }
-        final String[] handles = new String[users.length];
-        for (int i = 0; i < users.length; i++) {
-            handles[i] = users[i].getHandle();
-        }
-        final AddRelationDialog dialog = new AddRelationDialog(this, handles); // diálogo selección origen/destino
+        final AddRelationDialog dialog = new AddRelationDialog(this, index); // diálogo selección origen/destino
         dialog.setVisible(true); // muestra
         final AddRelationDialog.RelationSelection relation = dialog.getRelation();
         if (relation != null) { // si hizo selección
@@ -375,12 +779,12 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
     }
 
     private void handleRemoveRelation() { // flujo para eliminar relación
-        final services.GraphService.Relation[] relations = graphService.getRelations(); // obtiene arreglo de relaciones
-        if (relations.length == 0) { // si no hay relaciones
+        final HandlePrefixIndex index = graphService.getHandlePrefixIndex(); // las relaciones se resuelven al mostrarlas
+        if (index.graph().edgeCount() == 0) { // si no hay relaciones
             Alerts.warn(this, MENU_TEXT_REMOVE_RELATION, "No hay relaciones que eliminar."); // advierte
             return; // aborta
         }
-        final RemoveRelationDialog dialog = new RemoveRelationDialog(this, relations); // diálogo selección de relación
+        final RemoveRelationDialog dialog = new RemoveRelationDialog(this, index); // diálogo selección de relación
         dialog.setVisible(true); // muestra
         final services.GraphService.Relation relation = dialog.getRelation(); // puede ser null
         if (relation != null) { // si seleccionó
@@ -402,13 +806,116 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
             Alerts.warn(this, MENU_TEXT_DETECT_SCC, "No hay usuarios cargados en el grafo."); // advierte
             return; // aborta
         }
-        final SccComputationResult result = graphService.computeStronglyConnectedComponents(); // computa SCCs
-        graphPanel.renderGraph(graphService.getGraphSnapshot(), result.mapping()); // renderiza con mapeo
-        updateStatusBar(); // actualiza barra estado
+        graphService.computeStronglyConnectedComponents(); // computa SCCs
+        expandedComponent = -1; // los identificadores de componente pueden haber cambiado
+        refreshGraph(); // redibuja la vista activa con el nuevo cálculo
+    }
+
+    private void handleToggleIngest() { // inicia o detiene la ingesta de un registro de eventos
+        if (eventIngestor != null) {
+            stopIngest();
+            return;
+        }
+        final JFileChooser chooser = new JFileChooser(); // registro de solo anexado
+        chooser.setFileSelectionMode(JFileChooser.FILES_ONLY); // solo archivos
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return; // cancelado
+        }
+        final FollowEventIngestor[] self = new FollowEventIngestor[1]; // los avisos de una ingesta ya detenida se ignoran
+        eventIngestor = new FollowEventIngestor(graphService,
+                chooser.getSelectedFile().toPath(),
+                FollowEventIngestor.Options.defaults(),
+                new FollowEventIngestor.IngestListener() {
+            @Override
+            public void onBatchApplied(final GraphService.BatchResult result, final FollowEventIngestor.Metrics metrics) {
+                SwingUtilities.invokeLater(() -> { // solo la barra de estado: el grafo se repinta tras el recálculo de SCC
+                    if (eventIngestor != self[0]) {
+                        return; // aviso encolado antes de detenerla
+                    }
+                    if (result.applied() > 0) {
+                        changesTracker.markDirty(); // cambios sin guardar
+                    }
+                    statusActivityLabel.setText(String.format("Eventos: %d aplicados, %d rechazados, %.0f/s, retraso %d ms",
+                            metrics.eventsApplied(), metrics.eventsRejected(), metrics.eventsPerSecond(), metrics.lastLagMillis()));
+                });
+            }
+
+            @Override
+            public void onSccRecomputed(final SccComputationResult result) {
+                renderScheduler.requestRender(); // repinta con las SCC al día, agrupado con los demás cambios
+            }
+
+            @Override
+            public void onIngestFailed(final String message) {
+                SwingUtilities.invokeLater(() -> {
+                    if (eventIngestor == self[0]) { // la ingesta se detuvo sola: el menú vuelve a ofrecer iniciarla
+                        stopIngest();
+                    }
+                    statusActivityLabel.setText(message);
+                });
+            }
+        });
+        self[0] = eventIngestor;
+        eventIngestor.start(); // lector + aplicador en segundo plano
+        ingestMenuItem.setText(MENU_TEXT_STOP_INGEST);
+        statusActivityLabel.setText("Siguiendo " + chooser.getSelectedFile().getName());
+    }
+
+    private void stopIngest() { // detiene la ingesta activa (si la hay) antes de reemplazar el grafo o salir
+        if (eventIngestor == null) {
+            return;
+        }
+        eventIngestor.close(); // detiene hilos y espera el lote en curso
+        eventIngestor = null;
+        ingestMenuItem.setText(MENU_TEXT_START_INGEST);
+        statusActivityLabel.setText("Ingesta detenida");
+    }
+
+    private void handleDiffWithFile() { // muestra qué cambiaría al cargar otro archivo
+        final JFileChooser chooser = new JFileChooser(); // cualquier formato soportado
+        chooser.setFileSelectionMode(JFileChooser.FILES_ONLY); // solo archivos
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return; // cancelado
+        }
+        final GraphDiff diff;
+        try {
+            diff = graphService.diffWithFile(chooser.getSelectedFile().toPath()); // compara
+        } catch (IOException ex) { // error al leer
+            Alerts.error(this, "Error al comparar", ex.getMessage()); // muestra error
+            return;
+        }
+        if (diff.isEmpty()) {
+            Alerts.info(this, "Comparar", "El archivo tiene el mismo contenido que el grafo actual.");
+            return;
+        }
+        final String nl = System.lineSeparator(); // separador de líneas
+        final StringBuilder message = new StringBuilder();
+        message.append("Usuarios: +").append(diff.addedUsers().length).append(" / -").append(diff.removedUsers().length).append(nl);
+        message.append("Relaciones: +").append(diff.addedRelationCount()).append(" / -").append(diff.removedRelationCount()).append(nl);
+        message.append("Componentes: ").append(diff.componentsBefore()).append(" → ").append(diff.componentsAfter())
+                .append(" (").append(diff.sccChangedUsers().length).append(" usuarios cambian de componente)").append(nl);
+        appendSample(message, "Relaciones nuevas", diff.addedFrom(), diff.addedTo());
+        appendSample(message, "Relaciones eliminadas", diff.removedFrom(), diff.removedTo());
+        Alerts.info(this, "Comparar", message.toString()); // muestra resumen
+    }
+
+    private static void appendSample(final StringBuilder message, final String title, final String[] from, final String[] to) { // primeras relaciones de una lista
+        if (from.length == 0) {
+            return;
+        }
+        final String nl = System.lineSeparator();
+        message.append(nl).append(title).append(':').append(nl);
+        final int shown = Math.min(from.length, DIFF_SAMPLE_SIZE);
+        for (int i = 0; i < shown; i++) {
+            message.append(WARNINGS_BULLET).append(from[i]).append(" → ").append(to[i]).append(nl);
+        }
+        if (from.length > shown) {
+            message.append(WARNINGS_BULLET).append("… y ").append(from.length - shown).append(" más").append(nl);
+        }
     }
 
     private void handleLayoutSwitch() { // permite seleccionar layout de la vista
-        final Object[] options = {"Spring", "Desactivar"}; // opciones del diálogo
+        final Object[] options = {"Fuerzas", "Fuerzas por SCC", "Spring", "Desactivar"}; // opciones del diálogo
         final int choice = JOptionPane.showOptionDialog(this,
                 "Seleccione un layout",
                 "Layout",
@@ -417,9 +924,19 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
                 null,
                 options,
                 options[0]); // muestra diálogo de opciones
-        if (choice == 0) { // Spring
+        if (choice == 0) { // Barnes-Hut en segundo plano
+            graphPanel.applyLayout(GraphPanel.LayoutType.FORCE);
+        } else if (choice == 1) { // agrupa cada SCC
+            if (graphService.getLastSccMapping().isEmpty() && graphService.getUserCount() > 0) {
+                graphService.computeStronglyConnectedComponents(); // los racimos requieren las SCC
+                pendingLayout = GraphPanel.LayoutType.FORCE_BY_SCC; // se aplica cuando el panel tenga las componentes
+                refreshGraph();
+                return;
+            }
+            graphPanel.applyLayout(GraphPanel.LayoutType.FORCE_BY_SCC);
+        } else if (choice == 2) { // Spring
             graphPanel.applyLayout(GraphPanel.LayoutType.SPRING); // activa layout dinámico
-        } else if (choice == 1) { // Desactivar
+        } else if (choice == 3) { // Desactivar
             graphPanel.applyLayout(GraphPanel.LayoutType.NO_LAYOUT); // desactiva layout automático
         }
     }
@@ -438,7 +955,7 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
 
     private JFileChooser createFileChooser() { // crea un JFileChooser preconfigurado
         final JFileChooser chooser = new JFileChooser(); // instancia
-        chooser.setFileFilter(new FileNameExtensionFilter("Archivos de texto", "txt")); // filtra .txt
+        chooser.setFileFilter(new FileNameExtensionFilter("Archivos de texto (.txt, .gz)", "txt", "gz")); // filtra .txt y comprimidos
         chooser.setAcceptAllFileFilterUsed(false); // no permitir otros tipos
         chooser.setFileSelectionMode(JFileChooser.FILES_ONLY); // solo archivos
         final Path current = graphService.getCurrentFile();
@@ -450,7 +967,7 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
 
     private File ensureTxtExtension(final File file) { // asegura extensión .txt al guardar
         final String lowerName = file.getName().toLowerCase(); // nombre en minúsculas (default locale)
-        if (lowerName.endsWith(TXT_EXTENSION)) { // si ya tiene .txt
+        if (lowerName.endsWith(TXT_EXTENSION) || lowerName.endsWith(CompressedStreams.GZIP_EXTENSION)) { // si ya tiene .txt o .gz
             return file; // retorna tal cual
         }
         final File parent = file.getParentFile(); // obtiene carpeta padre
@@ -458,16 +975,13 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         return parent == null ? new File(newName) : new File(parent, newName); // construye nuevo File
     }
 
-    private void updateStatusBar() { // actualiza etiquetas informativas en la barra de estado
-        final Path current = graphService.getCurrentFile();
-        final String fileName = current == null ? DEFAULT_FILE_NAME : current.getFileName().toString(); // obtiene nombre del archivo o 'Memoria'
-        statusFileLabel.setText(STATUS_PREFIX_FILE + fileName); // actualiza etiqueta archivo
-        statusUsersLabel.setText(STATUS_PREFIX_USERS + graphService.getUserCount()); // actualiza count usuarios
-        statusRelationsLabel.setText(STATUS_PREFIX_RELATIONS + graphService.getRelationCount()); // actualiza count relaciones
-        final int sccCount = graphService.getLastComponents().length; // obtiene número de SCCs detectadas
-        statusSccLabel.setText(STATUS_PREFIX_SCC + sccCount); // actualiza etiqueta SCC
+    private void updateStatusBar(final ViewFrame frame) { // actualiza etiquetas informativas con los datos del cuadro
+        statusFileLabel.setText(STATUS_PREFIX_FILE + frame.fileName()); // actualiza etiqueta archivo
+        statusUsersLabel.setText(STATUS_PREFIX_USERS + frame.users()); // actualiza count usuarios
+        statusRelationsLabel.setText(STATUS_PREFIX_RELATIONS + frame.relations()); // actualiza count relaciones
+        statusSccLabel.setText(STATUS_PREFIX_SCC + frame.components()); // actualiza etiqueta SCC
         if (detectSccMenuItem != null) { // habilita opción detectar SCC si hay usuarios
-            detectSccMenuItem.setEnabled(graphService.getUserCount() > 0);
+            detectSccMenuItem.setEnabled(frame.users() > 0);
         }
     }
 
@@ -495,10 +1009,46 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
         return true; // si eligió 'No guardar', continúa
     }
 
+    /**
+     * Deshabilita los menús Archivo, Editar y Ver y la barra de herramientas
+     * mientras se carga el grafo inicial (o los vuelve a habilitar). Durante
+     * la carga cualquier acción esperaría el monitor del servicio en el hilo
+     * de eventos y un cambio del usuario quedaría marcado como guardado al
+     * terminar. Debe invocarse en el hilo de eventos.
+     *
+     * @param loading {@code true} mientras dure la carga
+     */
+    public void setGraphLoading(final boolean loading) {
+        graphLoading = loading;
+        for (Component control : graphControls) {
+            control.setEnabled(!loading);
+        }
+    }
+
+    /**
+     * Asocia el servicio de autoguardado para cerrarlo al salir y borrar la
+     * copia de recuperación tras cada guardado manual.
+     *
+     * @param service servicio ya iniciado
+     */
+    public void attachAutosave(final AutosaveService service) {
+        autosaveService = service;
+    }
+
+    private void discardRecoveryCopy() { // el archivo guardado ya contiene los cambios
+        if (autosaveService != null) {
+            autosaveService.discardRecoveryCopy();
+        }
+    }
+
     private void attemptExit() { // intenta cerrar la aplicación respetando cambios
-        if (!ensureChangesSaved()) { // confirma cambios
+        if (!graphLoading && !ensureChangesSaved()) { // durante la carga no hay cambios que confirmar
             return; // aborta si canceló
         }
+        stopIngest(); // no aplica más eventos mientras se cierra
+        if (autosaveService != null) {
+            autosaveService.close(); // no escribe más copias mientras se cierra
+        }
         dispose(); // destruye ventana
         System.exit(0); // finaliza JVM
     }
@@ -511,4 +1061,26 @@ public class MainFrame extends JFrame { // ventana principal que contiene menús
             refreshGraph(); // refresca vista del grafo
         });
     }
+
+    private record ViewState(String egoHandle, // modo de vista en el momento de pedir un cuadro
+            int egoHops,
+            boolean condensedChosen,
+            boolean condensedSelected,
+            int expandedComponent) {
+    }
+
+    private record ViewFrame(ViewState state, // copia tomada fuera del EDT; solo uno de handles/condensed/ego es no nulo
+            String[] handles, // adyacencia del grafo completo (handles y a quién sigue cada uno)
+            String[][] follows,
+            GraphService.SccMapping mapping,
+            CondensedView condensed,
+            EgoNetwork ego,
+            boolean egoMissing,
+            boolean sccStale, // vista condensada pedida, pero las SCC aún no están al día
+            String fileName,
+            int users,
+            int relations,
+            int components,
+            long captureNanos) {
+    }
 }
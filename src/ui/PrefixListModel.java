@@ -0,0 +1,94 @@
+package ui; // modelo de lista perezoso sobre el índice de prefijos
+
+import domain.HandlePrefixIndex; // búsqueda por prefijo de handle
+
+import javax.swing.AbstractListModel; // base de modelos de lista
+
+/**
+ * Modelo de lista de usuarios o de relaciones que coinciden con un prefijo.
+ * Solo guarda los límites del rango en el {@link HandlePrefixIndex}; cada
+ * fila se resuelve cuando la lista la pide, así que mostrar un millón de
+ * relaciones cuesta lo mismo que mostrar las pocas que caben en pantalla.
+ */
+final class PrefixListModel extends AbstractListModel<String> { // filas calculadas bajo demanda
+
+    private final HandlePrefixIndex index; // usuarios ordenados
+    private final boolean relations; // filas = relaciones cuyo origen coincide (si no, usuarios)
+    private int first; // primera posición alfabética que coincide
+    private int end; // posición siguiente a la última que coincide
+
+    private PrefixListModel(final HandlePrefixIndex index, final boolean relations) {
+        if (index == null) {
+            throw new IllegalArgumentException("index");
+        }
+        this.index = index;
+        this.relations = relations;
+        this.end = index.size();
+    }
+
+    /**
+     * @param index índice de prefijos
+     * @return modelo con un handle por fila
+     */
+    static PrefixListModel users(final HandlePrefixIndex index) {
+        return new PrefixListModel(index, false);
+    }
+
+    /**
+     * @param index índice de prefijos
+     * @return modelo con una relación por fila, filtrada por el origen
+     */
+    static PrefixListModel relations(final HandlePrefixIndex index) {
+        return new PrefixListModel(index, true);
+    }
+
+    /**
+     * Restringe las filas a las que empiezan por el prefijo (en O(log V)).
+     *
+     * @param prefix prefijo del handle (del origen, para relaciones)
+     */
+    void filter(final String prefix) {
+        final int before = getSize();
+        final String key = prefix == null ? "" : prefix.trim();
+        first = index.firstRank(key);
+        end = Math.max(first, index.endRank(key));
+        final int after = getSize();
+        if (after < before) {
+            fireIntervalRemoved(this, after, before - 1);
+        } else if (after > before) {
+            fireIntervalAdded(this, before, after - 1);
+        }
+        if (Math.min(before, after) > 0) {
+            fireContentsChanged(this, 0, Math.min(before, after) - 1);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return relations ? index.relationsBefore(end) - index.relationsBefore(first) : end - first;
+    }
+
+    @Override
+    public String getElementAt(final int row) {
+        return relations ? origin(row) + " → " + target(row) : origin(row);
+    }
+
+    /**
+     * @param row fila
+     * @return handle del usuario (u origen de la relación) de la fila
+     */
+    String origin(final int row) {
+        return relations
+                ? index.handleAt(index.originRankOf(index.relationsBefore(first) + row))
+                : index.handleAt(first + row);
+    }
+
+    /**
+     * @param row fila
+     * @return destino de la relación de la fila ({@code null} en modelos de
+     * usuarios)
+     */
+    String target(final int row) {
+        return relations ? index.relationTargetAt(index.relationsBefore(first) + row) : null;
+    }
+}
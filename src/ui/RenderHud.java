@@ -0,0 +1,165 @@
+package ui; // superposición con tiempos de render
+
+import org.graphstream.graph.Graph; // conteo de elementos dibujados
+
+import javax.swing.JComponent; // vista decorada
+import javax.swing.plaf.LayerUI; // decoración de la vista
+import java.awt.Color; // colores del panel
+import java.awt.Font; // fuente monoespaciada
+import java.awt.FontMetrics; // medidas del texto
+import java.awt.Graphics; // contexto de dibujo
+import java.awt.Graphics2D; // dibujo 2D
+
+/**
+ * Superposición opcional sobre la vista del grafo que muestra cuánto costó el
+ * último render por fases (copia del snapshot, diferencias, altas/bajas de
+ * elementos, hoja de estilo y pintado), los nodos y aristas que hay en
+ * GraphStream y los cuadros por segundo que realmente pinta el
+ * {@code ViewPanel}. Se instala con un {@link javax.swing.JLayer}: cada
+ * repintado de la vista pasa por {@link #paint(Graphics, JComponent)}, que
+ * mide el pintado y cuenta el cuadro. Todo ocurre en el hilo de eventos.
+ */
+final class RenderHud extends LayerUI<JComponent> { // tiempos del último render sobre la vista
+
+    /**
+     * Fases medidas de un render.
+     */
+    enum Phase {
+        SNAPSHOT("Snapshot"),
+        DIFF("Diferencias"),
+        ELEMENTS("Elementos"),
+        STYLESHEET("Hoja de estilo"),
+        PAINT("Pintado");
+
+        private final String label;
+
+        Phase(final String label) {
+            this.label = label;
+        }
+    }
+
+    private static final int FRAME_HISTORY = 256; // instantes de pintado recordados (FPS hasta 256)
+    private static final long FPS_WINDOW_NANOS = 1_000_000_000L; // ventana del promedio móvil
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    private final Graph graph; // elementos contados
+    private final long[] phaseNanos = new long[Phase.values().length]; // último render
+    private final long[] frameTimes = new long[FRAME_HISTORY]; // anillo de instantes de pintado
+    private int frameHead; // próxima posición del anillo
+    private int frameCount; // instantes válidos en el anillo
+    private String renderKind = "-"; // tipo del último render
+    private boolean visible; // se dibuja la superposición
+
+    RenderHud(final Graph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("graph");
+        }
+        this.graph = graph;
+    }
+
+    /**
+     * Muestra u oculta la superposición. Las mediciones continúan en ambos
+     * casos.
+     *
+     * @param show {@code true} para mostrarla
+     */
+    void setVisible(final boolean show) {
+        this.visible = show;
+    }
+
+    /**
+     * Empieza un render: olvida las fases del anterior salvo la copia del
+     * snapshot, que se mide antes de llegar al panel.
+     *
+     * @param kind descripción corta del render (completo, condensado...)
+     */
+    void beginRender(final String kind) {
+        renderKind = kind;
+        for (Phase phase : Phase.values()) {
+            if (phase != Phase.SNAPSHOT && phase != Phase.PAINT) {
+                phaseNanos[phase.ordinal()] = 0L;
+            }
+        }
+    }
+
+    /**
+     * Suma tiempo a una fase del render en curso.
+     *
+     * @param phase fase
+     * @param nanos duración en nanosegundos
+     */
+    void add(final Phase phase, final long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * Fija el tiempo de una fase (la copia del snapshot, medida fuera del
+     * panel).
+     *
+     * @param phase fase
+     * @param nanos duración en nanosegundos
+     */
+    void set(final Phase phase, final long nanos) {
+        phaseNanos[phase.ordinal()] = nanos;
+    }
+
+    @Override
+    public void paint(final Graphics g, final JComponent c) {
+        final long start = System.nanoTime();
+        super.paint(g, c); // pinta la vista de GraphStream
+        final long end = System.nanoTime();
+        phaseNanos[Phase.PAINT.ordinal()] = end - start;
+        frameTimes[frameHead] = end;
+        frameHead = (frameHead + 1) % FRAME_HISTORY;
+        frameCount = Math.min(FRAME_HISTORY, frameCount + 1);
+        if (visible) {
+            paintOverlay((Graphics2D) g.create(), end);
+        }
+    }
+
+    private void paintOverlay(final Graphics2D g, final long now) { // panel de texto en la esquina superior izquierda
+        try {
+            final String[] lines = new String[Phase.values().length + 3];
+            int n = 0;
+            lines[n++] = "Render: " + renderKind;
+            for (Phase phase : Phase.values()) {
+                lines[n++] = String.format("%-15s%8.1f ms", phase.label, phaseNanos[phase.ordinal()] / 1e6);
+            }
+            lines[n++] = "Nodos/aristas: " + graph.getNodeCount() + " / " + graph.getEdgeCount();
+            lines[n++] = String.format("FPS: %.1f", framesPerSecond(now));
+            g.setFont(FONT);
+            final FontMetrics metrics = g.getFontMetrics();
+            int width = 0;
+            for (String line : lines) {
+                width = Math.max(width, metrics.stringWidth(line));
+            }
+            final int lineHeight = metrics.getHeight();
+            g.setColor(BACKGROUND);
+            g.fillRoundRect(8, 8, width + 16, lineHeight * lines.length + 12, 8, 8);
+            g.setColor(Color.WHITE);
+            for (int i = 0; i < lines.length; i++) {
+                g.drawString(lines[i], 16, 14 + metrics.getAscent() + i * lineHeight);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private double framesPerSecond(final long now) { // cuadros pintados en el último segundo
+        int frames = 0;
+        long oldest = now;
+        for (int i = 1; i <= frameCount; i++) {
+            final long time = frameTimes[Math.floorMod(frameHead - i, FRAME_HISTORY)];
+            if (now - time > FPS_WINDOW_NANOS) {
+                break;
+            }
+            frames++;
+            oldest = time;
+        }
+        if (frames < 2) {
+            return frames;
+        }
+        return (frames - 1) * 1e9 / Math.max(1L, now - oldest);
+    }
+}
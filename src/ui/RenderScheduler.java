@@ -0,0 +1,158 @@
+package ui; // repintado agrupado de la vista
+
+import javax.swing.SwingUtilities; // entrega en el hilo de eventos
+import java.util.concurrent.Executors; // fábrica de ejecutores
+import java.util.concurrent.ScheduledExecutorService; // planificador
+import java.util.concurrent.TimeUnit; // unidades de tiempo
+
+/**
+ * Agrupa solicitudes de repintado: cada {@link #requestRender()} solo marca la
+ * vista como desactualizada y, como mucho una vez por intervalo de cuadro, se
+ * toma una copia del estado en un hilo de fondo ({@link Renderer#capture()})
+ * y se entrega al hilo de eventos de Swing ({@link Renderer#apply(Object)}).
+ * Mientras un cuadro se captura o se aplica no empieza otro; las solicitudes
+ * que llegan entretanto se funden en un único cuadro posterior, así que una
+ * ráfaga de cambios produce pocos repintados y el último siempre refleja el
+ * estado final.
+ *
+ * @param <T> copia del estado que pasa del hilo de fondo al de eventos
+ */
+public final class RenderScheduler<T> implements AutoCloseable { // como mucho un repintado por cuadro
+
+    public static final long DEFAULT_FRAME_MILLIS = 33L; // unos 30 cuadros por segundo
+
+    /**
+     * Produce y aplica los cuadros.
+     *
+     * @param <T> copia del estado
+     */
+    public interface Renderer<T> {
+
+        /**
+         * Copia el estado a dibujar. Se invoca en el hilo de fondo.
+         *
+         * @return copia del estado
+         */
+        T capture();
+
+        /**
+         * Actualiza la vista con la copia. Se invoca en el hilo de eventos.
+         *
+         * @param frame copia devuelta por {@link #capture()}
+         */
+        void apply(T frame);
+
+        /**
+         * Informa un error al capturar. Se invoca en el hilo de eventos.
+         *
+         * @param message descripción del error
+         */
+        void failed(String message);
+    }
+
+    private final Renderer<T> renderer; // capturas y aplicación
+    private final long frameNanos; // intervalo mínimo entre cuadros
+    private final ScheduledExecutorService scheduler; // hilo de captura
+
+    private boolean pending; // hay cambios sin dibujar
+    private boolean busy; // un cuadro se está capturando o aplicando
+    private boolean scheduled; // ya hay un cuadro programado
+    private long lastStartNanos; // inicio del último cuadro
+    private boolean closed;
+
+    /**
+     * Crea el planificador con el intervalo por defecto.
+     *
+     * @param renderer productor de cuadros
+     */
+    public RenderScheduler(final Renderer<T> renderer) {
+        this(renderer, DEFAULT_FRAME_MILLIS);
+    }
+
+    /**
+     * @param renderer productor de cuadros
+     * @param frameMillis intervalo mínimo entre dos cuadros
+     */
+    public RenderScheduler(final Renderer<T> renderer, final long frameMillis) {
+        if (renderer == null) {
+            throw new IllegalArgumentException("renderer");
+        }
+        if (frameMillis <= 0) {
+            throw new IllegalArgumentException("frameMillis");
+        }
+        this.renderer = renderer;
+        this.frameNanos = TimeUnit.MILLISECONDS.toNanos(frameMillis);
+        this.lastStartNanos = System.nanoTime() - frameNanos; // el primer cuadro sale sin esperar
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "render-snapshot");
+            thread.setDaemon(true); // no impide cerrar la aplicación
+            return thread;
+        });
+    }
+
+    /**
+     * Marca la vista como desactualizada. Puede invocarse desde cualquier
+     * hilo y tantas veces como se quiera: las solicitudes se agrupan.
+     */
+    public synchronized void requestRender() {
+        if (closed) {
+            return;
+        }
+        pending = true;
+        scheduleIfIdle();
+    }
+
+    @Override
+    public synchronized void close() { // descarta los cuadros pendientes
+        closed = true;
+        pending = false;
+        scheduler.shutdownNow();
+    }
+
+    private void scheduleIfIdle() { // programa el próximo cuadro respetando el intervalo (con el monitor tomado)
+        if (busy || scheduled || !pending || closed) {
+            return;
+        }
+        final long delay = Math.max(0L, lastStartNanos + frameNanos - System.nanoTime());
+        scheduled = true;
+        scheduler.schedule(this::runFrame, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void runFrame() { // hilo de fondo: captura y entrega al EDT
+        synchronized (this) {
+            scheduled = false;
+            if (closed || !pending) {
+                return;
+            }
+            pending = false; // los cambios posteriores piden otro cuadro
+            busy = true;
+            lastStartNanos = System.nanoTime();
+        }
+        final T frame;
+        try {
+            frame = renderer.capture();
+        } catch (RuntimeException ex) {
+            final String message = "No se pudo actualizar la vista: " + ex.getMessage();
+            SwingUtilities.invokeLater(() -> {
+                try {
+                    renderer.failed(message);
+                } finally {
+                    frameDone();
+                }
+            });
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            try {
+                renderer.apply(frame);
+            } finally {
+                frameDone();
+            }
+        });
+    }
+
+    private synchronized void frameDone() { // EDT: libera el cuadro y atiende lo acumulado
+        busy = false;
+        scheduleIfIdle();
+    }
+}
@@ -0,0 +1,120 @@
+package ui; // selector con búsqueda por prefijo
+
+import javax.swing.JList; // lista de coincidencias
+import javax.swing.JPanel; // contenedor
+import javax.swing.JScrollPane; // desplazamiento de la lista
+import javax.swing.JTextField; // campo de búsqueda
+import javax.swing.ListSelectionModel; // selección simple
+import javax.swing.event.DocumentEvent; // cambio del texto buscado
+import javax.swing.event.DocumentListener; // escucha del campo de búsqueda
+import javax.swing.text.Position; // sentido de la búsqueda de JList
+import java.awt.BorderLayout; // layout del selector
+import java.awt.event.KeyAdapter; // flechas desde el campo de búsqueda
+import java.awt.event.KeyEvent; // teclas
+
+/**
+ * Campo de búsqueda con la lista de coincidencias debajo. Cada tecla vuelve a
+ * filtrar el {@link PrefixListModel} (dos búsquedas binarias) y la lista solo
+ * pide las filas visibles, de modo que abrir el selector no depende del
+ * tamaño del grafo. Las flechas arriba/abajo mueven la selección sin dejar el
+ * campo.
+ */
+final class SearchablePicker extends JPanel { // búsqueda por prefijo + lista perezosa
+
+    private static final String PROTOTYPE_CELL = "@mmmmmmmmmmmmmmmmmmmmmm → @mmmmmmmmmmmmmm"; // ancho fijo: la lista no mide todas las filas
+    private static final int VISIBLE_ROWS = 10;
+
+    private final PrefixListModel model; // filas que coinciden
+    private final JTextField searchField = new JTextField(); // prefijo buscado
+    private final JList<String> list; // coincidencias
+
+    SearchablePicker(final PrefixListModel model) {
+        super(new BorderLayout(0, 6));
+        if (model == null) {
+            throw new IllegalArgumentException("model");
+        }
+        this.model = model;
+        this.list = new JList<>(model) {
+            @Override
+            public int getNextMatch(final String prefix, final int startIndex, final Position.Bias bias) {
+                return -1; // la búsqueda incremental de JList recorre todas las filas; se usa el campo de búsqueda
+            }
+        };
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setPrototypeCellValue(PROTOTYPE_CELL);
+        list.setVisibleRowCount(VISIBLE_ROWS);
+        searchField.setToolTipText("Escriba el inicio del handle");
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(final DocumentEvent e) {
+                refilter();
+            }
+
+            @Override
+            public void removeUpdate(final DocumentEvent e) {
+                refilter();
+            }
+
+            @Override
+            public void changedUpdate(final DocumentEvent e) {
+                refilter();
+            }
+        });
+        searchField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(final KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_DOWN) {
+                    moveSelection(1);
+                } else if (e.getKeyCode() == KeyEvent.VK_UP) {
+                    moveSelection(-1);
+                }
+            }
+        });
+        add(searchField, BorderLayout.NORTH);
+        add(new JScrollPane(list), BorderLayout.CENTER);
+        if (model.getSize() > 0) {
+            list.setSelectedIndex(0);
+        }
+    }
+
+    /**
+     * @return modelo del selector
+     */
+    PrefixListModel getModel() {
+        return model;
+    }
+
+    /**
+     * @return fila seleccionada o {@code -1}
+     */
+    int getSelectedIndex() {
+        return list.getSelectedIndex();
+    }
+
+    /**
+     * @return campo de búsqueda (para darle el foco)
+     */
+    JTextField getSearchField() {
+        return searchField;
+    }
+
+    private void refilter() { // filtra y selecciona la primera coincidencia
+        model.filter(searchField.getText());
+        if (model.getSize() > 0) {
+            list.setSelectedIndex(0);
+            list.ensureIndexIsVisible(0);
+        } else {
+            list.clearSelection();
+        }
+    }
+
+    private void moveSelection(final int delta) {
+        final int size = model.getSize();
+        if (size == 0) {
+            return;
+        }
+        final int next = Math.max(0, Math.min(size - 1, list.getSelectedIndex() + delta));
+        list.setSelectedIndex(next);
+        list.ensureIndexIsVisible(next);
+    }
+}
@@ -0,0 +1,139 @@
+package ui; // índice espacial para recortar la vista
+
+/**
+ * Rejilla uniforme sobre las posiciones del layout. Cada celda guarda los
+ * índices de los nodos que caen en ella (en formato CSR), de modo que los
+ * nodos dentro de un rectángulo se obtienen recorriendo solo las celdas que
+ * lo cortan. Es inmutable: si las posiciones cambian se construye otra.
+ */
+final class SpatialGrid { // nodos por celda sobre coordenadas del layout
+
+    private static final int NODES_PER_CELL = 8; // ocupación media buscada
+
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart; // inicio de cada celda en items (longitud celdas + 1)
+    private final int[] items; // índices de nodo agrupados por celda
+
+    private SpatialGrid(final double[] x, final double[] y) {
+        final int n = x.length;
+        double lowX = Double.POSITIVE_INFINITY;
+        double lowY = Double.POSITIVE_INFINITY;
+        double highX = Double.NEGATIVE_INFINITY;
+        double highY = Double.NEGATIVE_INFINITY;
+        for (int v = 0; v < n; v++) {
+            lowX = Math.min(lowX, x[v]);
+            lowY = Math.min(lowY, y[v]);
+            highX = Math.max(highX, x[v]);
+            highY = Math.max(highY, y[v]);
+        }
+        if (n == 0) {
+            lowX = 0.0;
+            lowY = 0.0;
+            highX = 0.0;
+            highY = 0.0;
+        }
+        this.minX = lowX;
+        this.minY = lowY;
+        this.maxX = highX;
+        this.maxY = highY;
+        final int side = Math.max(1, (int) Math.sqrt((double) n / NODES_PER_CELL));
+        this.columns = side;
+        this.rows = side;
+        this.cellWidth = Math.max(highX - lowX, 1e-9) / side;
+        this.cellHeight = Math.max(highY - lowY, 1e-9) / side;
+        this.cellStart = new int[columns * rows + 1];
+        final int[] cellOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            cellOf[v] = row(y[v]) * columns + column(x[v]);
+            cellStart[cellOf[v] + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        this.items = new int[n];
+        final int[] fill = new int[columns * rows];
+        for (int v = 0; v < n; v++) {
+            items[cellStart[cellOf[v]] + fill[cellOf[v]]++] = v;
+        }
+    }
+
+    /**
+     * Construye la rejilla en O(n).
+     *
+     * @param x coordenadas x de los nodos
+     * @param y coordenadas y de los nodos
+     * @return rejilla
+     */
+    static SpatialGrid build(final double[] x, final double[] y) {
+        if (x == null || y == null || x.length != y.length) {
+            throw new IllegalArgumentException("x/y");
+        }
+        return new SpatialGrid(x, y);
+    }
+
+    /**
+     * @return {minX, minY, maxX, maxY} de todos los nodos
+     */
+    double[] bounds() {
+        return new double[]{minX, minY, maxX, maxY};
+    }
+
+    /**
+     * Nodos dentro del rectángulo dado.
+     *
+     * @param fromX borde izquierdo
+     * @param fromY borde inferior
+     * @param toX borde derecho
+     * @param toY borde superior
+     * @param x coordenadas x usadas al construir la rejilla
+     * @param y coordenadas y usadas al construir la rejilla
+     * @return índices de los nodos contenidos
+     */
+    int[] query(final double fromX, final double fromY, final double toX, final double toY,
+            final double[] x, final double[] y) {
+        if (toX < minX || toY < minY || fromX > maxX || fromY > maxY) {
+            return new int[0];
+        }
+        final int firstColumn = column(fromX);
+        final int lastColumn = column(toX);
+        final int firstRow = row(fromY);
+        final int lastRow = row(toY);
+        int[] found = new int[64];
+        int count = 0;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                final int cell = r * columns + c;
+                final boolean inside = r > firstRow && r < lastRow && c > firstColumn && c < lastColumn; // celda interior: sin comprobar
+                for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                    final int v = items[p];
+                    if (inside || (x[v] >= fromX && x[v] <= toX && y[v] >= fromY && y[v] <= toY)) {
+                        if (count == found.length) {
+                            final int[] grown = new int[count * 2];
+                            System.arraycopy(found, 0, grown, 0, count);
+                            found = grown;
+                        }
+                        found[count++] = v;
+                    }
+                }
+            }
+        }
+        final int[] exact = new int[count];
+        System.arraycopy(found, 0, exact, 0, count);
+        return exact;
+    }
+
+    private int column(final double px) {
+        return Math.max(0, Math.min(columns - 1, (int) ((px - minX) / cellWidth)));
+    }
+
+    private int row(final double py) {
+        return Math.max(0, Math.min(rows - 1, (int) ((py - minY) / cellHeight)));
+    }
+}
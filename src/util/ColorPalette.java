@@ -25,6 +25,16 @@ public final class ColorPalette { // clase utilitaria para colores
         "#ffa500"
     };
 
+    private static final String[] STYLESHEETS = new String[COLORS.length + 1]; // hoja por número de colores usados (0..15)
+    private static final String CONDENSED_STYLESHEET;
+
+    static { // las hojas son pocas y pequeñas: se construyen una vez
+        for (int colors = 0; colors <= COLORS.length; colors++) {
+            STYLESHEETS[colors] = stylesheetFor(colors);
+        }
+        CONDENSED_STYLESHEET = condensedStylesheet();
+    }
+
     private ColorPalette() { // previene instanciación
         throw new UnsupportedOperationException("Utility class");
     }
@@ -38,16 +48,54 @@ public final class ColorPalette { // clase utilitaria para colores
         return COLORS.clone(); // retorna copia para mantener inmutabilidad
     }
 
-    public static String buildStylesheet(final int componentCount) { // construye stylesheet CSS para GraphStream según número de componentes
+    /**
+     * Hoja de estilo de la vista de usuarios. Las componentes comparten las
+     * clases de color de {@link #sccClassFor(int)}, así que el tamaño de la
+     * hoja no depende del número de componentes y cada variante se construye
+     * una sola vez.
+     *
+     * @param componentCount componentes a colorear
+     * @return hoja de estilo (la misma instancia para el mismo número de colores)
+     */
+    public static String buildStylesheet(final int componentCount) { // stylesheet CSS para GraphStream según colores necesarios
+        return STYLESHEETS[Math.max(0, Math.min(componentCount, COLORS.length))];
+    }
+
+    public static String sccClassFor(final int component) { // clase CSS de una componente en la vista de usuarios
+        return "scc_" + Math.floorMod(component, COLORS.length); // la paleta se repite; "_" porque el parser lee "-0" como número
+    }
+
+    private static String stylesheetFor(final int colors) { // una regla por color usado
         final StringBuilder builder = new StringBuilder("graph { padding: 60px; }"); // inicio del stylesheet
-        for (int i = 0; i < componentCount; i++) { // crea reglas para cada componente
-            builder.append(" node.scc-").append(i)
+        for (int i = 0; i < colors; i++) {
+            builder.append(" node.scc_").append(i)
                     .append(" { fill-color: ")
-                    .append(colorForIndex(i))
+                    .append(COLORS[i])
                     .append("; text-size: 18px; }"); // añade regla con color y tamaño de texto
         }
         builder.append(" node.default { fill-color: #546e7a; text-size: 18px; }"); // estilo por defecto
         builder.append(" edge { fill-color: #90a4ae; arrow-shape: arrow; }"); // estilo para aristas
         return builder.toString(); // retorna stylesheet final
     }
+
+    public static String groupClassFor(final int component) { // clase CSS de una componente en la vista condensada
+        return "group_" + Math.floorMod(component, COLORS.length); // una regla por color; "_" porque el parser lee "-0" como número
+    }
+
+    public static String buildCondensedStylesheet() { // stylesheet de la vista condensada: tamaño variable por nodo
+        return CONDENSED_STYLESHEET;
+    }
+
+    private static String condensedStylesheet() {
+        final StringBuilder builder = new StringBuilder("graph { padding: 60px; }");
+        for (int i = 0; i < COLORS.length; i++) {
+            builder.append(" node.group_").append(i)
+                    .append(" { fill-color: ")
+                    .append(COLORS[i])
+                    .append("; size-mode: dyn-size; text-size: 14px; }");
+        }
+        builder.append(" node.rest { fill-color: #b0bec5; size-mode: dyn-size; text-size: 14px; }"); // componentes agrupadas
+        builder.append(" edge { fill-color: #90a4ae; arrow-shape: arrow; }");
+        return builder.toString();
+    }
 }
@@ -24,12 +24,14 @@ public class UnsavedChangesTracker { // permite marcar estado y notificar listen
 
     private BooleanConsumer[] listeners = new BooleanConsumer[4]; // arreglo simple de listeners
     private int listenerCount = 0; // número actual de listeners
-    private boolean dirty; // estado actual
+    private volatile boolean dirty; // estado actual (leído también por el autoguardado)
+    private volatile long modificationCount; // número de cambios registrados desde el inicio
 
     /**
      * Marca el estado como con cambios pendientes (dirty).
      */
     public void markDirty() { // marca que hay cambios sin guardar
+        modificationCount++; // solo se escribe desde el hilo de la UI
         updateState(true); // actualiza estado y notifica si cambió
     }
 
@@ -49,6 +51,17 @@ public class UnsavedChangesTracker { // permite marcar estado y notificar listen
         return dirty; // retorna flag
     }
 
+    /**
+     * Devuelve cuántas veces se ha marcado un cambio. Permite a procesos en
+     * segundo plano detectar y agrupar ráfagas de modificaciones sin
+     * registrarse como listeners.
+     *
+     * @return contador monótono de cambios
+     */
+    public long getModificationCount() { // contador leído por el autoguardado
+        return modificationCount;
+    }
+
     /**
      * Registra un listener que recibe el estado como primitivo boolean.
      *